@@ -26,15 +26,23 @@ import io.github.imsejin.dl.lezhin.argument.impl.DebugMode;
 import io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange;
 import io.github.imsejin.dl.lezhin.argument.impl.Language;
 import io.github.imsejin.dl.lezhin.argument.impl.SaveAsJpeg;
+import io.github.imsejin.dl.lezhin.argument.impl.WarmUpBrowser;
 import io.github.imsejin.dl.lezhin.browser.ChromeBrowser;
 import io.github.imsejin.dl.lezhin.common.Loggers;
 import io.github.imsejin.dl.lezhin.process.ProcessContext;
 import io.github.imsejin.dl.lezhin.process.Processor;
 import io.github.imsejin.dl.lezhin.process.framework.ProcessorCreator;
+import io.github.imsejin.dl.lezhin.process.framework.ProcessorExecutor;
 import io.github.imsejin.dl.lezhin.process.framework.ProcessorOrderResolver;
+import io.github.imsejin.dl.lezhin.process.framework.ProcessorRegistry;
+import io.github.imsejin.dl.lezhin.session.CheckpointStore;
 import io.github.imsejin.dl.lezhin.util.PathUtils;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static java.util.stream.Collectors.toUnmodifiableSet;
@@ -43,9 +51,8 @@ public final class Application {
 
     public static void main(String[] args) {
         ArgumentsParser argumentsParser = new ArgumentsParser(
-                new Language(), new ContentName(), new EpisodeRange(), new SaveAsJpeg(), new DebugMode());
-//        List<Argument> arguments = argumentsParser.parse(args);
-        List<Argument> arguments = argumentsParser.parse("-l=en", "-n=appetite", "-d");
+                new Language(), new ContentName(), new EpisodeRange(), new SaveAsJpeg(), new DebugMode(), new WarmUpBrowser());
+        List<Argument> arguments = argumentsParser.parse(args);
 
         ProcessContext context = ProcessContext.create(arguments.toArray());
         if (context.getDebugMode().getValue()) {
@@ -53,30 +60,63 @@ public final class Application {
             ChromeBrowser.debugging();
         }
 
-        // Finds all types of implementation of the processor.
-        Set<Class<? extends Processor>> processorTypes = ClassFinder.getAllSubtypes(Processor.class, SearchPolicy.CLASS)
-                .stream().filter(it -> it.getEnclosingClass() == null && !ClassUtils.isAbstractClass(it))
-                .collect(toUnmodifiableSet());
+        // Launches browser in background while the others are prepared.
+        if (context.getWarmUpBrowser().getValue()) {
+            ChromeBrowser.warmUp();
+        }
+
+        try {
+            ProcessorExecutor executor = createProcessorExecutor(PathUtils.getCurrentPath(), context.getLanguage().getValue());
+            executor.execute(context);
+        } finally {
+            // Quits the driver and its child processes whether the run succeeded or not.
+            ChromeBrowser.quitIfInitialized();
+        }
+    }
+
+    /**
+     * Creates executor of the processors.
+     *
+     * <p> Uses the registry generated on compilation if it exists; otherwise,
+     * scans classpath and resolves dependencies and constructors of the processors at runtime.
+     * Results of the processors are kept as checkpoints in the path.
+     *
+     * @param basePath path of the application
+     * @param locale   locale of lezhin platform
+     * @return executor of processors
+     */
+    static ProcessorExecutor createProcessorExecutor(Path basePath, Locale locale) {
+        CheckpointStore checkpointStore = new CheckpointStore(basePath);
 
-        // Sorts order of the types.
-        List<Class<? extends Processor>> orderedTypes = ProcessorOrderResolver.resolve(processorTypes);
+        Optional<ProcessorRegistry> registry = ProcessorRegistry.find();
+        if (registry.isPresent()) {
+            return new ProcessorExecutor(registry.get().createProcessors(basePath, locale),
+                    registry.get().getDependencies(), checkpointStore);
+        }
+
+        // Finds all types of implementation of the processor.
+        Set<Class<? extends Processor>> processorTypes = findProcessorTypes();
 
-        // Prepares objects needed to instantiate the processors.
-        List<Object> beans = List.of(PathUtils.getCurrentPath(), context.getLanguage().getValue());
+        // Sorts the types in topological order.
+        Map<Class<? extends Processor>, List<Class<? extends Processor>>> dependencies =
+                ProcessorOrderResolver.resolveDependencies(processorTypes);
 
         // Creates the processors with beans.
-        ProcessorCreator processorCreator = new ProcessorCreator(beans.toArray());
-        List<Processor> processors = processorCreator.create(orderedTypes);
+        ProcessorCreator processorCreator = new ProcessorCreator(basePath, locale);
+        List<Processor> processors = processorCreator.create(List.copyOf(dependencies.keySet()));
 
-        try {
-            for (Processor processor : processors) {
-                Object result = processor.process(context);
-                context = ProcessContext.of(context, result);
-            }
-        } catch (Exception e) {
-            ChromeBrowser.quitIfInitialized();
-            throw e;
-        }
+        return new ProcessorExecutor(processors, dependencies, checkpointStore);
+    }
+
+    /**
+     * Finds all types of implementation of the processor by scanning classpath.
+     *
+     * @return types of processor
+     */
+    static Set<Class<? extends Processor>> findProcessorTypes() {
+        return ClassFinder.getAllSubtypes(Processor.class, SearchPolicy.CLASS)
+                .stream().filter(it -> it.getEnclosingClass() == null && !ClassUtils.isAbstractClass(it))
+                .collect(toUnmodifiableSet());
     }
 
 }
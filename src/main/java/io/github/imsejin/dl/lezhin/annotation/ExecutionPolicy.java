@@ -0,0 +1,73 @@
+package io.github.imsejin.dl.lezhin.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Policy of timeout and retry for processor
+ *
+ * <p> Companion of {@link ProcessSpecification}. Each attempt is interrupted and its HTTP calls are cancelled
+ * when it takes longer than timeout. A failed attempt is retried after backoff, which grows by multiplier,
+ * while retries remain; an attempt which timed out is retryable only if {@link #retryOnTimeout()},
+ * and the other failures are retryable only if they are one of {@link #retryOn()}. An attempt which
+ * timed out may have done its work partly, such as submitting credentials, so it is not retried by default.
+ *
+ * <pre>{@code
+ *     @ProcessSpecification(dependsOn = HttpLoginProcessor.class)
+ *     @ExecutionPolicy(timeoutMillis = 60_000, maxRetries = 1, backoffMillis = 2_000, retryOn = WebDriverException.class)
+ *     public class LoginProcessor implements Processor { ... }
+ * }</pre>
+ *
+ * <p> A processor without this runs once without timeout.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExecutionPolicy {
+
+    /**
+     * Max duration of an attempt in milliseconds, zero if no timeout.
+     *
+     * @return timeout
+     */
+    long timeoutMillis() default 0;
+
+    /**
+     * Max number of retries after the first attempt.
+     *
+     * @return max retries
+     */
+    int maxRetries() default 0;
+
+    /**
+     * Duration to wait before the first retry in milliseconds.
+     *
+     * @return backoff
+     */
+    long backoffMillis() default 1_000;
+
+    /**
+     * Multiplier of backoff for each retry.
+     *
+     * @return multiplier
+     */
+    double backoffMultiplier() default 2;
+
+    /**
+     * Types of exception to retry on.
+     *
+     * @return retryable types
+     */
+    Class<? extends Exception>[] retryOn() default {};
+
+    /**
+     * Whether to retry an attempt which timed out.
+     *
+     * @return whether timeout is retryable
+     */
+    boolean retryOnTimeout() default false;
+
+}
@@ -6,13 +6,22 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Specification of processor
+ *
+ * <p> A processor runs after all the processors it depends on are done. Processors which don't depend on
+ * each other may run concurrently. A processor that depends on nothing is a starting process.
+ */
 @Documented
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ProcessSpecification {
 
-    Class<?> INDEPENDENT = void.class;
-
-    Class<?> dependsOn() default void.class;
+    /**
+     * Types of processor this depends on.
+     *
+     * @return types of processor
+     */
+    Class<?>[] dependsOn() default {};
 
 }
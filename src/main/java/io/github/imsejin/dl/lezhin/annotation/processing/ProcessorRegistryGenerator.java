@@ -0,0 +1,306 @@
+package io.github.imsejin.dl.lezhin.annotation.processing;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Annotation processor which generates {@code ProcessorRegistry}
+ *
+ * <p> This reads {@code @ProcessSpecification} of the processors being compiled and fails
+ * the compilation if the dependency graph is not valid for {@code ProcessorOrderResolver}.
+ * The generated registry lists the processors in order and creates them with the constructor
+ * that has the least parameters, as {@code ProcessorCreator} does. Parameters of the constructor
+ * must be one of the beans of the application: {@link java.nio.file.Path} and {@link java.util.Locale}.
+ *
+ * <p> This refers to the other types by name, so it can be compiled before them.
+ */
+@SupportedAnnotationTypes(ProcessorRegistryGenerator.ANNOTATION_NAME)
+public class ProcessorRegistryGenerator extends AbstractProcessor {
+
+    static final String ANNOTATION_NAME = "io.github.imsejin.dl.lezhin.annotation.ProcessSpecification";
+
+    private static final String PROCESSOR_NAME = "io.github.imsejin.dl.lezhin.process.Processor";
+
+    private static final String REGISTRY_PACKAGE = "io.github.imsejin.dl.lezhin.process.framework";
+
+    private static final String REGISTRY_SIMPLE_NAME = "GeneratedProcessorRegistry";
+
+    /**
+     * Names of beans and variables in the generated code.
+     */
+    private static final Map<String, String> BEANS = Map.of(
+            "java.nio.file.Path", "basePath",
+            "java.util.Locale", "locale");
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (this.generated || annotations.isEmpty()) {
+            return false;
+        }
+
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(ANNOTATION_NAME);
+        List<TypeElement> processorTypes = ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))
+                .stream().sorted(Comparator.comparing(it -> it.getQualifiedName().toString())).collect(toList());
+        if (processorTypes.isEmpty()) {
+            return false;
+        }
+
+        this.generated = true;
+
+        Map<TypeElement, List<TypeElement>> dependencyMap = resolveDependencies(processorTypes);
+        if (dependencyMap == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<String>> arguments = new LinkedHashMap<>();
+        for (TypeElement processorType : dependencyMap.keySet()) {
+            List<String> constructorArguments = resolveConstructorArguments(processorType);
+            if (constructorArguments == null) {
+                return false;
+            }
+
+            arguments.put(processorType, constructorArguments);
+        }
+
+        try {
+            write(dependencyMap, arguments);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate " + REGISTRY_SIMPLE_NAME + ": " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the processors in topological order and their dependencies,
+     * or {@code null} if the dependency graph is not acyclic.
+     */
+    private Map<TypeElement, List<TypeElement>> resolveDependencies(List<TypeElement> processorTypes) {
+        Messager messager = processingEnv.getMessager();
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror processorInterface = types.erasure(
+                processingEnv.getElementUtils().getTypeElement(PROCESSOR_NAME).asType());
+
+        Map<TypeElement, List<TypeElement>> dependencyMap = new LinkedHashMap<>();
+        boolean valid = true;
+
+        for (TypeElement processorType : processorTypes) {
+            if (!types.isAssignable(processorType.asType(), processorInterface)
+                    || processorType.getModifiers().contains(Modifier.ABSTRACT)
+                    || processorType.getNestingKind() != NestingKind.TOP_LEVEL) {
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "@ProcessSpecification must be on a top-level implementation of Processor", processorType);
+                valid = false;
+                continue;
+            }
+
+            Set<TypeElement> dependencies = new LinkedHashSet<>();
+            for (TypeMirror dependsOn : getDependsOn(processorType)) {
+                TypeElement dependency = (TypeElement) types.asElement(dependsOn);
+                if (dependency == null || !processorTypes.contains(dependency)) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "@ProcessSpecification.dependsOn must be " +
+                            "an implementation of Processor with @ProcessSpecification: " + dependsOn, processorType);
+                    valid = false;
+                } else if (dependency.equals(processorType)) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, "There is a self-referential "
+                            + "@ProcessSpecification.dependsOn: " + processorType, processorType);
+                    valid = false;
+                } else {
+                    dependencies.add(dependency);
+                }
+            }
+
+            dependencyMap.put(processorType, new ArrayList<>(dependencies));
+        }
+
+        if (!valid) {
+            return null;
+        }
+
+        // Sorts in the same order as ProcessorOrderResolver: ready processors by name.
+        Map<TypeElement, List<TypeElement>> ordered = new LinkedHashMap<>();
+        Map<TypeElement, List<TypeElement>> remainders = new LinkedHashMap<>();
+        dependencyMap.forEach((processorType, dependencies) ->
+                remainders.put(processorType, new ArrayList<>(dependencies)));
+
+        if (remainders.values().stream().noneMatch(List::isEmpty)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "There is no @ProcessSpecification as a starting process");
+            return null;
+        }
+
+        while (!remainders.isEmpty()) {
+            TypeElement ready = remainders.entrySet().stream().filter(it -> it.getValue().isEmpty())
+                    .map(Map.Entry::getKey).min(Comparator.comparing(it -> binaryName(it))).orElse(null);
+
+            // Processors in a cycle are never ready.
+            if (ready == null) {
+                List<TypeElement> cycle = new ArrayList<>(remainders.keySet());
+                messager.printMessage(Diagnostic.Kind.ERROR,
+                        "There is a cycle in dependency graph of process specification: " + cycle, cycle.get(0));
+                return null;
+            }
+
+            remainders.remove(ready);
+            remainders.values().forEach(it -> it.remove(ready));
+            ordered.put(ready, dependencyMap.get(ready));
+        }
+
+        return ordered;
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static List<TypeMirror> getDependsOn(TypeElement processorType) {
+        for (AnnotationMirror mirror : processorType.getAnnotationMirrors()) {
+            Element annotationType = mirror.getAnnotationType().asElement();
+            if (!((TypeElement) annotationType).getQualifiedName().contentEquals(ANNOTATION_NAME)) {
+                continue;
+            }
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("dependsOn")) {
+                    @SuppressWarnings("unchecked")
+                    List<? extends AnnotationValue> values =
+                            (List<? extends AnnotationValue>) entry.getValue().getValue();
+                    return values.stream().map(it -> (TypeMirror) it.getValue()).collect(toList());
+                }
+            }
+        }
+
+        // Default value.
+        return List.of();
+    }
+
+    /**
+     * Returns expressions of the constructor arguments, or {@code null} if no constructor is available.
+     */
+    private List<String> resolveConstructorArguments(TypeElement processorType) {
+        Types types = processingEnv.getTypeUtils();
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(processorType.getEnclosedElements())
+                .stream().filter(it -> it.getModifiers().contains(Modifier.PUBLIC))
+                .sorted(Comparator.comparing(it -> it.getParameters().size())).collect(toList());
+
+        constructor_scope:
+        for (ExecutableElement constructor : constructors) {
+            List<String> arguments = new ArrayList<>();
+
+            for (VariableElement parameter : constructor.getParameters()) {
+                TypeMirror parameterType = types.erasure(parameter.asType());
+                String bean = null;
+                if (parameterType.getKind() == TypeKind.DECLARED) {
+                    TypeElement parameterElement = (TypeElement) ((DeclaredType) parameterType).asElement();
+                    bean = BEANS.get(parameterElement.getQualifiedName().toString());
+                }
+
+                if (bean == null) {
+                    continue constructor_scope;
+                }
+
+                arguments.add(bean);
+            }
+
+            return arguments;
+        }
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "There is no public constructor " +
+                "whose parameters are beans " + BEANS.keySet() + ": " + processorType, processorType);
+        return null;
+    }
+
+    private void write(Map<TypeElement, List<TypeElement>> dependencyMap, Map<TypeElement, List<String>> arguments)
+            throws IOException {
+        List<TypeElement> ordered = new ArrayList<>(arguments.keySet());
+        String qualifiedName = REGISTRY_PACKAGE + '.' + REGISTRY_SIMPLE_NAME;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, ordered.toArray(new Element[0]));
+
+        String types = ordered.stream()
+                .map(it -> "            " + it.getQualifiedName() + ".class")
+                .collect(joining(",\n"));
+        String dependencies = dependencyMap.entrySet().stream()
+                .map(it -> "            Map.entry(" + it.getKey().getQualifiedName() + ".class, List.of("
+                        + it.getValue().stream().map(type -> type.getQualifiedName() + ".class").collect(joining(", "))
+                        + "))")
+                .collect(joining(",\n"));
+        String creations = arguments.entrySet().stream()
+                .map(it -> "                new " + it.getKey().getQualifiedName()
+                        + '(' + String.join(", ", it.getValue()) + ')')
+                .collect(joining(",\n"));
+
+        try (Writer writer = file.openWriter()) {
+            writer.write("package " + REGISTRY_PACKAGE + ";\n\n");
+            writer.write("import " + PROCESSOR_NAME + ";\n\n");
+            writer.write("import javax.annotation.processing.Generated;\n");
+            writer.write("import java.nio.file.Path;\n");
+            writer.write("import java.util.List;\n");
+            writer.write("import java.util.Locale;\n");
+            writer.write("import java.util.Map;\n\n");
+            writer.write("@Generated(\"" + getClass().getName() + "\")\n");
+            writer.write("public final class " + REGISTRY_SIMPLE_NAME + " implements ProcessorRegistry {\n\n");
+            writer.write("    private static final List<Class<? extends Processor>> PROCESSOR_TYPES = List.of(\n");
+            writer.write(types + ");\n\n");
+            writer.write("    private static final Map<Class<? extends Processor>, List<Class<? extends Processor>>> "
+                    + "DEPENDENCIES = Map.ofEntries(\n");
+            writer.write(dependencies + ");\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public List<Class<? extends Processor>> getProcessorTypes() {\n");
+            writer.write("        return PROCESSOR_TYPES;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public Map<Class<? extends Processor>, List<Class<? extends Processor>>> "
+                    + "getDependencies() {\n");
+            writer.write("        return DEPENDENCIES;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public List<Processor> createProcessors(Path basePath, Locale locale) {\n");
+            writer.write("        return List.of(\n");
+            writer.write(creations + ");\n");
+            writer.write("    }\n\n");
+            writer.write("}\n");
+        }
+    }
+
+}
@@ -16,30 +16,151 @@
 
 package io.github.imsejin.dl.lezhin.api;
 
+import io.github.imsejin.dl.lezhin.common.Origins;
+import io.github.imsejin.dl.lezhin.http.cache.CacheRule;
+import io.github.imsejin.dl.lezhin.http.circuit.CircuitBreaker;
+import io.github.imsejin.dl.lezhin.http.circuit.Endpoint;
+import io.github.imsejin.dl.lezhin.http.interceptor.CacheRuleInterceptor;
+import io.github.imsejin.dl.lezhin.http.interceptor.CircuitBreakerInterceptor;
+import io.github.imsejin.dl.lezhin.http.interceptor.ContentEncodingInterceptor;
 import io.github.imsejin.dl.lezhin.http.interceptor.FabricatedHeadersInterceptor;
+import io.github.imsejin.dl.lezhin.http.scope.CallScope;
+import io.github.imsejin.dl.lezhin.util.PathUtils;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import okhttp3.Cache;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 
 import java.time.Duration;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Base of services for lezhin API
+ *
+ * <p> Each session, distinguished by locale and access token, has its own immutable HTTP client
+ * with its own headers. The clients are derived from a shared client by {@link OkHttpClient#newBuilder()},
+ * so they share connection pool, dispatcher and decoding of compressed response. Services of different
+ * languages or accounts can be used at the same time without interfering with each other.
+ *
+ * <p> Origins can be overridden as described in {@link Origins}.
+ *
+ * <p> Responses of metadata are cached on disk by {@link CacheRule}.
+ *
+ * <p> Each {@link Endpoint} is guarded by its own {@link CircuitBreaker} shared by all sessions,
+ * so that requests fail fast while the endpoint has problems instead of waiting for timeout.
+ *
+ * <p> Calls are registered to {@link CallScope} open on the thread creating them, so that they can be cancelled.
+ */
 public abstract class BaseService {
 
-    private static final FabricatedHeadersInterceptor interceptor = new FabricatedHeadersInterceptor();
+    /**
+     * Max number of requests in flight to each host.
+     *
+     * <p> Images of episode are downloaded from CDN concurrently, so this is more than the default of OkHttp.
+     */
+    public static final int MAX_REQUESTS_PER_HOST = 8;
+
+    /**
+     * Max size of HTTP cache on disk.
+     */
+    private static final long CACHE_SIZE = 50L * 1024 * 1024;
 
-    private static final OkHttpClient httpClient = new OkHttpClient.Builder()
+    private static final CircuitBreakerInterceptor circuitBreakerInterceptor =
+            new CircuitBreakerInterceptor(CircuitBreaker.Config.ofDefault());
+
+    /**
+     * Client which has connection pool, dispatcher and cache shared by all sessions.
+     */
+    private static final OkHttpClient sharedHttpClient = new OkHttpClient.Builder()
+            .dispatcher(createDispatcher())
             .readTimeout(Duration.ofSeconds(15))
             .writeTimeout(Duration.ofSeconds(15))
-            .addInterceptor(interceptor)
+            .cache(new Cache(PathUtils.getCurrentPath().resolve(".cache").resolve("http").toFile(), CACHE_SIZE))
+            .addInterceptor(circuitBreakerInterceptor)
+            .addInterceptor(new ContentEncodingInterceptor())
+            .addNetworkInterceptor(new CacheRuleInterceptor())
+            .eventListenerFactory(CallScope::register)
             .build();
 
+    private static final ConcurrentMap<SessionKey, OkHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    private final OkHttpClient httpClient;
+
     public BaseService(Locale locale, UUID accessToken) {
-        interceptor.setLocale(locale);
-        interceptor.setAccessToken(accessToken);
+        this.httpClient = httpClients.computeIfAbsent(new SessionKey(locale, accessToken), key -> {
+            // User agent is fabricated once per session.
+            String userAgent = FabricatedHeadersInterceptor.randomizeUserAgent();
+
+            return sharedHttpClient.newBuilder()
+                    .addInterceptor(new FabricatedHeadersInterceptor(key.locale, key.accessToken, userAgent))
+                    .build();
+        });
     }
 
     public OkHttpClient getHttpClient() {
-        return httpClient;
+        return this.httpClient;
+    }
+
+    /**
+     * Returns client shared by all sessions, which has no headers of session.
+     *
+     * <p> Client for requests without session should be derived from this
+     * by {@link OkHttpClient#newBuilder()}, so that it shares dispatcher and circuit breakers.
+     *
+     * @return shared client
+     */
+    public static OkHttpClient getSharedHttpClient() {
+        return sharedHttpClient;
+    }
+
+    /**
+     * Returns circuit breaker of the endpoint, which has state and metrics of it.
+     *
+     * @param endpoint endpoint
+     * @return circuit breaker
+     */
+    public static CircuitBreaker getCircuitBreaker(Endpoint endpoint) {
+        return circuitBreakerInterceptor.getCircuitBreaker(endpoint);
+    }
+
+    /**
+     * Returns origin of CDN which serves metadata and images of episode.
+     *
+     * @return origin URL (e.g. https://ccdn.lezhin.com)
+     */
+    public static String getCdnOrigin() {
+        return Origins.getCdnOrigin();
+    }
+
+    /**
+     * Returns origin of lezhin platform for the locale.
+     *
+     * @param locale locale of lezhin platform
+     * @return origin URL (e.g. https://www.lezhin.com)
+     */
+    public static String getOrigin(Locale locale) {
+        return Origins.getOrigin(locale);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static Dispatcher createDispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        return dispatcher;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class SessionKey {
+        private final Locale locale;
+
+        private final UUID accessToken;
     }
 
 }
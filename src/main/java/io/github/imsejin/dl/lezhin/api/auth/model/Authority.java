@@ -20,6 +20,8 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
+import java.time.Duration;
+
 @Getter
 @ToString
 @RequiredArgsConstructor
@@ -31,4 +33,29 @@ public class Authority {
 
     private final String keyPairId;
 
+    /**
+     * Epoch milliseconds when this authority is expired, according to the server clock.
+     */
+    private final Long expiredAt;
+
+    /**
+     * Epoch milliseconds when this authority was issued, according to the server clock.
+     *
+     * <p> This is needed to tell lifetime of authority regardless of clock skew between server and client.
+     */
+    private final Long now;
+
+    /**
+     * Returns how long this authority is valid after it was issued.
+     *
+     * @return lifetime, zero if the server doesn't tell it
+     */
+    public Duration getLifetime() {
+        if (this.expiredAt == null || this.now == null) {
+            return Duration.ZERO;
+        }
+
+        return Duration.ofMillis(Math.max(0, this.expiredAt - this.now));
+    }
+
 }
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.auth.service;
+
+import io.github.imsejin.dl.lezhin.api.auth.model.Authority;
+import io.github.imsejin.dl.lezhin.api.auth.model.ServiceRequest;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.util.FutureUtils;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache of authority for viewing episode
+ *
+ * <p> Authority is keyed by content, episode and whether it is purchased. A cached authority is
+ * served without network call until it is expired. The expiry is computed from the lifetime
+ * the server tells ({@code expiredAt - now}), so clock skew between server and client doesn't matter.
+ *
+ * <p> Shortly before an authority is expired, it is refreshed on a background thread.
+ * Callers never wait for an expired signature as long as the refresh succeeds; if it fails,
+ * the next call after expiry loads a new authority by itself.
+ *
+ * <p> Loaded authorities can be taken out with their expiry by {@link #getAll()} and
+ * put into another cache by {@link #putAll(List)}, so that they outlive the process.
+ */
+@ThreadSafe
+public class AuthorityCache implements Closeable {
+
+    /**
+     * Default duration before expiry to refresh authority.
+     */
+    public static final Duration DEFAULT_REFRESH_AHEAD = Duration.ofSeconds(30);
+
+    private final Function<ServiceRequest, CompletableFuture<Authority>> loader;
+
+    private final Duration refreshAhead;
+
+    private final ConcurrentMap<Key, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    public AuthorityCache(Function<ServiceRequest, CompletableFuture<Authority>> loader) {
+        this(loader, DEFAULT_REFRESH_AHEAD);
+    }
+
+    public AuthorityCache(Function<ServiceRequest, CompletableFuture<Authority>> loader, Duration refreshAhead) {
+        this.loader = loader;
+        this.refreshAhead = refreshAhead;
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "authority-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Returns authority for the request.
+     *
+     * @param request request for authority
+     * @return authority
+     * @see #getAsync(ServiceRequest)
+     */
+    public Authority get(ServiceRequest request) {
+        return FutureUtils.join(getAsync(request));
+    }
+
+    /**
+     * Returns future of authority for the request.
+     *
+     * <p> If valid authority is cached, returns completed future without network call.
+     * Concurrent calls for the same key share a single load.
+     *
+     * @param request request for authority
+     * @return future of authority
+     */
+    public CompletableFuture<Authority> getAsync(ServiceRequest request) {
+        Key key = new Key(request);
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> current = this.entries.compute(key, (k, old) -> isUsable(old) ? old : created);
+
+        if (current == created) {
+            load(request).whenComplete((entry, throwable) -> {
+                if (throwable != null) {
+                    this.entries.remove(key, created);
+                    created.completeExceptionally(throwable);
+                    return;
+                }
+
+                created.complete(entry);
+                scheduleRefresh(key, request, entry);
+            });
+        }
+
+        return current.thenApply(it -> it.authority);
+    }
+
+    /**
+     * Returns future of authorities for the requests.
+     *
+     * <p> At most {@code parallelism} authorities are loaded at once.
+     *
+     * @param requests    requests for authority
+     * @param parallelism max number of authorities being loaded
+     * @return future of authorities in the same order as requests
+     */
+    public CompletableFuture<List<Authority>> getAllAsync(List<ServiceRequest> requests, int parallelism) {
+        return FutureUtils.allOf(requests, parallelism, this::getAsync);
+    }
+
+    /**
+     * Returns the authorities which are loaded and not expired yet.
+     *
+     * @return cached authorities
+     */
+    public List<CachedAuthority> getAll() {
+        List<CachedAuthority> authorities = new ArrayList<>();
+        this.entries.forEach((key, future) -> {
+            Entry entry = future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+            if (entry != null && !entry.isExpired()) {
+                authorities.add(new CachedAuthority(key.contentId, key.episodeId, key.purchased, entry.authority, entry.expiresAt));
+            }
+        });
+
+        return authorities;
+    }
+
+    /**
+     * Puts the authorities which were loaded before, such as by the other cache.
+     *
+     * <p> Expired authorities are ignored and the ones which are cached already are not replaced.
+     *
+     * @param authorities cached authorities
+     */
+    public void putAll(List<CachedAuthority> authorities) {
+        for (CachedAuthority authority : authorities) {
+            Entry entry = new Entry(authority.authority, authority.expiresAt);
+            if (entry.isExpired()) {
+                continue;
+            }
+
+            ServiceRequest request = authority.toRequest();
+            Key key = new Key(request);
+            if (this.entries.putIfAbsent(key, CompletableFuture.completedFuture(entry)) == null) {
+                scheduleRefresh(key, request, entry);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the authority for the request is cached and not expired.
+     *
+     * @param request request for authority
+     * @return whether authority can be served without network call
+     */
+    public boolean contains(ServiceRequest request) {
+        CompletableFuture<Entry> future = this.entries.get(new Key(request));
+        return future != null && future.isDone() && isUsable(future);
+    }
+
+    /**
+     * Returns the number of cached authorities.
+     *
+     * @return size of cache
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Stops refreshing authorities.
+     *
+     * <p> The cached authorities are kept until they are expired.
+     */
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private CompletableFuture<Entry> load(ServiceRequest request) {
+        long requestedAt = System.currentTimeMillis();
+
+        CompletableFuture<Authority> future;
+        try {
+            future = this.loader.apply(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // Lifetime is counted from the request, so the entry never outlives the authority.
+        return future.thenApply(it -> new Entry(it, requestedAt + it.getLifetime().toMillis()));
+    }
+
+    private void scheduleRefresh(Key key, ServiceRequest request, Entry entry) {
+        long delay = entry.expiresAt - this.refreshAhead.toMillis() - System.currentTimeMillis();
+
+        // Authority with short lifetime is just loaded again when it is expired.
+        if (delay <= 0 || this.scheduler.isShutdown()) {
+            return;
+        }
+
+        try {
+            this.scheduler.schedule(() -> refresh(key, request, entry), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Cache is closed.
+        }
+    }
+
+    private void refresh(Key key, ServiceRequest request, Entry stale) {
+        load(request).whenComplete((fresh, throwable) -> {
+            if (throwable != null) {
+                Loggers.getLogger().debug("Failed to refresh authority: {}", key, throwable);
+                return;
+            }
+
+            // Replaces only if the stale entry is not evicted or replaced yet.
+            CompletableFuture<Entry> replaced = this.entries.computeIfPresent(key,
+                    (k, old) -> old.getNow(null) == stale ? CompletableFuture.completedFuture(fresh) : old);
+
+            if (replaced != null && replaced.getNow(null) == fresh) {
+                Loggers.getLogger().debug("Refreshed authority: {}", key);
+                scheduleRefresh(key, request, fresh);
+            }
+        });
+    }
+
+    private static boolean isUsable(CompletableFuture<Entry> future) {
+        if (future == null) {
+            return false;
+        }
+
+        // Shares the load in progress.
+        if (!future.isDone()) {
+            return true;
+        }
+
+        return !future.isCompletedExceptionally() && !future.join().isExpired();
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    @ToString
+    @EqualsAndHashCode
+    private static final class Key {
+        private final Long contentId;
+
+        private final Long episodeId;
+
+        private final boolean purchased;
+
+        private Key(ServiceRequest request) {
+            this.contentId = request.getContentId();
+            this.episodeId = request.getEpisodeId();
+            this.purchased = request.isPurchased();
+        }
+    }
+
+    /**
+     * Authority with its key and expiry
+     */
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static final class CachedAuthority {
+        private final Long contentId;
+
+        private final Long episodeId;
+
+        private final boolean purchased;
+
+        private final Authority authority;
+
+        /**
+         * Epoch milliseconds when the authority is expired, according to the client clock.
+         */
+        private final long expiresAt;
+
+        private ServiceRequest toRequest() {
+            ServiceRequest request = new ServiceRequest();
+            request.setContentId(this.contentId);
+            request.setEpisodeId(this.episodeId);
+            request.setPurchased(this.purchased);
+            return request;
+        }
+    }
+
+    private static final class Entry {
+        private final Authority authority;
+
+        /**
+         * Epoch milliseconds when the authority is expired, according to the client clock.
+         */
+        private final long expiresAt;
+
+        private Entry(Authority authority, long expiresAt) {
+            this.authority = authority;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return this.expiresAt <= System.currentTimeMillis();
+        }
+    }
+
+}
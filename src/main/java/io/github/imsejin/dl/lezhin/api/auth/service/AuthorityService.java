@@ -16,17 +16,24 @@
 
 package io.github.imsejin.dl.lezhin.api.auth.service;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import io.github.imsejin.dl.lezhin.api.BaseService;
 import io.github.imsejin.dl.lezhin.api.auth.model.ServiceRequest;
 import io.github.imsejin.dl.lezhin.api.auth.model.Authority;
 import io.github.imsejin.dl.lezhin.common.PropertyBinder;
+import io.github.imsejin.dl.lezhin.util.FutureUtils;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import okhttp3.OkHttpClient;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
@@ -34,12 +41,23 @@ import retrofit2.http.GET;
 import retrofit2.http.Query;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.isNull;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextIntOrNull;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextLongOrNull;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextString;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.readObject;
 
 public class AuthorityService extends BaseService {
 
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(AuthResponse.class, new AuthResponseAdapter())
+            .create();
+
     private final ServiceInterface serviceInterface;
 
     public AuthorityService(Locale locale, UUID accessToken) {
@@ -47,15 +65,33 @@ public class AuthorityService extends BaseService {
 
         OkHttpClient httpClient = super.getHttpClient();
         Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl("https://www.lezhin.com/lz-api/v2/cloudfront/signed-url/")
-                .addConverterFactory(GsonConverterFactory.create())
+                .baseUrl(getOrigin(Locale.KOREA) + "/lz-api/v2/cloudfront/signed-url/")
+                .addConverterFactory(GsonConverterFactory.create(GSON))
                 .client(httpClient)
                 .build();
 
         this.serviceInterface = retrofit.create(ServiceInterface.class);
     }
 
+    /**
+     * Returns authority for viewing episode.
+     *
+     * @param request request for authority
+     * @return authority
+     */
     public Authority getAuthForViewEpisode(ServiceRequest request) {
+        return FutureUtils.join(getAuthForViewEpisodeAsync(request));
+    }
+
+    /**
+     * Returns future of authority for viewing episode.
+     *
+     * <p> The request is executed on the dispatcher of HTTP client, so this doesn't block the caller.
+     *
+     * @param request request for authority
+     * @return future of authority
+     */
+    public CompletableFuture<Authority> getAuthForViewEpisodeAsync(ServiceRequest request) {
         Call<AuthResponse> call = this.serviceInterface.getAuthForViewEpisode(
                 request.getContentId(),
                 request.getEpisodeId(),
@@ -63,15 +99,47 @@ public class AuthorityService extends BaseService {
                 request.getQ(),
                 request.getFirstCheckType());
 
-        Response<AuthResponse> response;
-        try {
-            response = call.execute();
-        } catch (IOException e) {
-            throw new RuntimeException(e.getMessage(), e);
-        }
+        CompletableFuture<Authority> future = new CompletableFuture<>();
+        call.enqueue(new Callback<>() {
+            @Override
+            public void onResponse(Call<AuthResponse> call, Response<AuthResponse> response) {
+                AuthResponse authResponse = response.body();
+                if (!response.isSuccessful() || authResponse == null || authResponse.getAuthData() == null) {
+                    future.completeExceptionally(new IllegalStateException(
+                            String.format("Failed to get authority for %s: %s", request, response)));
+                    return;
+                }
+
+                future.complete(PropertyBinder.INSTANCE.toAuthority(authResponse.getAuthData()));
+            }
 
-        AuthResponse authResponse = Objects.requireNonNull(response.body());
-        return PropertyBinder.INSTANCE.toAuthority(authResponse.getAuthData());
+            @Override
+            public void onFailure(Call<AuthResponse> call, Throwable t) {
+                future.completeExceptionally(new RuntimeException(t.getMessage(), t));
+            }
+        });
+
+        // Cancels the call when the caller gives up.
+        future.whenComplete((authority, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Returns future of authorities for viewing episodes.
+     *
+     * <p> At most {@code parallelism} requests are in flight at once.
+     *
+     * @param requests    requests for authority
+     * @param parallelism max number of requests in flight
+     * @return future of authorities in the same order as requests
+     */
+    public CompletableFuture<List<Authority>> getAuthForViewEpisodes(List<ServiceRequest> requests, int parallelism) {
+        return FutureUtils.allOf(requests, parallelism, this::getAuthForViewEpisodeAsync);
     }
 
     // -------------------------------------------------------------------------------------------------
@@ -122,4 +190,94 @@ public class AuthorityService extends BaseService {
         Long now;
     }
 
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Streaming adapter of {@link AuthResponse}, which doesn't reflect on every response.
+     */
+    private static final class AuthResponseAdapter extends TypeAdapter<AuthResponse> {
+        @Override
+        public void write(JsonWriter writer, AuthResponse value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("code").value(value.code);
+            writer.name("description").value(value.description);
+            writer.name("data");
+            if (value.authData == null) {
+                writer.nullValue();
+            } else {
+                AuthData data = value.authData;
+                writer.beginObject();
+                writer.name("Policy").value(data.policy);
+                writer.name("Signature").value(data.signature);
+                writer.name("Key-Pair-Id").value(data.keyPairId);
+                writer.name("expiredAt").value(data.expiredAt);
+                writer.name("now").value(data.now);
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+
+        @Override
+        public AuthResponse read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            AuthResponse response = new AuthResponse();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "code":
+                        response.code = nextIntOrNull(reader);
+                        return true;
+                    case "description":
+                        response.description = nextString(reader);
+                        return true;
+                    case "data":
+                        response.authData = readAuthData(reader);
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return response;
+        }
+
+        private static AuthData readAuthData(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            AuthData data = new AuthData();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "Policy":
+                        data.policy = nextString(reader);
+                        return true;
+                    case "Signature":
+                        data.signature = nextString(reader);
+                        return true;
+                    case "Key-Pair-Id":
+                        data.keyPairId = nextString(reader);
+                        return true;
+                    case "expiredAt":
+                        data.expiredAt = nextLongOrNull(reader);
+                        return true;
+                    case "now":
+                        data.now = nextLongOrNull(reader);
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return data;
+        }
+    }
+
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.episode.service;
+
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.api.episode.model.EpisodeMetadata;
+import okhttp3.OkHttpClient;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for metadata of episode on CDN
+ */
+public class EpisodeService extends BaseService {
+
+    private final UUID accessToken;
+
+    private final ServiceInterface serviceInterface;
+
+    public EpisodeService(Locale locale, UUID accessToken) {
+        super(locale, accessToken);
+        this.accessToken = accessToken;
+
+        OkHttpClient httpClient = super.getHttpClient();
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(getCdnOrigin() + "/episodes/")
+                .addConverterFactory(GsonConverterFactory.create())
+                .client(httpClient)
+                .build();
+
+        this.serviceInterface = retrofit.create(ServiceInterface.class);
+    }
+
+    /**
+     * Returns future of metadata of the episode.
+     *
+     * @param alias       comic name in URI
+     * @param episodeName episode name in URI
+     * @return future of metadata
+     */
+    public CompletableFuture<EpisodeMetadata> getMetadataAsync(String alias, String episodeName) {
+        Call<EpisodeMetadata> call = this.serviceInterface.getMetadata(alias, episodeName, this.accessToken);
+
+        CompletableFuture<EpisodeMetadata> future = new CompletableFuture<>();
+        call.enqueue(new Callback<>() {
+            @Override
+            public void onResponse(Call<EpisodeMetadata> call, Response<EpisodeMetadata> response) {
+                EpisodeMetadata metadata = response.body();
+                if (!response.isSuccessful() || metadata == null) {
+                    future.completeExceptionally(new IllegalStateException(
+                            String.format("Failed to get metadata of episode %s/%s: %s", alias, episodeName, response)));
+                    return;
+                }
+
+                future.complete(metadata);
+            }
+
+            @Override
+            public void onFailure(Call<EpisodeMetadata> call, Throwable t) {
+                future.completeExceptionally(new RuntimeException(t.getMessage(), t));
+            }
+        });
+
+        // Cancels the call when the caller gives up.
+        future.whenComplete((metadata, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private interface ServiceInterface {
+        @GET("{alias}/{episodeName}.json")
+        Call<EpisodeMetadata> getMetadata(
+                @Path("alias") String alias,
+                @Path("episodeName") String episodeName,
+                @Query("access_token") UUID accessToken);
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.image.service;
+
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.api.auth.model.Authority;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.event.ImageFetchEvent;
+import io.github.imsejin.dl.lezhin.event.Outcome;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for images of episode on CDN
+ *
+ * <p> Image is signed by {@link Authority}. Its body is streamed to file without being held in memory.
+ * Every fetch emits {@link ImageFetchEvent} with its latency.
+ */
+public class ImageService extends BaseService {
+
+    public ImageService(Locale locale, UUID accessToken) {
+        super(locale, accessToken);
+    }
+
+    /**
+     * Returns URL of the image signed by the authority.
+     *
+     * <pre>{@code
+     *     https://ccdn.lezhin.com/v2/comics/5651768999542784/episodes/6393378955722752/contents/scrolls/1.webp
+     *         ?purchased=false&q=30&updated=1641950000000&Policy=...&Signature=...&Key-Pair-Id=...
+     * }</pre>
+     *
+     * @param contentId   ID of comic
+     * @param episodeId   ID of episode
+     * @param updatedAt   when episode was updated, which busts the image cached on CDN
+     * @param cutNo       order of image in the episode, starting from 1
+     * @param imageFormat extension of image such as {@code webp}
+     * @param authority   authority for viewing the episode
+     * @return image URL
+     */
+    public static HttpUrl getImageUrl(long contentId, long episodeId, long updatedAt,
+                                      int cutNo, String imageFormat, Authority authority) {
+        return HttpUrl.get(getCdnOrigin()).newBuilder()
+                .addPathSegments("v2/comics")
+                .addPathSegment(String.valueOf(contentId))
+                .addPathSegment("episodes")
+                .addPathSegment(String.valueOf(episodeId))
+                .addPathSegments("contents/scrolls")
+                .addPathSegment(cutNo + "." + imageFormat)
+                // If not append though you paid this episode, width of image decreases. (1080px => 720px)
+                .addQueryParameter("purchased", "false")
+                // If not append, width of image decreases. (1080px => 1024px)
+                .addQueryParameter("q", "30")
+                .addQueryParameter("updated", String.valueOf(updatedAt))
+                .addQueryParameter("Policy", authority.getPolicy())
+                .addQueryParameter("Signature", authority.getSignature())
+                .addQueryParameter("Key-Pair-Id", authority.getKeyPairId())
+                .build();
+    }
+
+    /**
+     * Downloads the image to the file.
+     *
+     * <p> Body is written to a temporary file next to the destination and moved to it when completed,
+     * so the destination never has a broken image. Cancelling the future cancels the request.
+     *
+     * @param url  image URL
+     * @param dest destination file
+     * @return future of the destination
+     */
+    public CompletableFuture<Path> downloadAsync(HttpUrl url, Path dest) {
+        Call call = getHttpClient().newCall(new Request.Builder().url(url).build());
+
+        ImageFetchEvent event = new ImageFetchEvent(url.host());
+        event.start();
+
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                Path temp = dest.resolveSibling(dest.getFileName() + ".part");
+                event.setStatus(response.code());
+
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful() || body == null) {
+                        finish(event, url, Outcome.FAILURE);
+                        future.completeExceptionally(new IOException("Unexpected response: " + response));
+                        return;
+                    }
+
+                    try (BufferedSink sink = Okio.buffer(Okio.sink(temp))) {
+                        event.setSize(sink.writeAll(body.source()));
+                    }
+
+                    Files.move(temp, dest, StandardCopyOption.REPLACE_EXISTING);
+                    finish(event, url, Outcome.SUCCESS);
+                    future.complete(dest);
+                } catch (IOException e) {
+                    finish(event, url, call.isCanceled() ? Outcome.CANCELLED : Outcome.FAILURE);
+                    future.completeExceptionally(e);
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ignored) {
+                        // Temporary file is overwritten by the next try.
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                finish(event, url, call.isCanceled() ? Outcome.CANCELLED : Outcome.FAILURE);
+                future.completeExceptionally(e);
+            }
+        });
+
+        // Cancels the call when the caller gives up.
+        future.whenComplete((path, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+
+        return future;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static void finish(ImageFetchEvent event, HttpUrl url, Outcome outcome) {
+        Duration elapsed = event.finish(outcome);
+
+        // Query has the signature, so it is not logged.
+        Loggers.getLogger().debug("Fetched image in {} ms: {} ({})", elapsed.toMillis(), url.encodedPath(), outcome);
+    }
+
+}
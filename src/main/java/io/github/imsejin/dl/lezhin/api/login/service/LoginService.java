@@ -0,0 +1,207 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.login.service;
+
+import io.github.imsejin.common.util.StringUtils;
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.exception.AccessTokenNotFoundException;
+import io.github.imsejin.dl.lezhin.exception.LoginFailureException;
+import io.github.imsejin.dl.lezhin.exception.UnexpectedPageException;
+import io.github.imsejin.dl.lezhin.http.cookie.InMemoryCookieJar;
+import io.github.imsejin.dl.lezhin.session.Session;
+import io.github.imsejin.dl.lezhin.util.ScriptUtils;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.FieldMap;
+import retrofit2.http.FormUrlEncoded;
+import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import retrofit2.http.POST;
+import retrofit2.http.Path;
+import retrofit2.http.Url;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Service for login without browser
+ *
+ * <p> This submits the same form as login page does. The login page has the following form.
+ *
+ * <pre>{@code
+ *     <form id="email" action="/ko/login" method="post">
+ *         <input type="hidden" name="redirect" value="">
+ *         <input id="login-email" name="username" type="email">
+ *         <input id="login-password" name="password" type="password">
+ *         <button type="submit"></button>
+ *     </form>
+ * }</pre>
+ *
+ * <p> When login is successful, lezhin redirects to home page which has access token
+ * in the inline script containing {@code __LZ_CONFIG__}. Otherwise it redirects to login page which
+ * has {@code __LZ_ERROR_CODE__}.
+ */
+public class LoginService extends BaseService {
+
+    private static final Pattern FORM_PATTERN = Pattern.compile(
+            "<form[^>]*\\bid=\"email\"[^>]*>(.*?)</form>", Pattern.DOTALL);
+
+    private static final Pattern INPUT_PATTERN = Pattern.compile("<input\\b[^>]*>");
+
+    private final Locale locale;
+
+    private final InMemoryCookieJar cookieJar = new InMemoryCookieJar();
+
+    private final ServiceInterface serviceInterface;
+
+    public LoginService(Locale locale) {
+        super(locale, new UUID(0, 0));
+        this.locale = locale;
+
+        OkHttpClient httpClient = super.getHttpClient().newBuilder()
+                .cookieJar(this.cookieJar)
+                .build();
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(getOrigin(locale) + '/')
+                .client(httpClient)
+                .build();
+
+        this.serviceInterface = retrofit.create(ServiceInterface.class);
+    }
+
+    /**
+     * Logs in and returns new session.
+     *
+     * @param authentication account
+     * @return new session
+     * @throws LoginFailureException        if account is invalid
+     * @throws AccessTokenNotFoundException if there is no access token after login
+     * @throws UnexpectedPageException      if login page is not recognized
+     */
+    public Session login(Authentication authentication) {
+        String loginPage = execute(this.serviceInterface.getLoginPage(this.locale.getLanguage()));
+
+        Matcher formMatcher = FORM_PATTERN.matcher(loginPage);
+        if (!formMatcher.find()) {
+            throw new UnexpectedPageException("There is no login form in the page");
+        }
+
+        String form = formMatcher.group();
+        String action = StringUtils.ifNullOrBlank(findAttribute(form, "action"), "/" + this.locale.getLanguage() + "/login");
+        Map<String, String> fields = createFields(formMatcher.group(1), authentication);
+
+        // Follows redirection to home page or login page.
+        String resultPage = execute(this.serviceInterface.login(action, fields));
+
+        String token = ScriptUtils.findAccessToken(resultPage);
+        if (token == null) {
+            String errorCode = ScriptUtils.findErrorCode(resultPage);
+            if (!StringUtils.isNullOrEmpty(errorCode)) {
+                throw new LoginFailureException(errorCode);
+            }
+
+            throw new AccessTokenNotFoundException("There is no access token in the page after login");
+        }
+
+        List<Session.Cookie> cookies = this.cookieJar.getCookies().stream()
+                .map(it -> new Session.Cookie(it.name(), it.value(), it.domain(), it.path(),
+                        it.persistent() ? it.expiresAt() : null))
+                .collect(toList());
+
+        return Session.of(authentication.getUsername(), this.locale, UUID.fromString(token), cookies);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static String execute(Call<ResponseBody> call) {
+        try {
+            Response<ResponseBody> response = call.execute();
+
+            try (ResponseBody body = response.body()) {
+                if (!response.isSuccessful() || body == null) {
+                    throw new UnexpectedPageException("Unexpected response: %s", response);
+                }
+
+                return body.string();
+            }
+        } catch (IOException e) {
+            throw new UnexpectedPageException(e, "Failed to request: %s", call.request().url());
+        }
+    }
+
+    private static Map<String, String> createFields(String formContent, Authentication authentication) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        int numOfAccountInputs = 0;
+
+        Matcher matcher = INPUT_PATTERN.matcher(formContent);
+        while (matcher.find()) {
+            String input = matcher.group();
+            String id = findAttribute(input, "id");
+            String name = StringUtils.ifNullOrBlank(findAttribute(input, "name"), id);
+
+            if (StringUtils.isNullOrBlank(name)) {
+                continue;
+            }
+
+            if ("login-email".equals(id)) {
+                fields.put(name, authentication.getUsername());
+                numOfAccountInputs++;
+            } else if ("login-password".equals(id)) {
+                fields.put(name, authentication.getPassword());
+                numOfAccountInputs++;
+            } else {
+                // Hidden inputs such as CSRF token.
+                fields.put(name, StringUtils.ifNullOrEmpty(findAttribute(input, "value"), ""));
+            }
+        }
+
+        if (numOfAccountInputs != 2) {
+            throw new UnexpectedPageException("There is no input for username or password in login form");
+        }
+
+        return fields;
+    }
+
+    private static String findAttribute(String tag, String attributeName) {
+        return StringUtils.find(tag, "(?<![\\w-])" + attributeName + "=\"([^\"]*)\"", 1);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private interface ServiceInterface {
+        @GET("{language}/login")
+        @Headers("cache-control: no-cache")
+        Call<ResponseBody> getLoginPage(@Path("language") String language);
+
+        @POST
+        @FormUrlEncoded
+        Call<ResponseBody> login(@Url String action, @FieldMap Map<String, String> fields);
+    }
+
+}
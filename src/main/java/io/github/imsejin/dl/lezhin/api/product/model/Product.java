@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.product.model;
+
+import io.github.imsejin.dl.lezhin.attribute.Attribute;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Comic of lezhin which is found in {@code __LZ_PRODUCT__}
+ */
+@Getter
+@ToString(exclude = "episodes")
+@Setter(AccessLevel.PACKAGE)
+@NoArgsConstructor(access = AccessLevel.PACKAGE)
+public class Product implements Attribute {
+
+    private Long id;
+
+    /**
+     * Comic name in URI.
+     */
+    private String alias;
+
+    private Display display;
+
+    private List<Artist> artists;
+
+    /**
+     * Episodes from the first to the latest.
+     */
+    private List<Episode> episodes;
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.api.product.model;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.isNull;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextInt;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextLong;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextLongOrNull;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextString;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.readList;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.readObject;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.writeList;
+
+/**
+ * Factory of streaming type adapters for {@link Product} and its models
+ *
+ * <p> {@code __LZ_PRODUCT__} has a lot of fields we don't use and a product can have
+ * more than a thousand episodes. These adapters read only the fields of the models
+ * without reflection, skipping the others as they are.
+ */
+public final class ProductTypeAdapterFactory implements TypeAdapterFactory {
+
+    /**
+     * Gson which has the adapters of the models.
+     */
+    public static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new ProductTypeAdapterFactory()).create();
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS;
+
+    static {
+        DisplayAdapter displayAdapter = new DisplayAdapter();
+        ArtistAdapter artistAdapter = new ArtistAdapter();
+        EpisodeAdapter episodeAdapter = new EpisodeAdapter(displayAdapter);
+
+        ADAPTERS = Map.of(
+                Display.class, displayAdapter,
+                Artist.class, artistAdapter,
+                Episode.class, episodeAdapter,
+                Product.class, new ProductAdapter(displayAdapter, artistAdapter, episodeAdapter));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        return (TypeAdapter<T>) ADAPTERS.get(type.getRawType());
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static final class DisplayAdapter extends TypeAdapter<Display> {
+        @Override
+        public void write(JsonWriter writer, Display value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("title").value(value.getTitle());
+            writer.name("displayName").value(value.getDisplayName());
+            writer.endObject();
+        }
+
+        @Override
+        public Display read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Display display = new Display();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "title":
+                        display.setTitle(nextString(reader));
+                        return true;
+                    case "displayName":
+                        display.setDisplayName(nextString(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return display;
+        }
+    }
+
+    private static final class ArtistAdapter extends TypeAdapter<Artist> {
+        @Override
+        public void write(JsonWriter writer, Artist value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("id").value(value.getId());
+            writer.name("name").value(value.getName());
+            writer.name("role").value(value.getRole());
+            writer.endObject();
+        }
+
+        @Override
+        public Artist read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Artist artist = new Artist();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "id":
+                        artist.setId(nextString(reader));
+                        return true;
+                    case "name":
+                        artist.setName(nextString(reader));
+                        return true;
+                    case "role":
+                        artist.setRole(nextString(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return artist;
+        }
+    }
+
+    private static final class EpisodeAdapter extends TypeAdapter<Episode> {
+        private final DisplayAdapter displayAdapter;
+
+        private EpisodeAdapter(DisplayAdapter displayAdapter) {
+            this.displayAdapter = displayAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter writer, Episode value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("id").value(value.getId());
+            writer.name("name").value(value.getName());
+            writer.name("display");
+            this.displayAdapter.write(writer, value.getDisplay());
+            writer.name("seq").value(value.getSeq());
+            writer.name("updatedAt").value(value.getUpdatedAt());
+            writer.name("freedAt").value(value.getFreedAt());
+            writer.name("publishedAt").value(value.getPublishedAt());
+            writer.endObject();
+        }
+
+        @Override
+        public Episode read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Episode episode = new Episode();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "id":
+                        episode.setId(nextLongOrNull(reader));
+                        return true;
+                    case "name":
+                        episode.setName(nextString(reader));
+                        return true;
+                    case "display":
+                        episode.setDisplay(this.displayAdapter.read(reader));
+                        return true;
+                    case "seq":
+                        episode.setSeq(nextInt(reader));
+                        return true;
+                    case "updatedAt":
+                        episode.setUpdatedAt(nextLong(reader));
+                        return true;
+                    case "freedAt":
+                        episode.setFreedAt(nextLong(reader));
+                        return true;
+                    case "publishedAt":
+                        episode.setPublishedAt(nextLong(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return episode;
+        }
+    }
+
+    private static final class ProductAdapter extends TypeAdapter<Product> {
+        private final DisplayAdapter displayAdapter;
+
+        private final ArtistAdapter artistAdapter;
+
+        private final EpisodeAdapter episodeAdapter;
+
+        private ProductAdapter(DisplayAdapter displayAdapter, ArtistAdapter artistAdapter, EpisodeAdapter episodeAdapter) {
+            this.displayAdapter = displayAdapter;
+            this.artistAdapter = artistAdapter;
+            this.episodeAdapter = episodeAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter writer, Product value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("id").value(value.getId());
+            writer.name("alias").value(value.getAlias());
+            writer.name("display");
+            this.displayAdapter.write(writer, value.getDisplay());
+            writer.name("artists");
+            writeList(writer, value.getArtists(), this.artistAdapter);
+            writer.name("episodes");
+            writeList(writer, value.getEpisodes(), this.episodeAdapter);
+            writer.endObject();
+        }
+
+        @Override
+        public Product read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Product product = new Product();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "id":
+                        product.setId(nextLongOrNull(reader));
+                        return true;
+                    case "alias":
+                        product.setAlias(nextString(reader));
+                        return true;
+                    case "display":
+                        product.setDisplay(this.displayAdapter.read(reader));
+                        return true;
+                    case "artists":
+                        product.setArtists(readList(reader, this.artistAdapter));
+                        return true;
+                    case "episodes":
+                        product.setEpisodes(readList(reader, this.episodeAdapter));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return product;
+        }
+    }
+
+}
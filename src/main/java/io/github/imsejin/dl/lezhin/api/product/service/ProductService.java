@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.product.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.api.product.model.Product;
+import io.github.imsejin.dl.lezhin.api.product.model.ProductTypeAdapterFactory;
+import io.github.imsejin.dl.lezhin.exception.UnexpectedPageException;
+import io.github.imsejin.dl.lezhin.util.ScriptUtils;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Path;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Service for product of comic
+ *
+ * <p> Comic page has the product in the script tag {@code __LZ_PRODUCT__},
+ * so this finds it without browser.
+ */
+public class ProductService extends BaseService {
+
+    private static final Gson GSON = ProductTypeAdapterFactory.GSON;
+
+    private final Locale locale;
+
+    private final ServiceInterface serviceInterface;
+
+    public ProductService(Locale locale, UUID accessToken) {
+        super(locale, accessToken);
+        this.locale = locale;
+
+        OkHttpClient httpClient = super.getHttpClient();
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(getOrigin(locale) + '/')
+                .client(httpClient)
+                .build();
+
+        this.serviceInterface = retrofit.create(ServiceInterface.class);
+    }
+
+    /**
+     * Returns product of the comic.
+     *
+     * @param alias  comic name in URI
+     * @param cookie cookie header of session, {@code null} if there is no session
+     * @return product whose episodes are ordered from the first
+     * @throws UnexpectedPageException if comic page has no product
+     */
+    public Product getProduct(String alias, @Nullable String cookie) {
+        Call<ResponseBody> call = this.serviceInterface.getComicPage(this.locale.getLanguage(), alias, cookie);
+
+        String page;
+        try {
+            Response<ResponseBody> response = call.execute();
+
+            try (ResponseBody body = response.body()) {
+                if (!response.isSuccessful() || body == null) {
+                    throw new UnexpectedPageException("Unexpected response: %s", response);
+                }
+
+                page = body.string();
+            }
+        } catch (IOException e) {
+            throw new UnexpectedPageException(e, "Failed to request: %s", call.request().url());
+        }
+
+        String json = ScriptUtils.findProduct(page);
+        if (json == null) {
+            throw new UnexpectedPageException("There is no product in the comic page: %s", alias);
+        }
+
+        Product product;
+        try {
+            product = GSON.fromJson(json, Product.class);
+        } catch (JsonParseException e) {
+            throw new UnexpectedPageException(e, "Invalid product in the comic page: %s", alias);
+        }
+
+        // Lezhin lists the latest episode first.
+        Collections.reverse(product.getEpisodes());
+
+        return product;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private interface ServiceInterface {
+        @GET("{language}/comic/{alias}")
+        Call<ResponseBody> getComicPage(
+                @Path("language") String language,
+                @Path("alias") String alias,
+                @Header("cookie") String cookie);
+    }
+
+}
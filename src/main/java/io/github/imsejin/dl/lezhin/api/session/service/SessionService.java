@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.session.service;
+
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.session.Session;
+import io.github.imsejin.dl.lezhin.util.ScriptUtils;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
+import retrofit2.http.Path;
+
+import java.io.IOException;
+import java.util.Locale;
+
+public class SessionService extends BaseService {
+
+    private final ServiceInterface serviceInterface;
+
+    public SessionService(Session session) {
+        super(session.getLocale(), session.getAccessToken());
+
+        OkHttpClient httpClient = super.getHttpClient();
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(getOrigin(session.getLocale()) + '/')
+                .client(httpClient)
+                .build();
+
+        this.serviceInterface = retrofit.create(ServiceInterface.class);
+    }
+
+    /**
+     * Checks if the session is still valid.
+     *
+     * <p> Requests home page with cookies of the session. If lezhin recognizes the cookies, the page has
+     * the same access token as the session's one in the inline script containing {@code __LZ_CONFIG__}.
+     *
+     * @param session stored session
+     * @return whether the session is valid
+     */
+    public boolean isValid(Session session) {
+        if (session.isExpired()) {
+            return false;
+        }
+
+        Locale locale = session.getLocale();
+        Call<ResponseBody> call = this.serviceInterface.getHomePage(locale.getLanguage(), session.toCookieHeader());
+
+        try {
+            Response<ResponseBody> response = call.execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                return false;
+            }
+
+            try (ResponseBody body = response.body()) {
+                String token = ScriptUtils.findAccessToken(body.string());
+                return session.getAccessToken().toString().equals(token);
+            }
+        } catch (IOException e) {
+            Loggers.getLogger().debug("Failed to validate session: {}", session, e);
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private interface ServiceInterface {
+        @GET("{language}")
+        @Headers("cache-control: no-cache")
+        Call<ResponseBody> getHomePage(
+                @Path("language") String language,
+                @Header("cookie") String cookie);
+    }
+
+}
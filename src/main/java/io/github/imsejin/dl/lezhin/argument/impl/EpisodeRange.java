@@ -26,6 +26,7 @@ import org.apache.commons.cli.Option;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * Range of episode to download
@@ -59,6 +60,22 @@ public class EpisodeRange extends Argument implements Attribute {
         return startNumber + "~" + endNumber;
     }
 
+    /**
+     * Returns indexes of episodes in this range.
+     *
+     * <p> Episode number starts from 1, but index starts from 0. If end number exceeds
+     * the number of episodes, the range ends at the last episode.
+     *
+     * @param numOfEpisodes number of episodes
+     * @return indexes of episodes
+     */
+    public int[] getArray(int numOfEpisodes) {
+        int start = this.startNumber == null ? 0 : this.startNumber - 1;
+        int end = this.endNumber == null ? numOfEpisodes : Math.min(this.endNumber, numOfEpisodes);
+
+        return IntStream.range(start, end).toArray();
+    }
+
     // -------------------------------------------------------------------------------------------------
 
     @Override
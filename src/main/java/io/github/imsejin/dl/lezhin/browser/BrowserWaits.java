@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.browser;
+
+import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.event.BrowserWaitEvent;
+import io.github.imsejin.dl.lezhin.event.Outcome;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * Timed waits for browser
+ *
+ * <p> Every wait emits {@link BrowserWaitEvent} and logs how long it took,
+ * so that a slow page can be told from a slow network.
+ */
+public final class BrowserWaits {
+
+    @ExcludeFromGeneratedJacocoReport
+    private BrowserWaits() {
+        throw new UnsupportedOperationException(getClass().getName() + " is not allowed to instantiate");
+    }
+
+    /**
+     * Waits until the condition is met.
+     *
+     * @param driver    web driver
+     * @param timeout   max duration to wait
+     * @param target    what to wait for, such as {@code "login page"}
+     * @param condition condition to wait for
+     * @param <T>       type of value the condition returns
+     * @return value the condition returns
+     * @throws TimeoutException if the condition is not met until timeout
+     */
+    public static <T> T until(WebDriver driver, Duration timeout, String target, ExpectedCondition<T> condition) {
+        Loggers.getLogger().debug("Wait up to {} sec for {} to be rendered", timeout.getSeconds(), target);
+
+        BrowserWaitEvent event = new BrowserWaitEvent(target, timeout.toMillis());
+        event.start();
+
+        Outcome outcome = Outcome.FAILURE;
+        try {
+            T value = new WebDriverWait(driver, timeout).until(condition);
+            outcome = Outcome.SUCCESS;
+            return value;
+        } catch (TimeoutException e) {
+            outcome = Outcome.TIMEOUT;
+            throw e;
+        } finally {
+            Duration elapsed = event.finish(outcome);
+            Loggers.getLogger().debug("Waited {} ms for {}: {}", elapsed.toMillis(), target, outcome);
+        }
+    }
+
+}
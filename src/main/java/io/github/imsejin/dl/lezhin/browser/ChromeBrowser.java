@@ -25,10 +25,13 @@ import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
@@ -41,7 +44,17 @@ public final class ChromeBrowser {
 
     private static ChromeOptions options = new ChromeOptions().addArguments(ChromeOption.getArguments());
 
-    private static boolean initialized;
+    /**
+     * Driver which is launched lazily; {@code null} if not running.
+     */
+    private static volatile ChromeDriver driver;
+
+    /**
+     * Driver which is being launched in background, {@code null} if there is none
+     * or it is taken by {@link #getDriver()}.
+     */
+    @GuardedBy("ChromeBrowser.class")
+    private static CompletableFuture<ChromeDriver> warmingUp;
 
     static {
         // Assigns chrome driver pathname.
@@ -65,7 +78,7 @@ public final class ChromeBrowser {
     }
 
     public static boolean isRunning() {
-        return ChromeBrowser.initialized;
+        return ChromeBrowser.driver != null;
     }
 
     /**
@@ -79,24 +92,114 @@ public final class ChromeBrowser {
         options = new ChromeOptions().addArguments(arguments);
     }
 
+    /**
+     * Starts to launch a driver in background.
+     *
+     * <p> Launching browser takes a few seconds. This lets it overlap the other preparations
+     * such as reading configuration file and resolving processors. {@link #getDriver()} waits for
+     * the driver to be launched. This must be called after {@link #debugging()} if needed,
+     * because options cannot be changed after the driver is launched.
+     */
+    public static synchronized void warmUp() {
+        if (warmingUp != null || ChromeBrowser.driver != null) {
+            return;
+        }
+
+        ChromeOptions current = options;
+        warmingUp = CompletableFuture.supplyAsync(() -> new ChromeDriver(current), runnable -> {
+            Thread thread = new Thread(runnable, "browser-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * Returns the running driver, launching a new browser if it is not running.
+     *
+     * <p> If the driver is being launched in background, this waits for it. After the browser is quit,
+     * this launches a new browser which has no cookies of the previous one.
+     *
+     * @return chrome driver
+     */
     public static ChromeDriver getDriver() {
-        return SingletonLazyHolder.DRIVER;
+        ChromeDriver current = ChromeBrowser.driver;
+        if (current != null) return current;
+
+        CompletableFuture<ChromeDriver> future;
+        synchronized (ChromeBrowser.class) {
+            future = warmingUp;
+        }
+
+        if (future != null) {
+            // Rethrows the cause of failure to launch in background.
+            ChromeDriver launched = future.join();
+
+            synchronized (ChromeBrowser.class) {
+                if (warmingUp == future) {
+                    warmingUp = null;
+                    ChromeBrowser.driver = launched;
+                }
+            }
+        }
+
+        synchronized (ChromeBrowser.class) {
+            // The driver being launched may be quit in the meantime.
+            if (ChromeBrowser.driver == null) ChromeBrowser.driver = new ChromeDriver(options);
+            return ChromeBrowser.driver;
+        }
     }
 
+    /**
+     * Quits the browser, waiting for the driver being launched in background.
+     */
     public static void quitIfInitialized() {
-        if (ChromeBrowser.initialized) {
-            SingletonLazyHolder.DRIVER.quit();
+        CompletableFuture<ChromeDriver> future = takeWarmingUp();
+        if (future != null) {
+            try {
+                // Waits for the driver to be launched, so as not to leave it alone.
+                future.join().quit();
+            } catch (CompletionException e) {
+                // There is no driver to quit.
+            }
         }
+
+        quitDriver();
+    }
+
+    /**
+     * Quits the browser without waiting for the driver to be launched.
+     *
+     * <p> If the driver is being launched in background, it is quit as soon as it is launched.
+     * This is for the processes which no longer need the browser, such as after login.
+     * {@link #getDriver()} launches a new browser if a later process needs it.
+     */
+    public static void quitInBackground() {
+        CompletableFuture<ChromeDriver> future = takeWarmingUp();
+        if (future != null) {
+            future.thenAccept(ChromeDriver::quit);
+        }
+
+        quitDriver();
     }
 
     // -------------------------------------------------------------------------------------------------
 
-    private static class SingletonLazyHolder {
-        static {
-            ChromeBrowser.initialized = true;
-        }
+    /**
+     * Takes the driver being launched in background, so that {@link #getDriver()} doesn't use it.
+     */
+    private static synchronized CompletableFuture<ChromeDriver> takeWarmingUp() {
+        CompletableFuture<ChromeDriver> future = warmingUp;
+        warmingUp = null;
+
+        return future;
+    }
+
+    private static synchronized void quitDriver() {
+        ChromeDriver current = ChromeBrowser.driver;
+        if (current == null) return;
 
-        private static final ChromeDriver DRIVER = new ChromeDriver(options);
+        ChromeBrowser.driver = null;
+        current.quit();
     }
 
     // -------------------------------------------------------------------------------------------------
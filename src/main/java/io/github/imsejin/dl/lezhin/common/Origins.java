@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.common;
+
+import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Origins of lezhin servers
+ *
+ * <p> Every origin can be overridden by system property, so that the tool can point at
+ * another server such as a fake server for test. Properties are read on every call.
+ *
+ * <ul>
+ *     <li>{@value #ORIGIN_PROPERTY}: origin of all the platforms (e.g. http://127.0.0.1:8080)</li>
+ *     <li>{@value #CDN_ORIGIN_PROPERTY}: origin of CDN</li>
+ * </ul>
+ *
+ * @since 2.9.0
+ */
+@ThreadSafe
+public final class Origins {
+
+    public static final String ORIGIN_PROPERTY = "lezhin.origin";
+
+    public static final String CDN_ORIGIN_PROPERTY = "lezhin.cdn-origin";
+
+    private static final Map<Locale, String> ORIGIN_MAP = Map.ofEntries(
+            Map.entry(Locale.KOREA, "https://www.lezhin.com"),
+            Map.entry(Locale.US, "https://www.lezhinus.com"),
+            Map.entry(Locale.JAPAN, "https://www.lezhin.jp")
+    );
+
+    private static final String CDN_ORIGIN = "https://ccdn.lezhin.com";
+
+    @ExcludeFromGeneratedJacocoReport
+    private Origins() {
+        throw new UnsupportedOperationException(getClass().getName() + " is not allowed to instantiate");
+    }
+
+    /**
+     * Returns origin of lezhin platform for the locale.
+     *
+     * @param locale locale of lezhin platform
+     * @return origin URL (e.g. https://www.lezhin.com)
+     * @throws IllegalArgumentException if locale is not recognized
+     */
+    public static String getOrigin(Locale locale) {
+        String origin = ORIGIN_MAP.get(locale);
+        if (origin == null) {
+            throw new IllegalArgumentException("Locale is not recognized: " + locale);
+        }
+
+        return System.getProperty(ORIGIN_PROPERTY, origin);
+    }
+
+    /**
+     * Returns origin of CDN which serves metadata and images of episode.
+     *
+     * @return origin URL (e.g. https://ccdn.lezhin.com)
+     */
+    public static String getCdnOrigin() {
+        return System.getProperty(CDN_ORIGIN_PROPERTY, CDN_ORIGIN);
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Event of waiting for browser to render the page
+ *
+ * @see io.github.imsejin.dl.lezhin.browser.BrowserWaits
+ */
+@Name("io.github.imsejin.dl.lezhin.BrowserWait")
+@Label("Browser Wait")
+@Description("Wait for condition of the page in browser")
+public class BrowserWaitEvent extends TimedEvent {
+
+    @Label("Target")
+    private final String target;
+
+    @Label("Timeout")
+    @Timespan(Timespan.MILLISECONDS)
+    private final long timeout;
+
+    public BrowserWaitEvent(String target, long timeout) {
+        this.target = target;
+        this.timeout = timeout;
+    }
+
+}
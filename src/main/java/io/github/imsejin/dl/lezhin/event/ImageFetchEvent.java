@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.event;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of fetching an image from CDN
+ *
+ * <p> Duration is the latency until the whole body is written to file.
+ *
+ * @see io.github.imsejin.dl.lezhin.api.image.service.ImageService
+ */
+@Name("io.github.imsejin.dl.lezhin.ImageFetch")
+@Label("Image Fetch")
+@Description("Fetch of image from CDN")
+public class ImageFetchEvent extends TimedEvent {
+
+    @Label("Host")
+    private final String host;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    public ImageFetchEvent(String host) {
+        this.host = host;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+}
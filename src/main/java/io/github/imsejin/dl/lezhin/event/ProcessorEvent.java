@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event of a processor run
+ *
+ * @see io.github.imsejin.dl.lezhin.process.framework.ProcessorExecutor
+ */
+@Name("io.github.imsejin.dl.lezhin.Processor")
+@Label("Processor")
+@Description("Run of processor, including restoration from checkpoint")
+public class ProcessorEvent extends TimedEvent {
+
+    @Label("Processor")
+    private final String processor;
+
+    public ProcessorEvent(Class<?> processorType) {
+        this.processor = processorType.getName();
+    }
+
+}
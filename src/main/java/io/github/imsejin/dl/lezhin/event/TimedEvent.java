@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.time.Duration;
+
+/**
+ * Java Flight Recorder event of an operation which takes time
+ *
+ * <p> The event is committed only when a recording enables it, but the elapsed time is always
+ * measured, so that the same timing can be logged without a recording.
+ *
+ * <pre>{@code
+ *     ProcessorEvent event = new ProcessorEvent(processor.getClass());
+ *     event.start();
+ *     ...
+ *     Duration elapsed = event.finish(Outcome.SUCCESS);
+ * }</pre>
+ */
+@StackTrace(false)
+@Category("Lezhin Comics Downloader")
+public abstract class TimedEvent extends Event {
+
+    /**
+     * Outcome of the operation, which is not private because JFR ignores private fields of superclass.
+     */
+    @Label("Outcome")
+    protected String outcome;
+
+    /**
+     * Start of the operation according to {@link System#nanoTime()}, which is not recorded.
+     */
+    private transient long startedAt;
+
+    /**
+     * Starts timing.
+     */
+    public void start() {
+        this.startedAt = System.nanoTime();
+        begin();
+    }
+
+    /**
+     * Stops timing and commits this event.
+     *
+     * @param outcome outcome of the operation
+     * @return elapsed time since {@link #start()}
+     */
+    public Duration finish(Outcome outcome) {
+        end();
+        this.outcome = outcome.name();
+        commit();
+
+        return Duration.ofNanos(System.nanoTime() - this.startedAt);
+    }
+
+}
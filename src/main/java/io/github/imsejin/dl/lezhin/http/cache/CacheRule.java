@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.cache;
+
+import lombok.Getter;
+import okhttp3.Request;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Freshness rule of HTTP cache for each family of endpoints
+ *
+ * <p> Lezhin doesn't tell how long its responses are fresh, so this decides it instead.
+ * Metadata is cached for a while, but authority and image are never cached.
+ */
+@Getter
+public enum CacheRule {
+
+    /**
+     * Comic page which has product in it.
+     *
+     * <p> The page is different for each account.
+     *
+     * @see io.github.imsejin.dl.lezhin.api.product.service.ProductService
+     */
+    PRODUCT("^/[a-z]{2}/comic/[^/]+$", Duration.ofMinutes(10), "cookie, authorization"),
+
+    /**
+     * Metadata of episodes on CDN.
+     *
+     * <pre>{@code
+     *     https://cdn.lezhin.com/episodes/snail/1.json?access_token=...
+     * }</pre>
+     */
+    EPISODE_METADATA("^/episodes/.+", Duration.ofMinutes(10), null),
+
+    /**
+     * Authority to view episode, which is never cached.
+     *
+     * <p> {@link io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache} already keeps it
+     * until it expires. A stored response would have stale server time in it, so the authority
+     * from it would look fresher than it is.
+     *
+     * @see io.github.imsejin.dl.lezhin.api.auth.service.AuthorityService
+     */
+    SIGNED_URL("^/lz-api/v2/cloudfront/signed-url/.+", null, null),
+
+    /**
+     * Image of episode, which is never cached.
+     */
+    IMAGE("^/v2/comics/\\d+/episodes/\\d+/contents/.+", null, null);
+
+    private final Pattern pathPattern;
+
+    /**
+     * Duration while response is fresh, {@code null} if response must not be stored.
+     */
+    @Nullable
+    private final Duration maxAge;
+
+    /**
+     * Request headers by which response varies.
+     */
+    @Nullable
+    private final String vary;
+
+    CacheRule(String pathRegex, @Nullable Duration maxAge, @Nullable String vary) {
+        this.pathPattern = Pattern.compile(pathRegex);
+        this.maxAge = maxAge;
+        this.vary = vary;
+    }
+
+    /**
+     * Returns the rule for the request.
+     *
+     * @param request request
+     * @return rule or empty if request is not GET or matches no rule
+     */
+    public static Optional<CacheRule> from(Request request) {
+        if (!request.method().equals("GET")) {
+            return Optional.empty();
+        }
+
+        String path = request.url().encodedPath();
+        return Arrays.stream(values()).filter(it -> it.pathPattern.matcher(path).matches()).findFirst();
+    }
+
+    /**
+     * Returns value of header {@code cache-control} by this rule.
+     *
+     * @return cache control
+     */
+    public String toCacheControl() {
+        return this.maxAge == null ? "no-store" : "private, max-age=" + this.maxAge.getSeconds();
+    }
+
+}
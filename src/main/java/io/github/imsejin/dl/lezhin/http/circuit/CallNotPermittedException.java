@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.circuit;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Exception thrown when a call is rejected by open {@link CircuitBreaker}
+ *
+ * <p> This is {@link IOException} so that it reaches callback of asynchronous call
+ * as the other network failures do.
+ */
+@Getter
+public class CallNotPermittedException extends IOException {
+
+    private final Endpoint endpoint;
+
+    /**
+     * Duration after which the circuit breaker lets probe requests through.
+     * The caller can pause its queue for this.
+     */
+    private final Duration retryAfter;
+
+    public CallNotPermittedException(Endpoint endpoint, Duration retryAfter) {
+        super(String.format("Circuit breaker of %s is open; retry after %d ms", endpoint, retryAfter.toMillis()));
+        this.endpoint = endpoint;
+        this.retryAfter = retryAfter;
+    }
+
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.circuit;
+
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for a family of endpoints
+ *
+ * <p> Outcomes of the latest calls are recorded in a sliding window. When the failure rate
+ * of the window reaches the threshold, the circuit is opened and calls are rejected at once
+ * instead of waiting for timeout. After a while, the circuit is half-opened and lets a few
+ * probe calls through. If all of them succeed, the circuit is closed; otherwise it is opened again.
+ *
+ * <pre>{@code
+ *     CLOSED --(failure rate >= threshold)--> OPEN --(wait duration)--> HALF_OPEN
+ *     HALF_OPEN --(all probes succeed)--> CLOSED
+ *     HALF_OPEN --(any probe fails)--> OPEN
+ * }</pre>
+ *
+ * <p> Every transition is logged with the metrics at that time.
+ */
+@ThreadSafe
+public class CircuitBreaker {
+
+    private final Endpoint endpoint;
+
+    @Getter
+    private final Config config;
+
+    private final LongSupplier clock;
+
+    @GuardedBy("this")
+    private State state = State.CLOSED;
+
+    /**
+     * Ring buffer of outcomes; {@code true} means failure.
+     */
+    @GuardedBy("this")
+    private final boolean[] outcomes;
+
+    @GuardedBy("this")
+    private int bufferedCalls;
+
+    @GuardedBy("this")
+    private int failedCalls;
+
+    @GuardedBy("this")
+    private int cursor;
+
+    @GuardedBy("this")
+    private long openedAt;
+
+    @GuardedBy("this")
+    private int permittedProbes;
+
+    @GuardedBy("this")
+    private int succeededProbes;
+
+    @GuardedBy("this")
+    private long notPermittedCalls;
+
+    @GuardedBy("this")
+    private long transitions;
+
+    public CircuitBreaker(Endpoint endpoint, Config config) {
+        this(endpoint, config, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(Endpoint endpoint, Config config, LongSupplier clock) {
+        if (config.failureRateThreshold <= 0 || config.failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]: " + config.failureRateThreshold);
+        }
+        if (config.minimumNumberOfCalls < 1 || config.minimumNumberOfCalls > config.slidingWindowSize) {
+            throw new IllegalArgumentException("Minimum number of calls must be in [1, sliding window size]: "
+                    + config.minimumNumberOfCalls);
+        }
+        if (config.permittedNumberOfCallsInHalfOpenState < 1) {
+            throw new IllegalArgumentException("Permitted number of calls in half-open state must be positive: "
+                    + config.permittedNumberOfCallsInHalfOpenState);
+        }
+
+        this.endpoint = endpoint;
+        this.config = config;
+        this.clock = clock;
+        this.outcomes = new boolean[config.slidingWindowSize];
+    }
+
+    /**
+     * Acquires permission to call.
+     *
+     * <p> Caller must report the outcome by {@link #onSuccess()} or {@link #onFailure()},
+     * or give back the permission by {@link #releasePermission()} when permission is acquired.
+     *
+     * @return empty if permitted, otherwise duration after which the circuit lets probe calls through
+     */
+    public synchronized Optional<Duration> tryAcquirePermission() {
+        if (this.state == State.OPEN) {
+            long elapsed = this.clock.getAsLong() - this.openedAt;
+            long waitMillis = this.config.waitDurationInOpenState.toMillis();
+
+            if (elapsed < waitMillis) {
+                this.notPermittedCalls++;
+                return Optional.of(Duration.ofMillis(waitMillis - elapsed));
+            }
+
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (this.state == State.HALF_OPEN) {
+            if (this.permittedProbes >= this.config.permittedNumberOfCallsInHalfOpenState) {
+                // Waits for the probes in flight.
+                this.notPermittedCalls++;
+                return Optional.of(Duration.ZERO);
+            }
+
+            this.permittedProbes++;
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Gives back the permission without recording outcome, e.g. when the call is cancelled by caller.
+     */
+    public synchronized void releasePermission() {
+        if (this.state == State.HALF_OPEN && this.permittedProbes > 0) {
+            this.permittedProbes--;
+        }
+    }
+
+    /**
+     * Records a successful call.
+     */
+    public synchronized void onSuccess() {
+        if (this.state == State.HALF_OPEN) {
+            this.succeededProbes++;
+            if (this.succeededProbes >= this.config.permittedNumberOfCallsInHalfOpenState) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (this.state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void onFailure() {
+        if (this.state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+
+        if (this.state == State.CLOSED) {
+            record(true);
+        }
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return state
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Returns snapshot of the metrics.
+     *
+     * @return metrics
+     */
+    public synchronized Metrics getMetrics() {
+        return new Metrics(this.endpoint, this.state, getFailureRate(), this.bufferedCalls,
+                this.failedCalls, this.notPermittedCalls, this.transitions);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    @GuardedBy("this")
+    private void record(boolean failure) {
+        if (this.bufferedCalls == this.outcomes.length) {
+            // Evicts the oldest outcome.
+            if (this.outcomes[this.cursor]) this.failedCalls--;
+        } else {
+            this.bufferedCalls++;
+        }
+
+        this.outcomes[this.cursor] = failure;
+        if (failure) this.failedCalls++;
+
+        this.cursor = (this.cursor + 1) % this.outcomes.length;
+
+        // Success can also make the minimum number of calls.
+        if (this.bufferedCalls >= this.config.minimumNumberOfCalls
+                && getFailureRate() >= this.config.failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    @GuardedBy("this")
+    private float getFailureRate() {
+        return this.bufferedCalls == 0 ? 0 : (float) this.failedCalls / this.bufferedCalls;
+    }
+
+    @GuardedBy("this")
+    private void transitionTo(State target) {
+        State source = this.state;
+        Metrics metrics = getMetrics();
+
+        this.state = target;
+        this.transitions++;
+        this.permittedProbes = 0;
+        this.succeededProbes = 0;
+
+        if (target == State.OPEN) {
+            this.openedAt = this.clock.getAsLong();
+        } else if (target == State.CLOSED) {
+            // Starts over with a clean window.
+            this.bufferedCalls = 0;
+            this.failedCalls = 0;
+            this.cursor = 0;
+        }
+
+        if (target == State.OPEN) {
+            Loggers.getLogger().warn("Circuit breaker of {} is changed from {} to {}: {}",
+                    this.endpoint, source, target, metrics);
+        } else {
+            Loggers.getLogger().info("Circuit breaker of {} is changed from {} to {}: {}",
+                    this.endpoint, source, target, metrics);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Configuration of circuit breaker
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static final class Config {
+        /**
+         * Failure rate in (0, 1] at which the circuit is opened.
+         */
+        @Builder.Default
+        private final float failureRateThreshold = 0.5F;
+
+        /**
+         * Number of the latest calls whose outcomes are recorded.
+         */
+        @Builder.Default
+        private final int slidingWindowSize = 20;
+
+        /**
+         * Number of calls needed before failure rate is computed.
+         */
+        @Builder.Default
+        private final int minimumNumberOfCalls = 10;
+
+        /**
+         * Duration while the circuit is open.
+         */
+        @Builder.Default
+        private final Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        /**
+         * Number of probe calls in half-open state.
+         */
+        @Builder.Default
+        private final int permittedNumberOfCallsInHalfOpenState = 3;
+
+        public static Config ofDefault() {
+            return builder().build();
+        }
+    }
+
+    /**
+     * Snapshot of metrics of circuit breaker
+     */
+    @Getter
+    @ToString
+    public static final class Metrics {
+        private final Endpoint endpoint;
+
+        private final State state;
+
+        private final float failureRate;
+
+        private final int bufferedCalls;
+
+        private final int failedCalls;
+
+        private final long notPermittedCalls;
+
+        private final long transitions;
+
+        private Metrics(Endpoint endpoint, State state, float failureRate, int bufferedCalls,
+                        int failedCalls, long notPermittedCalls, long transitions) {
+            this.endpoint = endpoint;
+            this.state = state;
+            this.failureRate = failureRate;
+            this.bufferedCalls = bufferedCalls;
+            this.failedCalls = failedCalls;
+            this.notPermittedCalls = notPermittedCalls;
+            this.transitions = transitions;
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.circuit;
+
+import okhttp3.Request;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Family of endpoints which has its own {@link CircuitBreaker}
+ *
+ * <p> When one of them has problems, the others are still available.
+ */
+public enum Endpoint {
+
+    /**
+     * Image of episode on CDN.
+     */
+    IMAGE("^/v2/comics/\\d+/episodes/\\d+/contents/.+"),
+
+    /**
+     * Metadata of episodes on CDN.
+     */
+    EPISODE_METADATA("^/episodes/.+"),
+
+    /**
+     * Authority to view episode.
+     *
+     * @see io.github.imsejin.dl.lezhin.api.auth.service.AuthorityService
+     */
+    SIGNED_URL("^/lz-api/v2/cloudfront/signed-url/.+"),
+
+    /**
+     * Login page and its form submission.
+     *
+     * @see io.github.imsejin.dl.lezhin.api.login.service.LoginService
+     */
+    LOGIN("^/[a-z]{2}/login(/.*)?$");
+
+    private final Pattern pathPattern;
+
+    Endpoint(String pathRegex) {
+        this.pathPattern = Pattern.compile(pathRegex);
+    }
+
+    /**
+     * Returns the endpoint of the request.
+     *
+     * @param request request
+     * @return endpoint or empty if request matches no endpoint
+     */
+    public static Optional<Endpoint> from(Request request) {
+        String path = request.url().encodedPath();
+        return Arrays.stream(values()).filter(it -> it.pathPattern.matcher(path).matches()).findFirst();
+    }
+
+}
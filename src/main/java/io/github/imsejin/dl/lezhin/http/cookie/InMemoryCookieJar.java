@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.cookie;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Cookie jar which keeps cookies in memory while the client is alive
+ */
+@ThreadSafe
+public class InMemoryCookieJar implements CookieJar {
+
+    /**
+     * Cookies keyed by name, domain and path.
+     */
+    private final Map<String, Cookie> cookies = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
+        for (Cookie cookie : cookies) {
+            String key = cookie.name() + '@' + cookie.domain() + cookie.path();
+
+            if (cookie.expiresAt() <= System.currentTimeMillis()) {
+                // Server deletes the cookie by expiring it.
+                this.cookies.remove(key);
+            } else {
+                this.cookies.put(key, cookie);
+            }
+        }
+    }
+
+    @Override
+    public List<Cookie> loadForRequest(HttpUrl url) {
+        long now = System.currentTimeMillis();
+        List<Cookie> matched = new ArrayList<>();
+
+        for (Cookie cookie : this.cookies.values()) {
+            if (cookie.expiresAt() > now && cookie.matches(url)) {
+                matched.add(cookie);
+            }
+        }
+
+        return matched;
+    }
+
+    public List<Cookie> getCookies() {
+        long now = System.currentTimeMillis();
+        return this.cookies.values().stream().filter(it -> it.expiresAt() > now).collect(toUnmodifiableList());
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.hedge;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Budget which caps hedged requests at a ratio of traffic
+ *
+ * <p> Each request deposits {@code ratio} token and each hedge withdraws a token.
+ * Tokens are capped, so a long quiet period doesn't allow a burst of hedges.
+ */
+@ThreadSafe
+public class HedgeBudget {
+
+    /**
+     * Tokens are counted in thousandths, so that adding up ratio has no rounding error.
+     */
+    private static final long SCALE = 1000;
+
+    private final long ratio;
+
+    private final long maxTokens;
+
+    @GuardedBy("this")
+    private long tokens;
+
+    public HedgeBudget(double ratio, double maxTokens) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Ratio must be in [0, 1]: " + ratio);
+        }
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("Max tokens must be at least 1: " + maxTokens);
+        }
+
+        this.ratio = Math.round(ratio * SCALE);
+        this.maxTokens = Math.round(maxTokens * SCALE);
+    }
+
+    /**
+     * Deposits token for a request.
+     */
+    public synchronized void deposit() {
+        this.tokens = Math.min(this.tokens + this.ratio, this.maxTokens);
+    }
+
+    /**
+     * Withdraws a token for a hedge.
+     *
+     * @return whether hedge is allowed
+     */
+    public synchronized boolean tryWithdraw() {
+        if (this.tokens < SCALE) {
+            return false;
+        }
+
+        this.tokens -= SCALE;
+        return true;
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.hedge;
+
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.util.FutureUtils;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetcher which hedges slow requests
+ *
+ * <p> Latency is long-tailed; a few requests take much longer than the others. When a request
+ * runs past the percentile of the latest latencies, this sends a second identical request
+ * and takes whichever finishes first. The other is cancelled.
+ *
+ * <p> Hedges are capped by {@link HedgeBudget}, so they never exceed a small ratio of traffic
+ * even when the whole network is slow. Until enough latencies are tracked, nothing is hedged.
+ *
+ * <p> Latency covers reading the whole body, because slow body is the tail as well.
+ * That's why this returns body as bytes, not response. It is tracked once per fetch from
+ * the original request, so a fetch won by its hedge still counts the time before the hedge;
+ * otherwise only fast hedges would be tracked and the percentile would drift down.
+ */
+@ThreadSafe
+public class HedgedFetcher implements Closeable {
+
+    private final OkHttpClient httpClient;
+
+    @Getter
+    private final Config config;
+
+    private final LatencyTracker latencyTracker;
+
+    private final HedgeBudget budget;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    public HedgedFetcher(OkHttpClient httpClient, Config config) {
+        this.httpClient = httpClient;
+        this.config = config;
+        this.latencyTracker = new LatencyTracker(config.sampleSize);
+        this.budget = new HedgeBudget(config.budgetRatio, config.maxBudget);
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "hedge-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Returns body of the response.
+     *
+     * @param request request
+     * @return body
+     * @throws IOException if all requests failed
+     * @see #fetchAsync(Request)
+     */
+    public byte[] fetch(Request request) throws IOException {
+        try {
+            return FutureUtils.join(fetchAsync(request));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Returns future of body of the response.
+     *
+     * <p> Response which is not successful is failure. Cancelling the future cancels all requests.
+     *
+     * @param request request
+     * @return future of body
+     */
+    public CompletableFuture<byte[]> fetchAsync(Request request) {
+        this.budget.deposit();
+
+        Exchange exchange = new Exchange(request);
+        exchange.launch();
+
+        getHedgeDelay().ifPresent(delay -> {
+            try {
+                this.scheduler.schedule(exchange::hedge, delay.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Fetcher is closed.
+            }
+        });
+
+        return exchange.result;
+    }
+
+    /**
+     * Returns the number of hedged requests.
+     *
+     * @return number of hedges
+     */
+    public long getHedgeCount() {
+        return this.hedgeCount.get();
+    }
+
+    /**
+     * Returns the latency to hedge requests at.
+     *
+     * @return latency or empty if there are not enough samples yet
+     */
+    public Optional<Duration> getHedgeDelay() {
+        if (this.latencyTracker.size() < this.config.minimumSamples) {
+            return Optional.empty();
+        }
+
+        return this.latencyTracker.getPercentile(this.config.percentile).map(it ->
+                it.compareTo(this.config.minimumDelay) < 0 ? this.config.minimumDelay : it);
+    }
+
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Exchange of an original request and its hedge
+     */
+    private final class Exchange {
+        private final Request request;
+
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+
+        /**
+         * When the original request is launched.
+         */
+        private final long startedAt = System.nanoTime();
+
+        @GuardedBy("this")
+        private final List<Call> calls = new ArrayList<>(2);
+
+        @GuardedBy("this")
+        private int inFlight;
+
+        @GuardedBy("this")
+        private boolean won;
+
+        private Exchange(Request request) {
+            this.request = request;
+
+            // Cancels all requests when the caller gives up.
+            this.result.whenComplete((body, throwable) -> {
+                if (this.result.isCancelled()) cancelAll();
+            });
+        }
+
+        private void launch() {
+            Call call = httpClient.newCall(this.request);
+            synchronized (this) {
+                this.calls.add(call);
+                this.inFlight++;
+            }
+
+            call.enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try (ResponseBody body = response.body()) {
+                        if (!response.isSuccessful() || body == null) {
+                            onFailure(call, new IOException("Unexpected response: " + response));
+                            return;
+                        }
+
+                        byte[] bytes = body.bytes();
+                        if (!win()) return;
+
+                        // Recorded before completion, so the caller sees it as soon as it has the body.
+                        latencyTracker.record(Duration.ofNanos(System.nanoTime() - startedAt));
+                        result.complete(bytes);
+                        cancelAll();
+                    } catch (IOException e) {
+                        onFailure(call, e);
+                    }
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    synchronized (Exchange.this) {
+                        // Waits for the other request still in flight.
+                        if (--inFlight > 0) return;
+                    }
+
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+
+        /**
+         * Returns whether the response is the first one, which completes this exchange.
+         */
+        private synchronized boolean win() {
+            if (this.won || this.result.isDone()) return false;
+
+            this.won = true;
+            return true;
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (this.result.isDone() || this.inFlight == 0) return;
+            }
+
+            if (!budget.tryWithdraw()) {
+                Loggers.getLogger().debug("No budget to hedge request: {}", this.request.url());
+                return;
+            }
+
+            hedgeCount.incrementAndGet();
+            Loggers.getLogger().debug("Hedge slow request: {}", this.request.url());
+            launch();
+        }
+
+        private void cancelAll() {
+            List<Call> snapshot;
+            synchronized (this) {
+                snapshot = new ArrayList<>(this.calls);
+            }
+
+            // Cancelling the completed call does nothing.
+            snapshot.forEach(Call::cancel);
+        }
+    }
+
+    /**
+     * Configuration of hedging
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static final class Config {
+        /**
+         * Percentile of the latest latencies at which request is hedged.
+         */
+        @Builder.Default
+        private final double percentile = 0.95;
+
+        /**
+         * Number of the latest latencies to track.
+         */
+        @Builder.Default
+        private final int sampleSize = 256;
+
+        /**
+         * Number of latencies needed before hedging.
+         */
+        @Builder.Default
+        private final int minimumSamples = 20;
+
+        /**
+         * Lower bound of latency to hedge at, which prevents hedging fast requests.
+         */
+        @Builder.Default
+        private final Duration minimumDelay = Duration.ofMillis(100);
+
+        /**
+         * Ratio of hedges to requests.
+         */
+        @Builder.Default
+        private final double budgetRatio = 0.05;
+
+        /**
+         * Max number of hedges saved up while requests are fast.
+         */
+        @Builder.Default
+        private final double maxBudget = 10;
+
+        public static Config ofDefault() {
+            return builder().build();
+        }
+    }
+
+}
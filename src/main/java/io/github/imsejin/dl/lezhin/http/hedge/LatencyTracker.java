@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.hedge;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Tracker of the latest latencies
+ *
+ * <p> Only the latest samples are kept, so percentile follows the current state of network.
+ */
+@ThreadSafe
+public class LatencyTracker {
+
+    @GuardedBy("this")
+    private final long[] samples;
+
+    @GuardedBy("this")
+    private int size;
+
+    @GuardedBy("this")
+    private int cursor;
+
+    public LatencyTracker(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Records a latency, evicting the oldest one if full.
+     *
+     * @param latency latency
+     */
+    public synchronized void record(Duration latency) {
+        this.samples[this.cursor] = latency.toNanos();
+        this.cursor = (this.cursor + 1) % this.samples.length;
+        if (this.size < this.samples.length) this.size++;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return number of samples
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns latency at the percentile by nearest-rank method.
+     *
+     * @param percentile percentile in (0, 1]
+     * @return latency or empty if there is no sample
+     */
+    public Optional<Duration> getPercentile(double percentile) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]: " + percentile);
+        }
+
+        long[] sorted;
+        synchronized (this) {
+            if (this.size == 0) return Optional.empty();
+            sorted = Arrays.copyOf(this.samples, this.size);
+        }
+
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * sorted.length);
+
+        return Optional.of(Duration.ofNanos(sorted[rank - 1]));
+    }
+
+}
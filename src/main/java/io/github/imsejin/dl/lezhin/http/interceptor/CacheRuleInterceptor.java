@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor;
+
+import io.github.imsejin.dl.lezhin.http.cache.CacheRule;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Network interceptor which rewrites caching headers of response by {@link CacheRule}
+ *
+ * <p> This must be added as network interceptor, so that {@link okhttp3.Cache} stores
+ * the rewritten response. Image which matches no rule is not stored either.
+ */
+@ThreadSafe
+public class CacheRuleInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+
+        Optional<CacheRule> rule = CacheRule.from(response.request());
+        if (rule.isEmpty()) {
+            String contentType = response.header("content-type");
+            if (contentType == null || !contentType.startsWith("image/")) {
+                return response;
+            }
+
+            rule = Optional.of(CacheRule.IMAGE);
+        }
+
+        // Error response should be requested again.
+        if (!response.isSuccessful()) {
+            return response;
+        }
+
+        Response.Builder builder = response.newBuilder()
+                .header("cache-control", rule.get().toCacheControl())
+                .removeHeader("pragma")
+                .removeHeader("expires");
+
+        if (rule.get().getVary() != null) {
+            builder.header("vary", rule.get().getVary());
+        }
+
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor;
+
+import io.github.imsejin.dl.lezhin.http.circuit.CallNotPermittedException;
+import io.github.imsejin.dl.lezhin.http.circuit.CircuitBreaker;
+import io.github.imsejin.dl.lezhin.http.circuit.Endpoint;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Interceptor which guards each {@link Endpoint} with its own {@link CircuitBreaker}
+ *
+ * <p> While the circuit is open, request fails at once with {@link CallNotPermittedException}.
+ * Network failure, server error and {@code 429 Too Many Requests} are counted as failure;
+ * the other responses are counted as success. Request which matches no endpoint is not guarded.
+ */
+@ThreadSafe
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    private final Map<Endpoint, CircuitBreaker> circuitBreakers;
+
+    public CircuitBreakerInterceptor(CircuitBreaker.Config config) {
+        Map<Endpoint, CircuitBreaker> map = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            map.put(endpoint, new CircuitBreaker(endpoint, config));
+        }
+
+        this.circuitBreakers = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns circuit breaker of the endpoint.
+     *
+     * @param endpoint endpoint
+     * @return circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker(Endpoint endpoint) {
+        return this.circuitBreakers.get(endpoint);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+
+        Optional<Endpoint> endpoint = Endpoint.from(request);
+        if (endpoint.isEmpty()) {
+            return chain.proceed(request);
+        }
+
+        CircuitBreaker circuitBreaker = this.circuitBreakers.get(endpoint.get());
+        Optional<Duration> retryAfter = circuitBreaker.tryAcquirePermission();
+        if (retryAfter.isPresent()) {
+            throw new CallNotPermittedException(endpoint.get(), retryAfter.get());
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            // Cancellation by caller is not a problem of the endpoint.
+            if (chain.call().isCanceled()) {
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onFailure();
+            }
+
+            throw e;
+        }
+
+        if (isFailure(response)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+
+        return response;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static boolean isFailure(Response response) {
+        int code = response.code();
+        return code >= 500 || code == 429;
+    }
+
+}
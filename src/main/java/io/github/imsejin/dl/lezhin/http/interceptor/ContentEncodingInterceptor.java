@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+import org.brotli.dec.BrotliInputStream;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+
+/**
+ * Interceptor which negotiates compression of response body
+ *
+ * <p> OkHttp decompresses gzip transparently only if request has no {@code accept-encoding}.
+ * It cannot decode brotli at all. So this requests {@code br} and {@code gzip} by itself
+ * and decodes response body as a stream, removing {@code content-encoding} and {@code content-length}.
+ *
+ * <p> If request already has {@code accept-encoding}, the caller takes care of the encoding
+ * and this does nothing.
+ */
+@ThreadSafe
+public class ContentEncodingInterceptor implements Interceptor {
+
+    private static final String ACCEPT_ENCODING = "br, gzip";
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.header("accept-encoding") != null) {
+            return chain.proceed(request);
+        }
+
+        Response response = chain.proceed(request.newBuilder()
+                .header("accept-encoding", ACCEPT_ENCODING)
+                .build());
+
+        return decode(response);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static Response decode(Response response) throws IOException {
+        ResponseBody body = response.body();
+        String encoding = response.header("content-encoding");
+        if (body == null || encoding == null || !hasBody(response)) {
+            return response;
+        }
+
+        Source source;
+        if (encoding.equalsIgnoreCase("br")) {
+            source = Okio.source(new BrotliInputStream(body.source().inputStream()));
+        } else if (encoding.equalsIgnoreCase("gzip")) {
+            source = new GzipSource(body.source());
+        } else {
+            return response;
+        }
+
+        BufferedSource decoded = Okio.buffer(source);
+
+        return response.newBuilder()
+                .removeHeader("content-encoding")
+                .removeHeader("content-length")
+                .body(ResponseBody.create(body.contentType(), -1, decoded))
+                .build();
+    }
+
+    /**
+     * Returns whether the response has body to decode; decoder fails on empty body.
+     */
+    private static boolean hasBody(Response response) {
+        if (response.request().method().equals("HEAD")) {
+            return false;
+        }
+
+        int code = response.code();
+        return code >= 200 && code != 204 && code != 304 && response.body().contentLength() != 0;
+    }
+
+}
@@ -16,10 +16,13 @@
 
 package io.github.imsejin.dl.lezhin.http.interceptor;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 
+import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.Period;
@@ -27,35 +30,71 @@ import java.util.Locale;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Interceptor which adds headers as if browser requests
+ *
+ * <p> This is immutable, so each session has its own interceptor with its locale,
+ * access token and user agent. User agent is generated once per session by
+ * {@link #randomizeUserAgent()}, not per request.
+ */
+@Getter
+@ThreadSafe
 public class FabricatedHeadersInterceptor implements Interceptor {
 
-    private final AtomicReference<Locale> locale = new AtomicReference<>(Locale.ROOT);
+    private static final UUID EMPTY_ACCESS_TOKEN = new UUID(0, 0);
+
+    private static final String[] OPERATING_SYSTEMS = {
+            "Windows NT 10.0; Win64; x64",
+            "Macintosh; Intel Mac OS X 10_15_7",
+            "X11; Ubuntu; Linux x86_64",
+            "Macintosh; Intel Mac OS X 10_14_6",
+            "X11; Linux x86_64",
+    };
+
+    private final Locale locale;
+
+    private final UUID accessToken;
+
+    private final String userAgent;
+
+    /**
+     * Values of the headers which are computed once.
+     */
+    @Getter(AccessLevel.NONE)
+    private final String country;
+
+    @Getter(AccessLevel.NONE)
+    private final String languageTag;
+
+    @Getter(AccessLevel.NONE)
+    private final String authorization;
 
-    private final AtomicReference<UUID> accessToken = new AtomicReference<>(new UUID(0, 0));
+    public FabricatedHeadersInterceptor(Locale locale, UUID accessToken, String userAgent) {
+        this.locale = locale;
+        this.accessToken = accessToken;
+        this.userAgent = userAgent;
+
+        this.country = locale.getCountry().toLowerCase(locale);
+        this.languageTag = locale.getLanguage() + '-' + locale.getCountry();
+        this.authorization = EMPTY_ACCESS_TOKEN.equals(accessToken) ? null : "Bearer " + accessToken;
+    }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
-        Locale locale = this.locale.get();
-
         Request.Builder requestBuilder = chain.request()
                 .newBuilder()
                 .addHeader("accept", "application/json, text/plain, */*")
-                .addHeader("accept-encoding", "gzip, deflate, br")
-                .addHeader("cache-control", "no-cache")
-                .addHeader("pragma", "no-cache")
                 // Fabricated user agent.
-                .addHeader("user-agent", randomizeUserAgent())
+                .addHeader("user-agent", this.userAgent)
                 // User-defined header used on lezhin only.
                 .addHeader("x-lz-adult", "0")
                 .addHeader("x-lz-allowadult", "true")
-                .addHeader("x-lz-country", locale.getCountry().toLowerCase(locale))
-                .addHeader("x-lz-locale", locale.getLanguage() + '-' + locale.getCountry());
+                .addHeader("x-lz-country", this.country)
+                .addHeader("x-lz-locale", this.languageTag);
 
-        UUID accessToken = this.accessToken.get();
-        if (!accessToken.equals(new UUID(0, 0))) {
-            requestBuilder.addHeader("authorization", "Bearer " + accessToken);
+        if (this.authorization != null) {
+            requestBuilder.addHeader("authorization", this.authorization);
         }
 
         Request request = requestBuilder.build();
@@ -63,17 +102,12 @@ public class FabricatedHeadersInterceptor implements Interceptor {
         return chain.proceed(request);
     }
 
-    public void setLocale(Locale locale) {
-        this.locale.set(locale);
-    }
-
-    public void setAccessToken(UUID accessToken) {
-        this.accessToken.set(accessToken);
-    }
-
-    // -------------------------------------------------------------------------------------------------
-
-    private static String randomizeUserAgent() {
+    /**
+     * Returns user agent of Chrome whose version is close to the current one.
+     *
+     * @return fabricated user agent
+     */
+    public static String randomizeUserAgent() {
         Random random = ThreadLocalRandom.current();
         Period period = Period.between(LocalDate.of(2005, 1, 1), LocalDate.now().withDayOfMonth(1));
 
@@ -84,30 +118,10 @@ public class FabricatedHeadersInterceptor implements Interceptor {
         // between 0 and 159
         int bugfixVersion = random.nextInt(160);
 
-        String chromeVersion = String.format("%d.0.%d.%d", majorVersion, minorVersion, bugfixVersion);
-
-        String os;
-        switch (random.nextInt(5)) {
-            case 0:
-                os = "Windows NT 10.0; Win64; x64";
-                break;
-            case 1:
-                os = "Macintosh; Intel Mac OS X 10_15_7";
-                break;
-            case 2:
-                os = "X11; Ubuntu; Linux x86_64";
-                break;
-            case 3:
-                os = "Macintosh; Intel Mac OS X 10_14_6";
-                break;
-            case 4:
-                os = "X11; Linux x86_64";
-                break;
-            default:
-                throw new AssertionError("Never thrown");
-        }
+        String os = OPERATING_SYSTEMS[random.nextInt(OPERATING_SYSTEMS.length)];
 
-        return String.format("Mozilla/5.0 (%s) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/%s Safari/537.36", os, chromeVersion);
+        return "Mozilla/5.0 (" + os + ") AppleWebKit/537.36 (KHTML, like Gecko) Chrome/"
+                + majorVersion + ".0." + minorVersion + '.' + bugfixVersion + " Safari/537.36";
     }
 
 }
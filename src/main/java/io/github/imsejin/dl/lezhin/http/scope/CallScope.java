@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.http.scope;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scope of HTTP calls created by a thread, which can be cancelled together
+ *
+ * <p> Reading socket is not interruptible, so interrupting a thread doesn't stop its call in flight.
+ * While the scope is open on a thread, the calls created on it are kept in the scope when they start,
+ * and {@link #cancel()} cancels them from any thread. Calls are bound to the scope by {@link #register(Call)}
+ * as {@link EventListener.Factory} of the client, which is invoked on the thread creating the call;
+ * so asynchronous calls are also in the scope of the thread which created them.
+ *
+ * <pre>{@code
+ *     try (CallScope scope = CallScope.open()) {
+ *         timer.schedule(scope::cancel, timeout);
+ *         service.getProduct(alias, cookie);
+ *     }
+ * }</pre>
+ */
+@ThreadSafe
+public final class CallScope implements Closeable {
+
+    private static final ThreadLocal<CallScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Scope which was open on the thread before this, restored on closing.
+     */
+    private final CallScope previous;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Listener which keeps the call on start, because call cannot be cancelled until it is fully created.
+     */
+    private final EventListener listener = new EventListener() {
+        @Override
+        public void callStart(Call call) {
+            calls.add(call);
+            if (cancelled) call.cancel();
+        }
+    };
+
+    private CallScope(CallScope previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Opens new scope on the current thread.
+     *
+     * @return scope
+     */
+    public static CallScope open() {
+        CallScope scope = new CallScope(CURRENT.get());
+        CURRENT.set(scope);
+
+        return scope;
+    }
+
+    /**
+     * Binds the call to the scope open on the current thread.
+     *
+     * <p> The call is cancelled as soon as it starts if the scope is already cancelled.
+     *
+     * @param call call being created
+     * @return listener of the scope, or listener which does nothing if no scope is open
+     */
+    public static EventListener register(Call call) {
+        CallScope scope = CURRENT.get();
+        return scope == null ? EventListener.NONE : scope.listener;
+    }
+
+    /**
+     * Cancels all calls in this scope, including the calls created after this.
+     */
+    public void cancel() {
+        this.cancelled = true;
+        this.calls.forEach(Call::cancel);
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Closes this scope, which must be done on the thread which opened it.
+     */
+    @Override
+    public void close() {
+        if (this.previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(this.previous);
+        }
+
+        this.calls.clear();
+    }
+
+}
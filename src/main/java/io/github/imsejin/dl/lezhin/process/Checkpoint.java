@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.process;
+
+import java.util.Optional;
+
+/**
+ * Processor whose result is kept for the next run
+ *
+ * <p> When a processor implements this, the executor stores a snapshot of its result after it is done.
+ * If the result is {@linkplain #isMutable() mutable}, the snapshot is stored once more when all the processors
+ * are done or one of them fails. On the next run, the executor
+ * restores the result from the snapshot instead of processing; if the processor tells the snapshot is
+ * no longer valid, the processor runs as usual.
+ *
+ * @param <T> type of result
+ * @param <S> type of snapshot, which is serialized to JSON
+ * @see io.github.imsejin.dl.lezhin.session.CheckpointStore
+ */
+public interface Checkpoint<T, S> {
+
+    /**
+     * Returns key which distinguishes the snapshots of this processor, such as content.
+     *
+     * @param context process context
+     * @return key of snapshot
+     */
+    String getCheckpointKey(ProcessContext context);
+
+    Class<S> getSnapshotType();
+
+    /**
+     * Returns snapshot of the result.
+     *
+     * @param result result of this processor
+     * @return snapshot, or {@code null} if nothing to keep
+     */
+    S snapshot(T result);
+
+    /**
+     * Returns result restored from the snapshot.
+     *
+     * @param snapshot snapshot stored in the previous run
+     * @param context  process context
+     * @return result, or empty if the snapshot is no longer valid
+     */
+    Optional<T> restore(S snapshot, ProcessContext context);
+
+    /**
+     * Returns whether the result can be changed after this processor is done, such as cache.
+     *
+     * @return {@code true} if snapshot of the result should be stored again at the end of execution
+     */
+    default boolean isMutable() {
+        return false;
+    }
+
+}
@@ -17,15 +17,17 @@
 package io.github.imsejin.dl.lezhin.process;
 
 import io.github.imsejin.common.util.ArrayUtils;
-import io.github.imsejin.common.util.ReflectionUtils;
-import io.github.imsejin.dl.lezhin.api.auth.model.Authority;
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache;
+import io.github.imsejin.dl.lezhin.api.product.model.Product;
 import io.github.imsejin.dl.lezhin.argument.impl.ContentName;
 import io.github.imsejin.dl.lezhin.argument.impl.DebugMode;
 import io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange;
 import io.github.imsejin.dl.lezhin.argument.impl.Language;
 import io.github.imsejin.dl.lezhin.argument.impl.SaveAsJpeg;
+import io.github.imsejin.dl.lezhin.argument.impl.WarmUpBrowser;
 import io.github.imsejin.dl.lezhin.attribute.Attribute;
 import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.session.Session;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -33,14 +35,10 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import javax.annotation.concurrent.ThreadSafe;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
-
-import static java.util.stream.Collectors.toUnmodifiableList;
+import java.util.function.BiConsumer;
 
 @Getter
 @ToString
@@ -49,10 +47,41 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ProcessContext {
 
-    private static final List<Field> FIELDS = Arrays.stream(ProcessContext.class.getDeclaredFields())
-            .filter(it -> Attribute.class.isAssignableFrom(it.getType()))
-            .filter(it -> !Modifier.isStatic(it.getModifiers()))
-            .collect(toUnmodifiableList());
+    /**
+     * Slots of attributes in order of the fields.
+     *
+     * <p> This includes the fields whose type is not {@link Attribute} such as {@link UUID},
+     * because processors return them as they are. A new field must have its slot
+     * and be copied in the copy constructor.
+     *
+     * <p> {@link Session} has its access token, so it is assigned to the access token as well;
+     * a processor which establishes a session doesn't need to return the token separately.
+     */
+    private static final List<Slot<?>> SLOTS = List.of(
+            new Slot<>(Language.class, (it, v) -> it.language = v),
+            new Slot<>(ContentName.class, (it, v) -> it.contentName = v),
+            new Slot<>(EpisodeRange.class, (it, v) -> it.episodeRange = v),
+            new Slot<>(SaveAsJpeg.class, (it, v) -> it.saveAsJpeg = v),
+            new Slot<>(DebugMode.class, (it, v) -> it.debugMode = v),
+            new Slot<>(WarmUpBrowser.class, (it, v) -> it.warmUpBrowser = v),
+            new Slot<>(Authentication.class, (it, v) -> it.authentication = v),
+            new Slot<>(Session.class, (it, v) -> {
+                it.session = v;
+                it.accessToken = v.getAccessToken();
+            }),
+            new Slot<>(UUID.class, (it, v) -> it.accessToken = v),
+            new Slot<>(Product.class, (it, v) -> it.product = v),
+            new Slot<>(AuthorityCache.class, (it, v) -> it.authorityCache = v));
+
+    /**
+     * Slot matched with type of attribute, which is looked up once per type.
+     */
+    private static final ClassValue<Optional<Slot<?>>> SLOT_BY_TYPE = new ClassValue<>() {
+        @Override
+        protected Optional<Slot<?>> computeValue(Class<?> type) {
+            return SLOTS.stream().filter(it -> it.type.isAssignableFrom(type)).findFirst();
+        }
+    };
 
     // From command line -------------------------------------------------------------------------------
 
@@ -66,13 +95,33 @@ public final class ProcessContext {
 
     private DebugMode debugMode;
 
+    private WarmUpBrowser warmUpBrowser;
+
     // From processors ---------------------------------------------------------------------------------
 
     private Authentication authentication;
 
+    private Session session;
+
     private UUID accessToken;
 
-    private Authority authority;
+    private Product product;
+
+    private AuthorityCache authorityCache;
+
+    private ProcessContext(ProcessContext context) {
+        this.language = context.language;
+        this.contentName = context.contentName;
+        this.episodeRange = context.episodeRange;
+        this.saveAsJpeg = context.saveAsJpeg;
+        this.debugMode = context.debugMode;
+        this.warmUpBrowser = context.warmUpBrowser;
+        this.authentication = context.authentication;
+        this.session = context.session;
+        this.accessToken = context.accessToken;
+        this.product = context.product;
+        this.authorityCache = context.authorityCache;
+    }
 
     /**
      * Creates new instance.
@@ -95,22 +144,7 @@ public final class ProcessContext {
             return context;
         }
 
-        outer:
-        for (Field field : FIELDS) {
-            for (Object attribute : attributes) {
-                if (attribute == null) {
-                    continue;
-                }
-
-                if (field.getType().isAssignableFrom(attribute.getClass())) {
-                    ReflectionUtils.setFieldValue(context, field, attribute);
-
-                    // Discards other attributes whose type is the same as the matched attribute.
-                    continue outer;
-                }
-            }
-        }
-
+        context.assign(attributes);
         return context;
     }
 
@@ -132,15 +166,66 @@ public final class ProcessContext {
             return context;
         }
 
-        if (Arrays.stream(attributes).allMatch(Objects::isNull)) {
+        if (isAllNull(attributes)) {
             return context;
         }
 
-        Object[] originAttributes = FIELDS.stream().map(it -> ReflectionUtils.getFieldValue(context, it)).toArray();
+        ProcessContext merged = new ProcessContext(context);
 
         // New attributes take precedence over the attributes of context.
-        Object[] prepended = ArrayUtils.prepend(originAttributes, attributes);
-        return create(prepended);
+        merged.assign(attributes);
+        return merged;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static boolean isAllNull(Object[] attributes) {
+        for (Object attribute : attributes) {
+            if (attribute != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Assigns the attributes to the matched fields.
+     *
+     * <p> Assigns in reverse order, so the first one wins when attributes have the same type.
+     */
+    private void assign(Object[] attributes) {
+        for (int i = attributes.length - 1; i >= 0; i--) {
+            Object attribute = attributes[i];
+            if (attribute == null) {
+                continue;
+            }
+
+            Optional<Slot<?>> slot = SLOT_BY_TYPE.get(attribute.getClass());
+            if (slot.isPresent()) {
+                slot.get().set(this, attribute);
+            }
+        }
+    }
+
+    /**
+     * Setter of a field of the context
+     *
+     * @param <T> type of field
+     */
+    private static final class Slot<T> {
+        private final Class<T> type;
+
+        private final BiConsumer<ProcessContext, T> setter;
+
+        private Slot(Class<T> type, BiConsumer<ProcessContext, T> setter) {
+            this.type = type;
+            this.setter = setter;
+        }
+
+        private void set(ProcessContext context, Object attribute) {
+            this.setter.accept(context, this.type.cast(attribute));
+        }
     }
 
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.process;
+
+/**
+ * Stage of a streaming pipeline
+ *
+ * <p> A stage processes one item at a time and emits zero or more items to the next stage.
+ * Workers of a stage call this concurrently, so the implementation must be thread-safe.
+ *
+ * @param <I> type of item in
+ * @param <O> type of item out
+ * @see io.github.imsejin.dl.lezhin.process.framework.StageRunner
+ */
+@FunctionalInterface
+public interface Stage<I, O> {
+
+    /**
+     * Processes the item.
+     *
+     * @param item    item
+     * @param emitter emitter of items to the next stage
+     * @throws Exception if failed to process the item, which stops the pipeline
+     */
+    void process(I item, Emitter<O> emitter) throws Exception;
+
+    /**
+     * Emitter of items to the next stage
+     *
+     * @param <T> type of item
+     */
+    @FunctionalInterface
+    interface Emitter<T> {
+
+        /**
+         * Emits the item, waiting for space in the buffer of the next stage.
+         *
+         * @param item item
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void emit(T item) throws InterruptedException;
+
+    }
+
+}
@@ -0,0 +1,328 @@
+package io.github.imsejin.dl.lezhin.process.framework;
+
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.event.Outcome;
+import io.github.imsejin.dl.lezhin.event.ProcessorEvent;
+import io.github.imsejin.dl.lezhin.exception.InvalidProcessSpecificationException;
+import io.github.imsejin.dl.lezhin.exception.ProcessorExecutionFailureException;
+import io.github.imsejin.dl.lezhin.process.Checkpoint;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.session.CheckpointStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor of processors along their dependency graph
+ *
+ * <p> A processor starts as soon as all the processors it depends on are done, so processors
+ * which don't depend on each other run concurrently. Its context is merged with the results of
+ * all the processors it depends on directly or indirectly, in order of the given processors.
+ * The context never has results of the processors running concurrently with it.
+ *
+ * <p> If a processor fails, the processors running concurrently are interrupted, the others
+ * are never started and the failure is thrown as it is after they stop.
+ *
+ * <p> With {@link CheckpointStore}, results of the processors which implement {@link Checkpoint}
+ * are kept for the next run, and a processor is skipped when its result is restored. A result is stored
+ * once when its processor is done, and once more at the end only if it is {@linkplain Checkpoint#isMutable() mutable}.
+ *
+ * <p> Every processor run emits {@link ProcessorEvent} and logs how long it took.
+ * A processor is timed out and retried by its {@link io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy}.
+ */
+public final class ProcessorExecutor {
+
+    /**
+     * Maximum time to wait for the cancelled processors to stop.
+     */
+    private static final Duration TERMINATION_TIMEOUT = Duration.ofSeconds(10);
+
+    private final List<Processor> processors;
+
+    private final List<ProcessorInvoker> invokers = new ArrayList<>();
+
+    /**
+     * Indexes of processors each processor depends on directly or indirectly, in ascending order.
+     */
+    private final List<List<Integer>> ancestors = new ArrayList<>();
+
+    /**
+     * Indexes of processors which depend on each processor directly.
+     */
+    private final List<List<Integer>> dependents = new ArrayList<>();
+
+    private final int[] inDegrees;
+
+    /**
+     * Store of checkpoints, {@code null} if results are not kept.
+     */
+    private final CheckpointStore checkpointStore;
+
+    /**
+     * Creates new instance which doesn't keep results.
+     *
+     * @param processors   processors in topological order
+     * @param dependencies types of processor and the types each of them depends on
+     * @throws InvalidProcessSpecificationException if a processor comes before the processor it depends on
+     *                                              or has invalid execution policy
+     * @see ProcessorOrderResolver#resolveDependencies(java.util.Set)
+     */
+    public ProcessorExecutor(List<Processor> processors,
+                             Map<Class<? extends Processor>, List<Class<? extends Processor>>> dependencies) {
+        this(processors, dependencies, null);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param processors   processors in topological order
+     * @param dependencies    types of processor and the types each of them depends on
+     * @param checkpointStore store of checkpoints
+     * @throws InvalidProcessSpecificationException if a processor comes before the processor it depends on
+     *                                              or has invalid execution policy
+     * @see ProcessorOrderResolver#resolveDependencies(java.util.Set)
+     */
+    public ProcessorExecutor(List<Processor> processors,
+                             Map<Class<? extends Processor>, List<Class<? extends Processor>>> dependencies,
+                             CheckpointStore checkpointStore) {
+        this.processors = List.copyOf(processors);
+        this.checkpointStore = checkpointStore;
+        this.inDegrees = new int[processors.size()];
+
+        Map<Class<? extends Processor>, Integer> indexMap = new HashMap<>();
+        for (int i = 0; i < processors.size(); i++) {
+            Class<? extends Processor> processorType = processors.get(i).getClass();
+            List<Class<? extends Processor>> dependencyTypes = dependencies.getOrDefault(processorType, List.of());
+
+            TreeSet<Integer> ancestorSet = new TreeSet<>();
+            for (Class<? extends Processor> dependencyType : dependencyTypes) {
+                Integer dependency = indexMap.get(dependencyType);
+                if (dependency == null) {
+                    throw new InvalidProcessSpecificationException("Processor must come after the processor it depends on: " +
+                            "%s depends on %s", processorType.getName(), dependencyType.getName());
+                }
+
+                ancestorSet.add(dependency);
+                ancestorSet.addAll(this.ancestors.get(dependency));
+                this.dependents.get(dependency).add(i);
+            }
+
+            indexMap.put(processorType, i);
+            this.invokers.add(new ProcessorInvoker(processors.get(i)));
+            this.ancestors.add(List.copyOf(ancestorSet));
+            this.dependents.add(new ArrayList<>());
+            this.inDegrees[i] = dependencyTypes.size();
+        }
+    }
+
+    /**
+     * Executes the processors.
+     *
+     * @param context process context
+     * @return context merged with results of all the processors
+     * @throws ProcessorExecutionFailureException if interrupted while waiting for the processors
+     */
+    public ProcessContext execute(ProcessContext context) {
+        int size = this.processors.size();
+        Object[] results = new Object[size];
+        ProcessContext[] inputs = new ProcessContext[size];
+        boolean[] restored = new boolean[size];
+        boolean[] completed = new boolean[size];
+        int[] remainders = this.inDegrees.clone();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "processor-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+        Map<Integer, Future<Integer>> running = new HashMap<>();
+
+        try {
+            for (int i = 0; i < size; i++) {
+                if (remainders[i] == 0) {
+                    running.put(i, submit(completionService, i, context, inputs, results, restored));
+                }
+            }
+
+            for (int count = 0; count < size; count++) {
+                int index = completionService.take().get();
+                running.remove(index);
+                completed[index] = true;
+
+                if (!restored[index]) {
+                    saveCheckpoint(index, inputs[index], results[index]);
+                }
+
+                for (int dependent : this.dependents.get(index)) {
+                    if (--remainders[dependent] == 0) {
+                        running.put(dependent, submit(completionService, dependent, context, inputs, results, restored));
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ProcessorExecutionFailureException(cause, "Failed to execute processor");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessorExecutionFailureException(e, "Interrupted while executing processors");
+        } finally {
+            // Cancels the processors running concurrently with the failed one.
+            if (!running.isEmpty()) {
+                Loggers.getLogger().debug("Cancel the running processors: {}", running.keySet());
+                running.values().forEach(it -> it.cancel(true));
+            }
+
+            executor.shutdownNow();
+            awaitTermination(executor);
+
+            // Mutable results can be changed after the processor is done, such as cache.
+            for (int i = 0; i < size; i++) {
+                if (completed[i] && isMutable(this.processors.get(i))) saveCheckpoint(i, inputs[i], results[i]);
+            }
+        }
+
+        return merge(context, results);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private Future<Integer> submit(CompletionService<Integer> completionService, int index, ProcessContext context,
+                                   ProcessContext[] inputs, Object[] results, boolean[] restored) {
+        ProcessContext merged = context;
+        for (int ancestor : this.ancestors.get(index)) {
+            merged = ProcessContext.of(merged, results[ancestor]);
+        }
+
+        // Results are read by the thread which takes the future of them.
+        ProcessContext input = merged;
+        inputs[index] = input;
+
+        return completionService.submit(() -> {
+            Processor processor = this.processors.get(index);
+            ProcessorEvent event = new ProcessorEvent(processor.getClass());
+            event.start();
+
+            Outcome outcome = Outcome.FAILURE;
+            try {
+                Optional<Object> checkpoint = restoreCheckpoint(index, input);
+
+                if (checkpoint.isPresent()) {
+                    Loggers.getLogger().info("Skip {}: restored from checkpoint", processor.getClass().getSimpleName());
+                    results[index] = checkpoint.get();
+                    restored[index] = true;
+                    outcome = Outcome.RESTORED;
+                } else {
+                    results[index] = this.invokers.get(index).invoke(input);
+                    outcome = Outcome.SUCCESS;
+                }
+            } finally {
+                // Processor fails when it is interrupted by the failure of the others.
+                if (outcome == Outcome.FAILURE && Thread.currentThread().isInterrupted()) {
+                    outcome = Outcome.CANCELLED;
+                }
+
+                Duration elapsed = event.finish(outcome);
+                Loggers.getLogger().debug("Processed {} in {} ms: {}",
+                        processor.getClass().getSimpleName(), elapsed.toMillis(), outcome);
+            }
+
+            return index;
+        });
+    }
+
+    /**
+     * Waits for the cancelled processors to stop, so that none of them is still running when this returns.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(TERMINATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                Loggers.getLogger().warn("Processors didn't stop within {} ms", TERMINATION_TIMEOUT.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Object> restoreCheckpoint(int index, ProcessContext context) {
+        Processor processor = this.processors.get(index);
+        if (!isCheckpointed(processor, context)) {
+            return Optional.empty();
+        }
+
+        Checkpoint<Object, Object> checkpoint = (Checkpoint<Object, Object>) processor;
+        try {
+            Optional<Object> snapshot = this.checkpointStore.load(context.getAuthentication(), context.getLanguage().getValue(),
+                    getCheckpointName(checkpoint, context), checkpoint.getSnapshotType());
+
+            return snapshot.flatMap(it -> checkpoint.restore(it, context));
+        } catch (RuntimeException e) {
+            // Checkpoint is optional, so the processor just runs.
+            Loggers.getLogger().debug("Failed to restore checkpoint: {}", processor.getClass().getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void saveCheckpoint(int index, ProcessContext context, Object result) {
+        Processor processor = this.processors.get(index);
+        if (!isCheckpointed(processor, context)) {
+            return;
+        }
+
+        Checkpoint<Object, Object> checkpoint = (Checkpoint<Object, Object>) processor;
+        try {
+            Object snapshot = checkpoint.snapshot(result);
+            if (snapshot == null) {
+                return;
+            }
+
+            this.checkpointStore.save(context.getAuthentication(), context.getLanguage().getValue(),
+                    getCheckpointName(checkpoint, context), snapshot);
+        } catch (RuntimeException e) {
+            Loggers.getLogger().debug("Failed to save checkpoint: {}", processor.getClass().getName(), e);
+        }
+    }
+
+    private static boolean isMutable(Processor processor) {
+        return processor instanceof Checkpoint && ((Checkpoint<?, ?>) processor).isMutable();
+    }
+
+    private boolean isCheckpointed(Processor processor, ProcessContext context) {
+        // Checkpoint belongs to an account and a locale.
+        return this.checkpointStore != null && processor instanceof Checkpoint
+                && context.getAuthentication() != null && context.getLanguage() != null;
+    }
+
+    private static String getCheckpointName(Checkpoint<?, ?> checkpoint, ProcessContext context) {
+        return checkpoint.getClass().getName() + ':' + checkpoint.getCheckpointKey(context);
+    }
+
+    private static ProcessContext merge(ProcessContext context, Object[] results) {
+        ProcessContext merged = context;
+        for (Object result : results) {
+            merged = ProcessContext.of(merged, result);
+        }
+
+        return merged;
+    }
+
+}
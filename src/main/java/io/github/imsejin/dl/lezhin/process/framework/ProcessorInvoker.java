@@ -0,0 +1,184 @@
+package io.github.imsejin.dl.lezhin.process.framework;
+
+import io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.exception.InvalidProcessSpecificationException;
+import io.github.imsejin.dl.lezhin.exception.ProcessorTimeoutException;
+import io.github.imsejin.dl.lezhin.http.scope.CallScope;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoker of processor which enforces its {@link ExecutionPolicy}
+ *
+ * <p> Timeouts of all the processors are scheduled on a timer shared by them, which interrupts
+ * the thread running an attempt that takes too long. Waits of browser stop on interruption, but reading
+ * socket doesn't; so the timer also cancels HTTP calls created in the attempt by {@link CallScope}.
+ */
+final class ProcessorInvoker {
+
+    /**
+     * Timer which interrupts attempts that take too long.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER;
+
+    static {
+        TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "processor-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Processor processor;
+
+    /**
+     * Policy of the processor, {@code null} if it runs once without timeout.
+     */
+    private final ExecutionPolicy policy;
+
+    /**
+     * Creates new instance.
+     *
+     * @param processor processor
+     * @throws InvalidProcessSpecificationException if {@link ExecutionPolicy} of the processor is invalid
+     */
+    ProcessorInvoker(Processor processor) {
+        this.processor = processor;
+        this.policy = processor.getClass().getAnnotation(ExecutionPolicy.class);
+
+        if (this.policy != null && (this.policy.timeoutMillis() < 0 || this.policy.maxRetries() < 0
+                || this.policy.backoffMillis() < 0 || this.policy.backoffMultiplier() < 1)) {
+            throw new InvalidProcessSpecificationException("@ExecutionPolicy must have non-negative timeout, retries " +
+                    "and backoff, and multiplier not less than 1: %s", processor.getClass().getName());
+        }
+    }
+
+    /**
+     * Invokes the processor, retrying it by its policy.
+     *
+     * @param context process context
+     * @return result of processor
+     * @throws ProcessorTimeoutException if the last attempt timed out
+     * @throws InterruptedException      if interrupted while waiting for backoff
+     */
+    Object invoke(ProcessContext context) throws InterruptedException {
+        if (this.policy == null) {
+            return this.processor.process(context);
+        }
+
+        long backoff = this.policy.backoffMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(context);
+            } catch (RuntimeException e) {
+                if (attempt > this.policy.maxRetries() || !isRetryable(e)) {
+                    throw e;
+                }
+
+                Loggers.getLogger().warn("Retry {} in {} ms ({}/{}): {}", this.processor.getClass().getSimpleName(),
+                        backoff, attempt, this.policy.maxRetries(), e.getMessage());
+                Loggers.getLogger().debug("Cause of retry", e);
+
+                Thread.sleep(backoff);
+                backoff = (long) (backoff * this.policy.backoffMultiplier());
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private Object attempt(ProcessContext context) {
+        long timeout = this.policy.timeoutMillis();
+        if (timeout == 0) {
+            return this.processor.process(context);
+        }
+
+        Deadline deadline = new Deadline(Thread.currentThread());
+        CallScope scope = CallScope.open();
+        ScheduledFuture<?> timer = TIMER.schedule(() -> {
+            if (deadline.expire()) scope.cancel();
+        }, timeout, TimeUnit.MILLISECONDS);
+
+        try {
+            return this.processor.process(context);
+        } catch (RuntimeException e) {
+            if (deadline.isExpired()) {
+                throw new ProcessorTimeoutException(e, "Processor timed out after %d ms: %s",
+                        timeout, this.processor.getClass().getName());
+            }
+
+            throw e;
+        } finally {
+            timer.cancel(false);
+            scope.close();
+            deadline.finish();
+        }
+    }
+
+    private boolean isRetryable(RuntimeException e) {
+        if (e instanceof ProcessorTimeoutException) {
+            return this.policy.retryOnTimeout();
+        }
+
+        for (Class<? extends Exception> type : this.policy.retryOn()) {
+            if (type.isInstance(e)) return true;
+        }
+
+        return false;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Deadline of an attempt, which is met by either the worker or the timer
+     *
+     * <p> Interrupting the worker and clearing it are mutually exclusive, so that interruption
+     * by the timer never leaks into the next attempt or backoff when the worker is done at the same time.
+     */
+    private static final class Deadline {
+        private final Thread worker;
+
+        @GuardedBy("this")
+        private boolean done;
+
+        @GuardedBy("this")
+        private boolean expired;
+
+        private Deadline(Thread worker) {
+            this.worker = worker;
+        }
+
+        /**
+         * Interrupts the worker unless it is done.
+         *
+         * @return whether the deadline is expired by this
+         */
+        private synchronized boolean expire() {
+            if (this.done) return false;
+
+            this.expired = true;
+            this.worker.interrupt();
+            return true;
+        }
+
+        private synchronized boolean isExpired() {
+            return this.expired;
+        }
+
+        /**
+         * Marks the worker as done, clearing interruption by the timer.
+         */
+        private synchronized void finish() {
+            this.done = true;
+            if (this.expired) Thread.interrupted();
+        }
+    }
+
+}
@@ -1,108 +1,136 @@
 package io.github.imsejin.dl.lezhin.process.framework;
 
-import io.github.imsejin.common.model.graph.DirectedGraph;
-import io.github.imsejin.common.model.graph.Graph;
-import io.github.imsejin.common.model.graph.traverse.DepthFirstIterator;
 import io.github.imsejin.common.util.ClassUtils;
 import io.github.imsejin.common.util.CollectionUtils;
-import io.github.imsejin.common.util.StreamUtils;
 import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
 import io.github.imsejin.dl.lezhin.exception.InvalidProcessSpecificationException;
 import io.github.imsejin.dl.lezhin.exception.ProcessorNotSpecifyException;
 import io.github.imsejin.dl.lezhin.process.Processor;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 
-import static java.util.stream.Collectors.toUnmodifiableList;
+import static java.util.Comparator.comparing;
 
 public final class ProcessorOrderResolver {
 
+    /**
+     * Returns types of the processors in order of execution.
+     *
+     * @param processorTypes types of processor
+     * @return types of processor in topological order
+     * @see #resolveDependencies(Set)
+     */
     public static List<Class<? extends Processor>> resolve(Set<Class<? extends Processor>> processorTypes) {
-        if (CollectionUtils.isNullOrEmpty(processorTypes)) {
-            return Collections.emptyList();
-        }
-
-        validate(processorTypes);
-
-        Graph<Class<? extends Processor>> graph = createDependencyGraph(processorTypes);
+        return List.copyOf(resolveDependencies(processorTypes).keySet());
+    }
 
-        // Validates a dependency graph.
-        if (graph.getVertexSize() != graph.getPathLength() + 1
-                || graph.getAllVertices().stream().anyMatch(vertex -> graph.getAdjacentVertices(vertex).size() > 1)) {
-            throw new InvalidProcessSpecificationException("Not linear dependency graph of process specification: " + graph);
+    /**
+     * Returns dependencies of the processors.
+     *
+     * <p> Keys are in topological order; every processor comes after the processors it depends on.
+     * Processors which are ready at the same time are sorted by name, so the order is always the same.
+     *
+     * @param processorTypes types of processor
+     * @return types of processor and the types each of them depends on
+     * @throws ProcessorNotSpecifyException        if processor has no {@link ProcessSpecification}
+     * @throws InvalidProcessSpecificationException if dependency graph is not acyclic
+     */
+    public static Map<Class<? extends Processor>, List<Class<? extends Processor>>> resolveDependencies(
+            Set<Class<? extends Processor>> processorTypes) {
+        if (CollectionUtils.isNullOrEmpty(processorTypes)) {
+            return Collections.emptyMap();
         }
 
-        Class<? extends Processor> startingProcessorType = processorTypes.stream()
-                .filter(it -> it.getAnnotation(ProcessSpecification.class).dependsOn() == ProcessSpecification.INDEPENDENT)
-                .findFirst().orElseThrow();
-        Iterator<Class<? extends Processor>> iterator = new DepthFirstIterator<>(graph, startingProcessorType);
-
-        return StreamUtils.toStream(iterator).collect(toUnmodifiableList());
-    }
-
-    // -------------------------------------------------------------------------------------------------
+        Map<Class<? extends Processor>, List<Class<? extends Processor>>> dependencyMap = createDependencyMap(processorTypes);
 
-    private static void validate(Set<Class<? extends Processor>> processorTypes) {
-        Collection<Class<? extends Processor>> rootSet = new ArrayList<>();
+        // Counts dependencies which are not resolved yet.
+        Map<Class<? extends Processor>, Integer> inDegrees = new HashMap<>();
+        Map<Class<? extends Processor>, List<Class<? extends Processor>>> dependentMap = new HashMap<>();
+        dependencyMap.forEach((processorType, dependencies) -> {
+            inDegrees.put(processorType, dependencies.size());
+            dependencies.forEach(it -> dependentMap.computeIfAbsent(it, k -> new ArrayList<>()).add(processorType));
+        });
 
-        for (Class<? extends Processor> processorType : processorTypes) {
-            ProcessSpecification spec = processorType.getAnnotation(ProcessSpecification.class);
-            if (spec == null) {
-                throw new ProcessorNotSpecifyException("There is a processor that doesn't specify its specification; " +
-                        "Annotate @ProcessSpecification on %s", processorType);
-            }
+        Queue<Class<? extends Processor>> readyQueue = new PriorityQueue<>(comparing(Class::getName));
+        inDegrees.forEach((processorType, inDegree) -> {
+            if (inDegree == 0) readyQueue.add(processorType);
+        });
 
-            Class<?> dependentType = spec.dependsOn();
-            if (dependentType == ProcessSpecification.INDEPENDENT) {
-                rootSet.add(processorType);
-                continue;
-            }
+        if (readyQueue.isEmpty()) {
+            throw new InvalidProcessSpecificationException("There is no @ProcessSpecification as a starting process; " +
+                    "Must be at least one @ProcessSpecification whose dependsOn is empty");
+        }
 
-            if (dependentType == Processor.class
-                    || ClassUtils.isAbstractClass(dependentType)
-                    || !Processor.class.isAssignableFrom(dependentType)) {
-                throw new InvalidProcessSpecificationException("@ProcessSpecification.dependsOn must be a implementation of Processor: " +
-                        "@ProcessSpecification(dependsOn = %s.class) %s", dependentType.getName(), processorType.getName());
-            }
+        Map<Class<? extends Processor>, List<Class<? extends Processor>>> ordered = new LinkedHashMap<>();
+        while (!readyQueue.isEmpty()) {
+            Class<? extends Processor> processorType = readyQueue.poll();
+            ordered.put(processorType, dependencyMap.get(processorType));
 
-            if (dependentType == processorType) {
-                throw new InvalidProcessSpecificationException("There is a self-referential @ProcessSpecification.dependsOn: %s", processorType);
+            for (Class<? extends Processor> dependent : dependentMap.getOrDefault(processorType, Collections.emptyList())) {
+                if (inDegrees.merge(dependent, -1, Integer::sum) == 0) {
+                    readyQueue.add(dependent);
+                }
             }
         }
 
-        if (rootSet.isEmpty()) {
-            throw new InvalidProcessSpecificationException("There is no @ProcessSpecification as a starting process; " +
-                    "Must be only one @ProcessSpecification whose dependsOn is %s", ProcessSpecification.INDEPENDENT);
+        // Processors in a cycle are never ready.
+        if (ordered.size() != dependencyMap.size()) {
+            Set<Class<? extends Processor>> cycle = new LinkedHashSet<>(dependencyMap.keySet());
+            cycle.removeAll(ordered.keySet());
+            throw new InvalidProcessSpecificationException("There is a cycle in dependency graph of process specification: %s", cycle);
         }
 
-        if (rootSet.size() > 1) {
-            throw new InvalidProcessSpecificationException("There are two or more @ProcessSpecification as a starting process; " +
-                    "Must be only one @ProcessSpecification whose dependsOn is %s: %s", ProcessSpecification.INDEPENDENT, rootSet);
-        }
+        return Collections.unmodifiableMap(ordered);
     }
 
+    // -------------------------------------------------------------------------------------------------
+
     @SuppressWarnings("unchecked")
-    private static Graph<Class<? extends Processor>> createDependencyGraph(Set<Class<? extends Processor>> processorTypes) {
-        Graph<Class<? extends Processor>> graph = new DirectedGraph<>();
-        processorTypes.forEach(graph::addVertex);
+    private static Map<Class<? extends Processor>, List<Class<? extends Processor>>> createDependencyMap(
+            Set<Class<? extends Processor>> processorTypes) {
+        Map<Class<? extends Processor>, List<Class<? extends Processor>>> dependencyMap = new HashMap<>();
 
         for (Class<? extends Processor> processorType : processorTypes) {
             ProcessSpecification spec = processorType.getAnnotation(ProcessSpecification.class);
+            if (spec == null) {
+                throw new ProcessorNotSpecifyException("There is a processor that doesn't specify its specification; " +
+                        "Annotate @ProcessSpecification on %s", processorType);
+            }
 
-            Class<?> dependentType = spec.dependsOn();
-            if (dependentType == ProcessSpecification.INDEPENDENT) {
-                continue;
+            Set<Class<? extends Processor>> dependencies = new LinkedHashSet<>();
+            for (Class<?> dependentType : spec.dependsOn()) {
+                if (dependentType == Processor.class
+                        || ClassUtils.isAbstractClass(dependentType)
+                        || !Processor.class.isAssignableFrom(dependentType)) {
+                    throw new InvalidProcessSpecificationException("@ProcessSpecification.dependsOn must be a implementation of Processor: " +
+                            "@ProcessSpecification(dependsOn = %s.class) %s", dependentType.getName(), processorType.getName());
+                }
+
+                if (dependentType == processorType) {
+                    throw new InvalidProcessSpecificationException("There is a self-referential @ProcessSpecification.dependsOn: %s", processorType);
+                }
+
+                if (!processorTypes.contains(dependentType)) {
+                    throw new InvalidProcessSpecificationException("@ProcessSpecification.dependsOn must be one of the processors: " +
+                            "@ProcessSpecification(dependsOn = %s.class) %s", dependentType.getName(), processorType.getName());
+                }
+
+                dependencies.add((Class<? extends Processor>) dependentType);
             }
 
-            graph.addEdge((Class<? extends Processor>) dependentType, processorType);
+            dependencyMap.put(processorType, List.copyOf(dependencies));
         }
 
-        return graph;
+        return dependencyMap;
     }
 
 }
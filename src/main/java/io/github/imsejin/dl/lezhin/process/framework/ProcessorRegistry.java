@@ -0,0 +1,69 @@
+package io.github.imsejin.dl.lezhin.process.framework;
+
+import io.github.imsejin.dl.lezhin.process.Processor;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registry of processors resolved at build time
+ *
+ * <p> {@link io.github.imsejin.dl.lezhin.annotation.processing.ProcessorRegistryGenerator} reads
+ * {@link io.github.imsejin.dl.lezhin.annotation.ProcessSpecification} on compilation, validates the
+ * dependency graph as {@link ProcessorOrderResolver} does and generates the implementation, which lists
+ * the processors in topological order and creates them with direct constructor calls. So the application
+ * doesn't need to scan classpath or resolve constructors by reflection on start-up.
+ *
+ * <p> If there is no generated registry (e.g. compiled without annotation processing),
+ * use {@link ProcessorOrderResolver} and {@link ProcessorCreator} instead.
+ */
+public interface ProcessorRegistry {
+
+    /**
+     * Qualified name of the generated implementation.
+     */
+    String GENERATED_CLASS_NAME = "io.github.imsejin.dl.lezhin.process.framework.GeneratedProcessorRegistry";
+
+    /**
+     * Returns types of the processors in topological order.
+     *
+     * @return types of processor
+     */
+    List<Class<? extends Processor>> getProcessorTypes();
+
+    /**
+     * Returns dependencies of the processors.
+     *
+     * @return types of processor and the types each of them depends on
+     */
+    Map<Class<? extends Processor>, List<Class<? extends Processor>>> getDependencies();
+
+    /**
+     * Creates the processors in topological order.
+     *
+     * @param basePath path of the application
+     * @param locale   locale of lezhin platform
+     * @return processors
+     */
+    List<Processor> createProcessors(Path basePath, Locale locale);
+
+    /**
+     * Returns the generated registry.
+     *
+     * @return registry or empty if it is not generated
+     */
+    static Optional<ProcessorRegistry> find() {
+        try {
+            Class<?> type = Class.forName(GENERATED_CLASS_NAME);
+            return Optional.of((ProcessorRegistry) type.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate the generated registry: " + GENERATED_CLASS_NAME, e);
+        }
+    }
+
+}
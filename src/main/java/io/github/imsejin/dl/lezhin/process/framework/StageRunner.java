@@ -0,0 +1,260 @@
+package io.github.imsejin.dl.lezhin.process.framework;
+
+import io.github.imsejin.dl.lezhin.exception.ProcessorExecutionFailureException;
+import io.github.imsejin.dl.lezhin.process.Stage;
+import io.github.imsejin.dl.lezhin.process.Stage.Emitter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runner of streaming stages
+ *
+ * <p> Stages are connected by bounded buffers and each stage has its own workers, so an item goes to
+ * the next stage as soon as it is processed, without waiting for the other items. When a buffer is full,
+ * the stage in front of it waits, and so does the source at last; items in flight never exceed
+ * the sum of buffers and workers.
+ *
+ * <pre>{@code
+ *     StageRunner<Integer, String> runner = StageRunner.<Integer>builder()
+ *             .stage("square", 2, (Integer item, Emitter<Integer> emitter) -> emitter.emit(item * item))
+ *             .stage("format", 4, 16, (Integer item, Emitter<String> emitter) -> emitter.emit("#" + item))
+ *             .build();
+ *     runner.run(List.of(1, 2, 3), System.out::println);
+ * }</pre>
+ *
+ * <p> If a stage fails, all the workers are interrupted and the failure is thrown as it is.
+ *
+ * @param <I> type of item in
+ * @param <O> type of item out
+ */
+public final class StageRunner<I, O> {
+
+    /**
+     * Marker of the end of items in buffer.
+     */
+    private static final Object END = new Object();
+
+    private final List<StageSpec> specs;
+
+    private StageRunner(List<StageSpec> specs) {
+        this.specs = specs;
+    }
+
+    /**
+     * Returns builder of runner.
+     *
+     * @param <I> type of item in
+     * @return builder
+     */
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>(new ArrayList<>());
+    }
+
+    /**
+     * Runs the items through the stages.
+     *
+     * <p> The sink is called by the workers of the last stage concurrently,
+     * so it must be thread-safe.
+     *
+     * @param items items
+     * @param sink  emitter of items out of the last stage
+     * @throws ProcessorExecutionFailureException if a stage throws checked exception or interrupted
+     */
+    public void run(Iterable<? extends I> items, Emitter<? super O> sink) {
+        Execution execution = new Execution(sink);
+        execution.start(items);
+        execution.await();
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private final class Execution {
+        private final List<BlockingQueue<Object>> buffers = new ArrayList<>();
+
+        private final List<AtomicInteger> remainingWorkers = new ArrayList<>();
+
+        private final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private final Emitter<? super O> sink;
+
+        private Execution(Emitter<? super O> sink) {
+            this.sink = sink;
+
+            for (StageSpec spec : specs) {
+                this.buffers.add(new ArrayBlockingQueue<>(spec.bufferSize));
+                this.remainingWorkers.add(new AtomicInteger(spec.workers));
+            }
+        }
+
+        private void start(Iterable<? extends I> items) {
+            newThread("stage-source", () -> {
+                BlockingQueue<Object> buffer = this.buffers.get(0);
+                for (I item : items) {
+                    buffer.put(item);
+                }
+
+                sendEnd(0);
+            });
+
+            for (int i = 0; i < specs.size(); i++) {
+                StageSpec spec = specs.get(i);
+                int index = i;
+
+                for (int j = 1; j <= spec.workers; j++) {
+                    newThread("stage-" + spec.name + '-' + j, () -> work(index));
+                }
+            }
+
+            this.threads.forEach(Thread::start);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void work(int index) throws Exception {
+            BlockingQueue<Object> buffer = this.buffers.get(index);
+            Stage<Object, Object> stage = specs.get(index).stage;
+            Emitter<Object> emitter = index + 1 < specs.size()
+                    ? this.buffers.get(index + 1)::put
+                    : (Emitter<Object>) this.sink;
+
+            for (Object item = buffer.take(); item != END; item = buffer.take()) {
+                stage.process(item, emitter);
+            }
+
+            // The last worker of this stage lets the next stage know the end.
+            if (this.remainingWorkers.get(index).decrementAndGet() == 0 && index + 1 < specs.size()) {
+                sendEnd(index + 1);
+            }
+        }
+
+        private void sendEnd(int index) throws InterruptedException {
+            BlockingQueue<Object> buffer = this.buffers.get(index);
+            for (int i = 0; i < specs.get(index).workers; i++) {
+                buffer.put(END);
+            }
+        }
+
+        private void newThread(String name, Task task) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // Only the first failure is thrown; the others are caused by interruption.
+                    if (this.failure.compareAndSet(null, t)) {
+                        this.threads.forEach(Thread::interrupt);
+                    }
+                }
+            }, name);
+
+            thread.setDaemon(true);
+            this.threads.add(thread);
+        }
+
+        private void await() {
+            try {
+                for (Thread thread : this.threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                this.threads.forEach(Thread::interrupt);
+                Thread.currentThread().interrupt();
+                throw new ProcessorExecutionFailureException(e, "Interrupted while running stages");
+            }
+
+            Throwable cause = this.failure.get();
+            if (cause == null) return;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ProcessorExecutionFailureException(cause, "Failed to run stages");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    private static final class StageSpec {
+        private final String name;
+
+        private final int workers;
+
+        private final int bufferSize;
+
+        private final Stage<Object, Object> stage;
+
+        @SuppressWarnings("unchecked")
+        private StageSpec(String name, int workers, int bufferSize, Stage<?, ?> stage) {
+            this.name = name;
+            this.workers = workers;
+            this.bufferSize = bufferSize;
+            this.stage = (Stage<Object, Object>) stage;
+        }
+    }
+
+    /**
+     * Builder of {@link StageRunner}
+     *
+     * @param <I> type of item in
+     * @param <O> type of item out of the last stage
+     */
+    public static final class Builder<I, O> {
+        private final List<StageSpec> specs;
+
+        private Builder(List<StageSpec> specs) {
+            this.specs = specs;
+        }
+
+        /**
+         * Adds stage whose buffer is as large as its workers.
+         *
+         * @param name    name of stage
+         * @param workers number of workers
+         * @param stage   stage
+         * @param <R>     type of item out of the stage
+         * @return this builder
+         */
+        public <R> Builder<I, R> stage(String name, int workers, Stage<? super O, R> stage) {
+            return stage(name, workers, workers, stage);
+        }
+
+        /**
+         * Adds stage.
+         *
+         * @param name       name of stage
+         * @param workers    number of workers
+         * @param bufferSize max number of items waiting for the workers
+         * @param stage      stage
+         * @param <R>        type of item out of the stage
+         * @return this builder
+         */
+        public <R> Builder<I, R> stage(String name, int workers, int bufferSize, Stage<? super O, R> stage) {
+            if (workers < 1) {
+                throw new IllegalArgumentException("StageRunner.Builder.workers must be positive: " + workers);
+            }
+
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("StageRunner.Builder.bufferSize must be positive: " + bufferSize);
+            }
+
+            this.specs.add(new StageSpec(name, workers, bufferSize, stage));
+            return new Builder<>(this.specs);
+        }
+
+        public StageRunner<I, O> build() {
+            if (this.specs.isEmpty()) {
+                throw new IllegalStateException("StageRunner must have at least one stage");
+            }
+
+            return new StageRunner<>(List.copyOf(this.specs));
+        }
+    }
+
+}
@@ -16,22 +16,29 @@
 
 package io.github.imsejin.dl.lezhin.process.impl;
 
-import io.github.imsejin.common.util.StringUtils;
+import io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy;
 import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+import io.github.imsejin.dl.lezhin.browser.BrowserWaits;
 import io.github.imsejin.dl.lezhin.browser.ChromeBrowser;
 import io.github.imsejin.dl.lezhin.common.Loggers;
 import io.github.imsejin.dl.lezhin.exception.AccessTokenNotFoundException;
 import io.github.imsejin.dl.lezhin.process.ProcessContext;
 import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.session.Session;
+import io.github.imsejin.dl.lezhin.session.SessionStore;
+import io.github.imsejin.dl.lezhin.util.ScriptUtils;
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -75,35 +82,90 @@ import java.util.UUID;
  *     ...
  *     </script>
  * }</pre>
+ *
+ * <p> When the token is extracted, the session that has the token and cookies of browser is stored
+ * so that the next run doesn't need to login. The session is the result of this processor, which has the token. If there is a session restored by {@link SessionProcessor}
+ * or established by {@link HttpLoginProcessor}, returns its token without browser.
+ * Browser is quit once the token is extracted, since the other processors don't need it.
+ *
+ * <p> When the script tag is not rendered in time, this waits for it again.
  */
 @ProcessSpecification(dependsOn = LoginProcessor.class)
+@ExecutionPolicy(timeoutMillis = 30_000, maxRetries = 2, retryOn = AccessTokenNotFoundException.class,
+        retryOnTimeout = true)
 public class AccessTokenProcessor implements Processor {
 
+    private final SessionStore sessionStore;
+
+    public AccessTokenProcessor(Path basePath) {
+        this.sessionStore = new SessionStore(basePath);
+    }
+
     @Override
-    public UUID process(ProcessContext context) throws AccessTokenNotFoundException {
+    public Session process(ProcessContext context) throws AccessTokenNotFoundException {
+        Session session = context.getSession();
+        if (session != null) {
+            return session;
+        }
+
         ChromeDriver driver = ChromeBrowser.getDriver();
 
         // Finds the script tag that has access token.
         WebElement script;
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(5));
-            script = wait.until(ExpectedConditions.presenceOfElementLocated(
+            script = BrowserWaits.until(driver, Duration.ofSeconds(5), "access token", ExpectedConditions.presenceOfElementLocated(
                     By.xpath("//script[not(@src) and contains(text(), '__LZ_ME__')]")));
         } catch (NoSuchElementException | TimeoutException e) {
             throw new AccessTokenNotFoundException(e, "There is no access token");
         }
 
         String innerText = script.getAttribute("innerText");
-        String token = StringUtils.find(innerText, "token: '([a-z0-9]{8}-(?:[a-z0-9]{4}-){3}[a-z0-9]{12})'", 1);
+        String token = ScriptUtils.findAccessToken(innerText);
 
-        if (StringUtils.isNullOrBlank(token)) {
+        if (token == null || token.isBlank()) {
             throw new AccessTokenNotFoundException("Invalid access token: %s", token);
         }
 
         UUID accessToken = UUID.fromString(token);
         Loggers.getLogger().info("Successfully logged in: access token({})", accessToken);
 
-        return accessToken;
+        session = establishSession(context, accessToken, driver.manage().getCookies());
+
+        // The other processors don't need browser.
+        ChromeBrowser.quitInBackground();
+
+        return session;
+    }
+
+    /**
+     * Creates and stores the session of browser.
+     *
+     * <p> The session is returned instead of the token, so that the next processors
+     * request with the cookies of the account.
+     *
+     * @param context       process context
+     * @param accessToken   access token extracted from the page
+     * @param driverCookies cookies of browser
+     * @return session
+     */
+    Session establishSession(ProcessContext context, UUID accessToken, Iterable<Cookie> driverCookies) {
+        Session session = createSession(context, accessToken, driverCookies);
+        this.sessionStore.save(context.getAuthentication(), session);
+
+        return session;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static Session createSession(ProcessContext context, UUID accessToken, Iterable<Cookie> driverCookies) {
+        List<Session.Cookie> cookies = new ArrayList<>();
+
+        for (Cookie cookie : driverCookies) {
+            Long expiry = cookie.getExpiry() == null ? null : cookie.getExpiry().getTime();
+            cookies.add(new Session.Cookie(cookie.getName(), cookie.getValue(), cookie.getDomain(), cookie.getPath(), expiry));
+        }
+
+        return Session.of(context.getAuthentication().getUsername(), context.getLanguage().getValue(), accessToken, cookies);
     }
 
 }
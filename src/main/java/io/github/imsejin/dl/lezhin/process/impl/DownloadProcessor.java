@@ -0,0 +1,315 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.process.impl;
+
+import io.github.imsejin.common.util.FilenameUtils;
+import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.api.auth.model.ServiceRequest;
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache;
+import io.github.imsejin.dl.lezhin.api.episode.model.EpisodeMetadata;
+import io.github.imsejin.dl.lezhin.api.episode.service.EpisodeService;
+import io.github.imsejin.dl.lezhin.api.image.service.ImageService;
+import io.github.imsejin.dl.lezhin.api.product.model.Artist;
+import io.github.imsejin.dl.lezhin.api.product.model.Episode;
+import io.github.imsejin.dl.lezhin.api.product.model.Product;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.exception.DownloadFailureException;
+import io.github.imsejin.dl.lezhin.exception.LezhinComicsDownloaderException;
+import io.github.imsejin.dl.lezhin.http.circuit.CallNotPermittedException;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.process.Stage.Emitter;
+import io.github.imsejin.dl.lezhin.process.framework.StageRunner;
+import io.github.imsejin.dl.lezhin.util.FutureUtils;
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Processor which downloads images of episodes
+ *
+ * <p> Each episode in {@link io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange} flows through
+ * the stages on its own: metadata of the episode, authority for it and images of it. So images of
+ * the first episode are downloaded while metadata of the others is still being resolved, and there is
+ * no idle time between two episodes. The stages are connected by bounded buffers, so an episode with
+ * many images holds back the stages in front of it instead of piling up in memory.
+ *
+ * <p> Images are signed by authority in {@link AuthorityCache}, which is kept valid while downloading.
+ * An image that fails is skipped as the legacy downloader does, but all failures are logged.
+ *
+ * <p> When a request is rejected by open circuit breaker, it is requested again after the breaker
+ * lets requests through, so that a short outage of lezhin doesn't skip images or stop the download.
+ */
+@ProcessSpecification(dependsOn = EpisodeAuthorityProcessor.class)
+public class DownloadProcessor implements Processor {
+
+    /**
+     * Default max number of images being downloaded.
+     */
+    private static final int DEFAULT_PARALLELISM = BaseService.MAX_REQUESTS_PER_HOST;
+
+    /**
+     * Max number of requests for metadata of episode in flight.
+     */
+    private static final int METADATA_PARALLELISM = 4;
+
+    /**
+     * Max number of episodes waiting for authority.
+     */
+    private static final int AUTHORITY_PARALLELISM = 2;
+
+    /**
+     * Max number of waits for open circuit breaker per request.
+     */
+    private static final int MAX_CIRCUIT_WAITS = 3;
+
+    /**
+     * Min duration to wait for open circuit breaker, as half-open breaker has no exact time to wait.
+     */
+    private static final Duration MIN_CIRCUIT_WAIT = Duration.ofMillis(100);
+
+    private final Path basePath;
+
+    private final int parallelism;
+
+    public DownloadProcessor(Path basePath) {
+        this(basePath, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Creates processor with max number of images being downloaded.
+     *
+     * <p> Requests to the same host are still limited by {@link BaseService#MAX_REQUESTS_PER_HOST},
+     * so more parallelism than that only queues the requests.
+     *
+     * @param basePath    path which the comic directory is created in
+     * @param parallelism max number of images being downloaded
+     */
+    public DownloadProcessor(Path basePath, int parallelism) {
+        this.basePath = basePath;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public Void process(ProcessContext context) throws LezhinComicsDownloaderException {
+        EpisodeService episodeService = new EpisodeService(context.getLanguage().getValue(), context.getAccessToken());
+        ImageService imageService = new ImageService(context.getLanguage().getValue(), context.getAccessToken());
+
+        Product product = context.getProduct();
+        String alias = context.getContentName().getValue();
+        String imageFormat = context.getSaveAsJpeg().getValue() ? "jpg" : "webp";
+
+        List<Episode> episodes = product.getEpisodes();
+        List<Integer> indexes = IntStream.of(context.getEpisodeRange().getArray(episodes.size()))
+                .filter(i -> episodes.get(i).isFree()).boxed().collect(toList());
+
+        Path comicDir = this.basePath.resolve(getDirectoryName(product));
+        Loggers.getLogger().info("Download {} episode(s) to {}", indexes.size(), comicDir);
+
+        AuthorityCache authorityCache = context.getAuthorityCache();
+        AtomicInteger total = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        StageRunner<Integer, Void> runner = StageRunner.<Integer>builder()
+                .stage("metadata", METADATA_PARALLELISM, (Integer index, Emitter<EpisodeJob> emitter) -> {
+                    Episode episode = episodes.get(index);
+
+                    EpisodeMetadata metadata;
+                    try {
+                        metadata = joinPermitted(() -> episodeService.getMetadataAsync(alias, episode.getName()));
+                    } catch (RuntimeException e) {
+                        throw new DownloadFailureException(e, "Failed to get metadata of episode: %s", episode.getName());
+                    }
+
+                    int cutCount = metadata.getCutCount();
+                    if (cutCount < 1) return;
+
+                    String episodeTitle = FilenameUtils.replaceUnallowables(episode.getDisplay().getTitle());
+                    Path episodeDir = comicDir.resolve(String.format("%04d - %s", index + 1, episodeTitle));
+                    try {
+                        Files.createDirectories(episodeDir);
+                    } catch (IOException e) {
+                        throw new DownloadFailureException(e, "Failed to create directory: %s", episodeDir);
+                    }
+
+                    emitter.emit(new EpisodeJob(episode, index + 1, cutCount, episodeDir, createRequest(product, episode)));
+                })
+                .stage("authority", AUTHORITY_PARALLELISM, (EpisodeJob job, Emitter<Cut> emitter) -> {
+                    // Makes sure of authority before images of the episode are queued.
+                    authorityCache.get(job.request);
+
+                    for (int cutNo = 1; cutNo <= job.cutCount; cutNo++) {
+                        emitter.emit(new Cut(job, cutNo));
+                    }
+                })
+                .stage("download", this.parallelism, (Cut cut, Emitter<Void> emitter) -> {
+                    EpisodeJob job = cut.job;
+                    Path dest = job.episodeDir.resolve(String.format("%03d.%s", cut.cutNo, imageFormat));
+                    total.incrementAndGet();
+
+                    try {
+                        // Signs at the moment of download, so the signature is never expired in buffer.
+                        joinPermitted(() -> authorityCache.getAsync(job.request).thenCompose(authority -> {
+                            HttpUrl url = ImageService.getImageUrl(product.getId(), job.episode.getId(),
+                                    job.episode.getUpdatedAt(), cut.cutNo, imageFormat, authority);
+                            return imageService.downloadAsync(url, dest);
+                        }));
+                    } catch (RuntimeException e) {
+                        // Failure of an image doesn't stop the others.
+                        failures.incrementAndGet();
+                        Loggers.getLogger().warn("Failed to download image: {}", dest, e);
+                    }
+
+                    if (job.remaining.decrementAndGet() == 0) {
+                        Loggers.getLogger().info("Downloaded episode {}: {}", job.episodeNo, job.episode.getDisplay().getTitle());
+                    }
+                })
+                .build();
+
+        try {
+            runner.run(indexes, it -> {
+            });
+
+            if (total.get() > 0 && failures.get() == total.get()) {
+                throw new DownloadFailureException("Failed to download all images: %s", alias);
+            }
+
+            if (failures.get() > 0) {
+                Loggers.getLogger().warn("Failed to download {} of {} image(s)", failures.get(), total.get());
+            }
+        } finally {
+            // Stops refreshing authorities.
+            authorityCache.close();
+        }
+
+        return null;
+    }
+
+    /**
+     * Waits for the future of call and returns its result.
+     *
+     * <p> If the call is rejected by open circuit breaker, this waits for the breaker
+     * and calls again up to {@link #MAX_CIRCUIT_WAITS} times. The other failures are thrown at once.
+     *
+     * @param call function to start the call
+     * @param <T>  type of result
+     * @return result
+     */
+    static <T> T joinPermitted(Supplier<CompletableFuture<T>> call) {
+        for (int waits = 0; ; waits++) {
+            try {
+                return FutureUtils.join(call.get());
+            } catch (RuntimeException e) {
+                CallNotPermittedException rejection = findRejection(e);
+                if (rejection == null || waits >= MAX_CIRCUIT_WAITS) throw e;
+
+                Duration retryAfter = rejection.getRetryAfter().compareTo(MIN_CIRCUIT_WAIT) < 0
+                        ? MIN_CIRCUIT_WAIT : rejection.getRetryAfter();
+                Loggers.getLogger().debug("Wait {} ms for circuit breaker of {}",
+                        retryAfter.toMillis(), rejection.getEndpoint());
+
+                try {
+                    Thread.sleep(retryAfter.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static CallNotPermittedException findRejection(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException) return (CallNotPermittedException) cause;
+        }
+
+        return null;
+    }
+
+    private static ServiceRequest createRequest(Product product, Episode episode) {
+        ServiceRequest request = new ServiceRequest();
+        request.setContentId(product.getId());
+        request.setEpisodeId(episode.getId());
+        return request;
+    }
+
+    /**
+     * Returns name of the comic directory, replacing characters not allowed in file name.
+     *
+     * <pre>{@code
+     *     L_{title} - {artist1}, {artist2}
+     * }</pre>
+     */
+    private static String getDirectoryName(Product product) {
+        String artists = product.getArtists().stream().map(Artist::getName).collect(joining(", "));
+        String dirName = String.format("L_%s - %s", product.getDisplay().getTitle(), artists);
+
+        return FilenameUtils.replaceUnallowables(dirName);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static final class EpisodeJob {
+        private final Episode episode;
+
+        private final int episodeNo;
+
+        private final int cutCount;
+
+        private final Path episodeDir;
+
+        private final ServiceRequest request;
+
+        /**
+         * Number of images of the episode not completed yet.
+         */
+        private final AtomicInteger remaining;
+
+        private EpisodeJob(Episode episode, int episodeNo, int cutCount, Path episodeDir, ServiceRequest request) {
+            this.episode = episode;
+            this.episodeNo = episodeNo;
+            this.cutCount = cutCount;
+            this.episodeDir = episodeDir;
+            this.request = request;
+            this.remaining = new AtomicInteger(cutCount);
+        }
+    }
+
+    private static final class Cut {
+        private final EpisodeJob job;
+
+        private final int cutNo;
+
+        private Cut(EpisodeJob job, int cutNo) {
+            this.job = job;
+            this.cutNo = cutNo;
+        }
+    }
+
+}
@@ -17,25 +17,123 @@
 package io.github.imsejin.dl.lezhin.process.impl;
 
 import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
-import io.github.imsejin.dl.lezhin.api.auth.model.Authority;
 import io.github.imsejin.dl.lezhin.api.auth.model.ServiceRequest;
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache;
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache.CachedAuthority;
 import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityService;
+import io.github.imsejin.dl.lezhin.api.product.model.Episode;
+import io.github.imsejin.dl.lezhin.api.product.model.Product;
+import io.github.imsejin.dl.lezhin.common.Loggers;
 import io.github.imsejin.dl.lezhin.exception.LezhinComicsDownloaderException;
+import io.github.imsejin.dl.lezhin.process.Checkpoint;
 import io.github.imsejin.dl.lezhin.process.ProcessContext;
 import io.github.imsejin.dl.lezhin.process.Processor;
 
-@ProcessSpecification(dependsOn = AccessTokenProcessor.class)
-public class EpisodeAuthorityProcessor implements Processor {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Processor for authority to view episodes
+ *
+ * <p> This starts resolving authorities of all free episodes in {@link io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange}
+ * in background and returns the cache without waiting for them, so that signing overlaps with metadata and
+ * images of the preceding episodes. An episode whose authority is not resolved yet shares the load in progress,
+ * and one that failed is loaded again on demand. The cache keeps the authorities valid while downloading.
+ *
+ * <p> The authorities are kept as a checkpoint for each content. If all the episodes to download still have
+ * valid authorities in it, e.g. when the previous run failed while downloading, this is skipped.
+ */
+@ProcessSpecification(dependsOn = ProductProcessor.class)
+public class EpisodeAuthorityProcessor implements Processor, Checkpoint<AuthorityCache, CachedAuthority[]> {
+
+    /**
+     * Max number of requests for authority in flight.
+     *
+     * <p> This is less than {@link io.github.imsejin.dl.lezhin.api.BaseService#MAX_REQUESTS_PER_HOST},
+     * so that the other requests to the same host are not starved.
+     */
+    private static final int PARALLELISM = 4;
+
+    @Override
+    public AuthorityCache process(ProcessContext context) throws LezhinComicsDownloaderException {
+        AuthorityCache cache = createCache(context);
+        List<ServiceRequest> requests = createRequests(context);
+
+        Loggers.getLogger().info("Get authority for {} episode(s)", requests.size());
+        cache.getAllAsync(requests, PARALLELISM).whenComplete((authorities, throwable) -> {
+            if (throwable != null) {
+                Loggers.getLogger().debug("Failed to get authority in advance", throwable);
+            }
+        });
+
+        return cache;
+    }
+
+    @Override
+    public String getCheckpointKey(ProcessContext context) {
+        return String.valueOf(context.getProduct().getId());
+    }
+
+    @Override
+    public Class<CachedAuthority[]> getSnapshotType() {
+        return CachedAuthority[].class;
+    }
+
+    @Override
+    public CachedAuthority[] snapshot(AuthorityCache result) {
+        List<CachedAuthority> authorities = result.getAll();
+        return authorities.isEmpty() ? null : authorities.toArray(CachedAuthority[]::new);
+    }
 
     @Override
-    public Authority process(ProcessContext context) throws LezhinComicsDownloaderException {
+    public Optional<AuthorityCache> restore(CachedAuthority[] snapshot, ProcessContext context) {
+        AuthorityCache cache = createCache(context);
+        cache.putAll(List.of(snapshot));
+
+        List<ServiceRequest> requests = createRequests(context);
+        if (!requests.stream().allMatch(cache::contains)) {
+            cache.close();
+            return Optional.empty();
+        }
+
+        Loggers.getLogger().info("Reuse the stored authority for {} episode(s)", requests.size());
+
+        return Optional.of(cache);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p> Authority which expires while downloading is refreshed in the cache.
+     */
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static AuthorityCache createCache(ProcessContext context) {
         AuthorityService service = new AuthorityService(context.getLanguage().getValue(), context.getAccessToken());
+        return new AuthorityCache(service::getAuthForViewEpisodeAsync);
+    }
 
-        ServiceRequest request = new ServiceRequest();
-        request.setContentId(0L);
-        request.setEpisodeId(0L);
+    private static List<ServiceRequest> createRequests(ProcessContext context) {
+        Product product = context.getProduct();
+        List<Episode> episodes = product.getEpisodes();
+        int[] indexes = context.getEpisodeRange().getArray(episodes.size());
 
-        return service.getAuthForViewEpisode(request);
+        return IntStream.of(indexes).mapToObj(episodes::get)
+                .filter(Episode::isFree)
+                .map(it -> {
+                    ServiceRequest request = new ServiceRequest();
+                    request.setContentId(product.getId());
+                    request.setEpisodeId(it.getId());
+                    return request;
+                }).collect(toList());
     }
 
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.process.impl;
+
+import io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy;
+import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+import io.github.imsejin.dl.lezhin.api.login.service.LoginService;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.exception.LezhinComicsDownloaderException;
+import io.github.imsejin.dl.lezhin.exception.LoginFailureException;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.session.Session;
+import io.github.imsejin.dl.lezhin.session.SessionStore;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Processor for login without browser
+ *
+ * <p> This submits login form through HTTP client instead of browser. If it fails for any reason
+ * except invalid account, {@link LoginProcessor} tries to login on browser as a fallback.
+ * If {@link SessionProcessor} restored a valid session, this processor is skipped.
+ * Login that takes too long is interrupted and falls back to browser as well.
+ *
+ * @see LoginService
+ */
+@ProcessSpecification(dependsOn = SessionProcessor.class)
+@ExecutionPolicy(timeoutMillis = 30_000)
+public class HttpLoginProcessor implements Processor {
+
+    private final SessionStore sessionStore;
+
+    public HttpLoginProcessor(Path basePath) {
+        this.sessionStore = new SessionStore(basePath);
+    }
+
+    @Override
+    public Session process(ProcessContext context) throws LezhinComicsDownloaderException {
+        // Doesn't need to login with the restored session.
+        if (context.getSession() != null) {
+            return null;
+        }
+
+        Locale locale = context.getLanguage().getValue();
+        LoginService service = new LoginService(locale);
+
+        Session session;
+        try {
+            Loggers.getLogger().info("Try to login without browser");
+            session = service.login(context.getAuthentication());
+        } catch (LoginFailureException e) {
+            // Browser can't login with invalid account either.
+            throw e;
+        } catch (RuntimeException e) {
+            Loggers.getLogger().info("Failed to login without browser; falls back to browser");
+            Loggers.getLogger().debug("Cause of failure to login without browser", e);
+            return null;
+        }
+
+        Loggers.getLogger().info("Successfully logged in: access token({})", session.getAccessToken());
+        this.sessionStore.save(context.getAuthentication(), session);
+
+        return session;
+    }
+
+}
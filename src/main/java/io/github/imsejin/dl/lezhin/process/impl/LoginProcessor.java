@@ -1,19 +1,22 @@
 package io.github.imsejin.dl.lezhin.process.impl;
 
 import io.github.imsejin.common.util.StringUtils;
+import io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy;
 import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+import io.github.imsejin.dl.lezhin.browser.BrowserWaits;
 import io.github.imsejin.dl.lezhin.browser.ChromeBrowser;
 import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.common.Origins;
 import io.github.imsejin.dl.lezhin.exception.LezhinComicsDownloaderException;
 import io.github.imsejin.dl.lezhin.exception.LoginFailureException;
 import io.github.imsejin.dl.lezhin.process.ProcessContext;
 import io.github.imsejin.dl.lezhin.process.Processor;
 import org.openqa.selenium.By;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 import java.util.Locale;
@@ -34,8 +37,15 @@ import java.util.Map;
  *
  * <p> {@link ChromeDriver} inputs username and password to the first and second element.
  * When input tags are filled by username and password, it clicks the third element so that login.
+ *
+ * <p> If {@link SessionProcessor} restored a valid session or {@link HttpLoginProcessor} logged in
+ * without browser, this processor is skipped.
+ *
+ * <p> When the page is too slow or the browser fails, this logs in again from the login page once.
+ * Invalid account is never retried.
  */
-@ProcessSpecification(dependsOn = ConfigurationFileProcessor.class)
+@ProcessSpecification(dependsOn = HttpLoginProcessor.class)
+@ExecutionPolicy(timeoutMillis = 60_000, maxRetries = 1, backoffMillis = 2_000, retryOn = WebDriverException.class)
 public class LoginProcessor implements Processor {
 
     private static final Duration TIMEOUT = Duration.ofSeconds(15);
@@ -48,6 +58,13 @@ public class LoginProcessor implements Processor {
 
     @Override
     public Object process(ProcessContext context) throws LezhinComicsDownloaderException {
+        // Doesn't need to login with the restored or established session.
+        if (context.getSession() != null) {
+            // Browser warmed up in advance is no longer needed.
+            ChromeBrowser.quitInBackground();
+            return null;
+        }
+
         // Resolves an implementation for the locale.
         Locale locale = context.getLanguage().getValue();
         LoginProcessor impl = IMPLEMENTATION_MAP.get(locale);
@@ -88,7 +105,7 @@ public class LoginProcessor implements Processor {
         void gotoLoginPage() {
             ChromeDriver driver = ChromeBrowser.getDriver();
 
-            String loginPageUrl = "https://www.lezhin.com/ko/login";
+            String loginPageUrl = Origins.getOrigin(Locale.KOREA) + "/ko/login";
             Loggers.getLogger().info("Request login page: {}", loginPageUrl);
             driver.get(loginPageUrl);
         }
@@ -101,7 +118,7 @@ public class LoginProcessor implements Processor {
         void gotoLoginPage() {
             ChromeDriver driver = ChromeBrowser.getDriver();
 
-            String loginPageUrl = "https://www.lezhinus.com/en/login";
+            String loginPageUrl = Origins.getOrigin(Locale.US) + "/en/login";
             Loggers.getLogger().info("Request login page: {}", loginPageUrl);
             driver.get(loginPageUrl);
         }
@@ -114,7 +131,7 @@ public class LoginProcessor implements Processor {
         void gotoLoginPage() {
             ChromeDriver driver = ChromeBrowser.getDriver();
 
-            String loginPageUrl = "https://www.lezhin.jp/ja/login";
+            String loginPageUrl = Origins.getOrigin(Locale.JAPAN) + "/ja/login";
             Loggers.getLogger().info("Request login page: {}", loginPageUrl);
             driver.get(loginPageUrl);
         }
@@ -125,12 +142,9 @@ public class LoginProcessor implements Processor {
     private static WebElement waitForRenderingLoginPage() {
         ChromeDriver driver = ChromeBrowser.getDriver();
 
-        Loggers.getLogger().debug("Wait up to {} sec for login element to be rendered", TIMEOUT.getSeconds());
-
-        WebDriverWait waiting = new WebDriverWait(driver, TIMEOUT);
         WebElement loginForm = driver.findElement(By
                 .xpath("//form[@id='email' and contains(@action, '/login') and @method='post']"));
-        waiting.until(ExpectedConditions.visibilityOfAllElements(loginForm));
+        BrowserWaits.until(driver, TIMEOUT, "login element", ExpectedConditions.visibilityOfAllElements(loginForm));
 
         return loginForm;
     }
@@ -163,9 +177,7 @@ public class LoginProcessor implements Processor {
 
         try {
             // Waits for DOM to complete the rendering.
-            Loggers.getLogger().debug("Wait up to {} sec for main page to be rendered", TIMEOUT.getSeconds());
-            WebDriverWait wait = new WebDriverWait(driver, TIMEOUT);
-            wait.until(ExpectedConditions.visibilityOfElementLocated(
+            BrowserWaits.until(driver, TIMEOUT, "main page", ExpectedConditions.visibilityOfElementLocated(
                     By.xpath("//main[@id='main' and @class='lzCntnr lzCntnr--home']")));
         } catch (TimeoutException e) {
             // When failed to login because of other problems.
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.process.impl;
+
+import io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy;
+import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+import io.github.imsejin.dl.lezhin.api.product.model.Product;
+import io.github.imsejin.dl.lezhin.api.product.service.ProductService;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.exception.LezhinComicsDownloaderException;
+import io.github.imsejin.dl.lezhin.exception.UnexpectedPageException;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.session.Session;
+
+/**
+ * Processor for product of comic to download
+ *
+ * <p> When the comic page cannot be read, this requests it again after backoff.
+ *
+ * @see ProductService
+ */
+@ProcessSpecification(dependsOn = AccessTokenProcessor.class)
+@ExecutionPolicy(timeoutMillis = 60_000, maxRetries = 2, retryOn = UnexpectedPageException.class,
+        retryOnTimeout = true)
+public class ProductProcessor implements Processor {
+
+    @Override
+    public Product process(ProcessContext context) throws LezhinComicsDownloaderException {
+        ProductService service = new ProductService(context.getLanguage().getValue(), context.getAccessToken());
+
+        Session session = context.getSession();
+        String cookie = session == null ? null : session.toCookieHeader();
+
+        Product product = service.getProduct(context.getContentName().getValue(), cookie);
+        Loggers.getLogger().info("Found comic '{}' with {} episode(s)",
+                product.getDisplay().getTitle(), product.getEpisodes().size());
+
+        return product;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.process.impl;
+
+import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+import io.github.imsejin.dl.lezhin.api.session.service.SessionService;
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.dl.lezhin.exception.LezhinComicsDownloaderException;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.session.Session;
+import io.github.imsejin.dl.lezhin.session.SessionStore;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Processor for restoration of session
+ *
+ * <p> If there is a stored session which is still valid, {@link LoginProcessor} and
+ * {@link AccessTokenProcessor} don't run a browser and use the session instead.
+ */
+@ProcessSpecification(dependsOn = ConfigurationFileProcessor.class)
+public class SessionProcessor implements Processor {
+
+    private final SessionStore sessionStore;
+
+    public SessionProcessor(Path basePath) {
+        this.sessionStore = new SessionStore(basePath);
+    }
+
+    @Override
+    public Session process(ProcessContext context) throws LezhinComicsDownloaderException {
+        Authentication authentication = context.getAuthentication();
+        Locale locale = context.getLanguage().getValue();
+
+        Optional<Session> maybeSession = this.sessionStore.load(authentication, locale);
+        if (maybeSession.isEmpty()) {
+            return null;
+        }
+
+        Session session = maybeSession.get();
+        SessionService service = new SessionService(session);
+
+        if (!service.isValid(session)) {
+            Loggers.getLogger().debug("Stored session is no longer valid: {}", session);
+            this.sessionStore.remove(authentication, locale);
+            return null;
+        }
+
+        Loggers.getLogger().info("Reuse the stored session: access token({})", session.getAccessToken());
+
+        return session;
+    }
+
+}
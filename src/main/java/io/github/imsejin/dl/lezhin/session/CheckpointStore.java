@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.session;
+
+import com.google.gson.Gson;
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Encrypted on-disk store of checkpoints
+ *
+ * <p> A checkpoint is a result of process kept for the next run, stored as JSON with its name.
+ * Like {@link SessionStore}, each checkpoint belongs to an account and a locale, and is encrypted
+ * by AES-256 with the key derived from the account.
+ *
+ * <p> This doesn't know whether a checkpoint is still valid; the owner of it tells that.
+ *
+ * @see io.github.imsejin.dl.lezhin.process.Checkpoint
+ */
+@ThreadSafe
+public class CheckpointStore {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path directory;
+
+    public CheckpointStore(Path basePath) {
+        this.directory = basePath.resolve(".checkpoints");
+    }
+
+    /**
+     * Returns a stored checkpoint.
+     *
+     * <p> If the stored checkpoint cannot be decrypted or read as the type, it is removed and returns empty.
+     *
+     * @param authentication account
+     * @param locale         locale of lezhin platform
+     * @param name           name of checkpoint
+     * @param type           type of checkpoint
+     * @param <T>            type of checkpoint
+     * @return stored checkpoint
+     */
+    public <T> Optional<T> load(Authentication authentication, Locale locale, String name, Class<T> type) {
+        Path filePath = resolveFilePath(authentication.getUsername(), locale, name);
+        if (!Files.isRegularFile(filePath)) {
+            return Optional.empty();
+        }
+
+        try {
+            String encrypted = Files.readString(filePath, StandardCharsets.UTF_8);
+            String json = SessionStore.createCrypto(authentication).decrypt(encrypted);
+            return Optional.ofNullable(GSON.fromJson(json, type));
+        } catch (IOException | RuntimeException e) {
+            // When the password is changed or the file is corrupted.
+            Loggers.getLogger().debug("Failed to read checkpoint: {}", name, e);
+            remove(authentication, locale, name);
+            return Optional.empty();
+        }
+    }
+
+    public void save(Authentication authentication, Locale locale, String name, Object checkpoint) {
+        Path filePath = resolveFilePath(authentication.getUsername(), locale, name);
+
+        try {
+            String encrypted = SessionStore.createCrypto(authentication).encrypt(GSON.toJson(checkpoint));
+
+            // Replaces the file at once, so that it is never read half-written.
+            Files.createDirectories(this.directory);
+            Path tempPath = Files.createTempFile(this.directory, null, null);
+            Files.writeString(tempPath, encrypted, StandardCharsets.UTF_8);
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Checkpoint store is optional, so the process goes on.
+            Loggers.getLogger().debug("Failed to write checkpoint: {}", name, e);
+        }
+    }
+
+    public void remove(Authentication authentication, Locale locale, String name) {
+        Path filePath = resolveFilePath(authentication.getUsername(), locale, name);
+
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            Loggers.getLogger().debug("Failed to remove checkpoint: {}", name, e);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private Path resolveFilePath(String username, Locale locale, String name) {
+        return this.directory.resolve(SessionStore.digest(username + ':' + locale.toLanguageTag() + ':' + name));
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.session;
+
+import io.github.imsejin.dl.lezhin.attribute.Attribute;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Session of lezhin which is established by login
+ *
+ * <p> This keeps cookies and access token issued by lezhin so that the next run can reuse them
+ * without login on browser. It is expired at {@link #getExpiredAt()} which is the earliest expiry
+ * of the cookies.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@ToString(exclude = "cookies")
+public final class Session implements Attribute {
+
+    /**
+     * Lifetime of session when cookies have no expiry.
+     */
+    private static final Duration DEFAULT_LIFETIME = Duration.ofDays(1);
+
+    private final String username;
+
+    private final Locale locale;
+
+    private final UUID accessToken;
+
+    private final List<Cookie> cookies;
+
+    /**
+     * Epoch milliseconds when this session is expired.
+     */
+    private final long expiredAt;
+
+    /**
+     * Creates new session which is expired when any cookie is expired.
+     *
+     * @param username    username of account
+     * @param locale      locale of lezhin platform
+     * @param accessToken access token
+     * @param cookies     cookies
+     * @return new session
+     */
+    public static Session of(String username, Locale locale, UUID accessToken, List<Cookie> cookies) {
+        long expiredAt = cookies.stream().map(Cookie::getExpiry).filter(Objects::nonNull)
+                .mapToLong(Long::longValue).min()
+                .orElseGet(() -> System.currentTimeMillis() + DEFAULT_LIFETIME.toMillis());
+
+        return new Session(username, locale, accessToken, List.copyOf(cookies), expiredAt);
+    }
+
+    public boolean isExpired() {
+        return this.expiredAt <= System.currentTimeMillis();
+    }
+
+    /**
+     * Returns value of HTTP header {@code cookie}.
+     *
+     * @return cookie header
+     */
+    public String toCookieHeader() {
+        return this.cookies.stream().map(it -> it.getName() + '=' + it.getValue()).collect(joining("; "));
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static final class Cookie {
+        private final String name;
+
+        private final String value;
+
+        private final String domain;
+
+        private final String path;
+
+        /**
+         * Epoch milliseconds when this cookie is expired, {@code null} if session cookie.
+         */
+        private final Long expiry;
+    }
+
+}
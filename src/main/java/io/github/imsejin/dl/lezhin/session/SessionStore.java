@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.session;
+
+import com.google.gson.Gson;
+import io.github.imsejin.common.security.crypto.Crypto;
+import io.github.imsejin.common.security.crypto.aes.AES256;
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Encrypted on-disk store of {@link Session}
+ *
+ * <p> Each session is stored as a file whose name is digest of username and locale. The content is
+ * encrypted by AES-256 with the key derived from the account, so that the file cannot be read
+ * without the password and becomes useless when the password is changed.
+ */
+@ThreadSafe
+public class SessionStore {
+
+    private static final Gson GSON = new Gson();
+
+    private final Path directory;
+
+    public SessionStore(Path basePath) {
+        this.directory = basePath.resolve(".sessions");
+    }
+
+    /**
+     * Returns a stored session.
+     *
+     * <p> If the stored session is expired or cannot be decrypted, it is removed and returns empty.
+     *
+     * @param authentication account
+     * @param locale         locale of lezhin platform
+     * @return stored session
+     */
+    public Optional<Session> load(Authentication authentication, Locale locale) {
+        Path filePath = resolveFilePath(authentication.getUsername(), locale);
+        if (!Files.isRegularFile(filePath)) {
+            return Optional.empty();
+        }
+
+        Session session;
+        try {
+            String encrypted = Files.readString(filePath, StandardCharsets.UTF_8);
+            String json = createCrypto(authentication).decrypt(encrypted);
+            session = GSON.fromJson(json, Session.class);
+        } catch (IOException | RuntimeException e) {
+            // When the password is changed or the file is corrupted.
+            Loggers.getLogger().debug("Failed to read session: {}", filePath, e);
+            remove(authentication, locale);
+            return Optional.empty();
+        }
+
+        if (session == null || session.isExpired() || !authentication.getUsername().equals(session.getUsername())) {
+            Loggers.getLogger().debug("Discard expired session: {}", session);
+            remove(authentication, locale);
+            return Optional.empty();
+        }
+
+        return Optional.of(session);
+    }
+
+    public void save(Authentication authentication, Session session) {
+        Path filePath = resolveFilePath(authentication.getUsername(), session.getLocale());
+        String encrypted = createCrypto(authentication).encrypt(GSON.toJson(session));
+
+        try {
+            Files.createDirectories(this.directory);
+            Files.writeString(filePath, encrypted, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // Session store is optional, so the process goes on.
+            Loggers.getLogger().debug("Failed to write session: {}", filePath, e);
+        }
+    }
+
+    public void remove(Authentication authentication, Locale locale) {
+        Path filePath = resolveFilePath(authentication.getUsername(), locale);
+
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            Loggers.getLogger().debug("Failed to remove session: {}", filePath, e);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private Path resolveFilePath(String username, Locale locale) {
+        return this.directory.resolve(digest(username + ':' + locale.toLanguageTag()));
+    }
+
+    static Crypto createCrypto(Authentication authentication) {
+        // AES-256 requires a key which has 32 characters.
+        String key = digest(authentication.getUsername() + ':' + authentication.getPassword()).substring(0, 32);
+        return new AES256(key);
+    }
+
+    static String digest(String text) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(text.getBytes(StandardCharsets.UTF_8));
+
+            return String.format("%064x", new BigInteger(1, bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("Never thrown", e);
+        }
+    }
+
+}
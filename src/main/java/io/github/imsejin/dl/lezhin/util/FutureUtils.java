@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.util;
+
+import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Utilities for {@link CompletableFuture}
+ */
+public final class FutureUtils {
+
+    @ExcludeFromGeneratedJacocoReport
+    private FutureUtils() {
+        throw new UnsupportedOperationException(getClass().getName() + " is not allowed to instantiate");
+    }
+
+    /**
+     * Applies the function to all items with bounded parallelism.
+     *
+     * <p> At most {@code parallelism} futures are in progress at once; next item is started
+     * as soon as any future is completed. If any future fails, the returned future fails
+     * with its cause and the remaining items are not started.
+     *
+     * @param items       items
+     * @param parallelism max number of futures in progress
+     * @param function    function to start future for item
+     * @param <T>         type of item
+     * @param <R>         type of result
+     * @return future of results in the same order as items
+     */
+    public static <T, R> CompletableFuture<List<R>> allOf(List<T> items, int parallelism,
+                                                          Function<? super T, CompletableFuture<R>> function) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("FutureUtils.allOf.parallelism must be positive: " + parallelism);
+        }
+
+        BoundedBatch<T, R> batch = new BoundedBatch<>(items, function);
+        for (int i = 0; i < Math.min(parallelism, items.size()); i++) {
+            batch.pump();
+        }
+
+        if (items.isEmpty()) {
+            batch.result.complete(List.of());
+        }
+
+        return batch.result;
+    }
+
+    /**
+     * Waits for the future and returns its result, unwrapping {@link CompletionException}.
+     *
+     * @param future future
+     * @param <T>    type of result
+     * @return result
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static final class BoundedBatch<T, R> {
+        private final List<T> items;
+
+        private final Function<? super T, CompletableFuture<R>> function;
+
+        private final Object[] results;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final AtomicInteger remaining;
+
+        private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+        private BoundedBatch(List<T> items, Function<? super T, CompletableFuture<R>> function) {
+            this.items = items;
+            this.function = function;
+            this.results = new Object[items.size()];
+            this.remaining = new AtomicInteger(items.size());
+        }
+
+        /**
+         * Starts items one by one until a future is in progress, so that
+         * already completed futures don't deepen the stack.
+         */
+        private void pump() {
+            while (!this.result.isDone()) {
+                int index = this.next.getAndIncrement();
+                if (index >= this.items.size()) {
+                    return;
+                }
+
+                CompletableFuture<R> future;
+                try {
+                    future = this.function.apply(this.items.get(index));
+                } catch (RuntimeException e) {
+                    this.result.completeExceptionally(e);
+                    return;
+                }
+
+                if (!future.isDone()) {
+                    future.whenComplete((value, throwable) -> {
+                        if (complete(index, value, throwable)) {
+                            pump();
+                        }
+                    });
+                    return;
+                }
+
+                R value = null;
+                Throwable throwable = null;
+                try {
+                    value = future.join();
+                } catch (CompletionException e) {
+                    throwable = e.getCause();
+                } catch (RuntimeException e) {
+                    throwable = e;
+                }
+
+                if (!complete(index, value, throwable)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Returns whether the next item can be started.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean complete(int index, R value, Throwable throwable) {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause() : throwable;
+                this.result.completeExceptionally(cause);
+                return false;
+            }
+
+            this.results[index] = value;
+            if (this.remaining.decrementAndGet() == 0) {
+                this.result.complete((List<R>) Arrays.asList(this.results));
+                return false;
+            }
+
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.util;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilities for streaming type adapters of Gson
+ *
+ * <p> Values read as {@code null} are taken as {@code null} for reference types
+ * and as default value for primitive types, as reflective Gson does.
+ */
+public final class JsonReaders {
+
+    @ExcludeFromGeneratedJacocoReport
+    private JsonReaders() {
+        throw new UnsupportedOperationException(getClass().getName() + " is not allowed to instantiate");
+    }
+
+    /**
+     * Consumes the next token if it is null.
+     *
+     * @param reader reader
+     * @return whether the next token was null
+     * @throws IOException if failed to read
+     */
+    public static boolean isNull(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.NULL) {
+            return false;
+        }
+
+        reader.nextNull();
+        return true;
+    }
+
+    /**
+     * Reads the members of object, skipping the ones the reader of field doesn't read.
+     *
+     * @param reader      reader
+     * @param fieldReader reader of field
+     * @throws IOException if failed to read
+     */
+    public static void readObject(JsonReader reader, FieldReader fieldReader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!fieldReader.read(reader.nextName())) {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    public static String nextString(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextString();
+    }
+
+    public static Long nextLongOrNull(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextLong();
+    }
+
+    public static long nextLong(JsonReader reader) throws IOException {
+        return isNull(reader) ? 0 : reader.nextLong();
+    }
+
+    public static Integer nextIntOrNull(JsonReader reader) throws IOException {
+        return isNull(reader) ? null : reader.nextInt();
+    }
+
+    public static int nextInt(JsonReader reader) throws IOException {
+        return isNull(reader) ? 0 : reader.nextInt();
+    }
+
+    public static boolean nextBoolean(JsonReader reader) throws IOException {
+        return !isNull(reader) && reader.nextBoolean();
+    }
+
+    /**
+     * Reads array with the adapter of element.
+     *
+     * @param reader  reader
+     * @param adapter adapter of element
+     * @param <T>     type of element
+     * @return list or {@code null}
+     * @throws IOException if failed to read
+     */
+    public static <T> List<T> readList(JsonReader reader, TypeAdapter<T> adapter) throws IOException {
+        if (isNull(reader)) {
+            return null;
+        }
+
+        List<T> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            list.add(adapter.read(reader));
+        }
+        reader.endArray();
+
+        return list;
+    }
+
+    /**
+     * Writes list with the adapter of element.
+     *
+     * @param writer  writer
+     * @param list    list or {@code null}
+     * @param adapter adapter of element
+     * @param <T>     type of element
+     * @throws IOException if failed to write
+     */
+    public static <T> void writeList(JsonWriter writer, List<T> list, TypeAdapter<T> adapter) throws IOException {
+        if (list == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginArray();
+        for (T element : list) {
+            adapter.write(writer, element);
+        }
+        writer.endArray();
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Reader of a member of object
+     */
+    @FunctionalInterface
+    public interface FieldReader {
+        /**
+         * Reads value of the member.
+         *
+         * @param name name of member
+         * @return whether the value is read; {@code false} to skip it
+         * @throws IOException if failed to read
+         */
+        boolean read(String name) throws IOException;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.util;
+
+import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
+import io.github.imsejin.common.util.StringUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utilities for inline scripts of lezhin page
+ */
+public final class ScriptUtils {
+
+    private static final Pattern ACCESS_TOKEN_PATTERN = Pattern.compile(
+            "token: '([a-z0-9]{8}-(?:[a-z0-9]{4}-){3}[a-z0-9]{12})'");
+
+    private static final Pattern ERROR_CODE_PATTERN = Pattern.compile("__LZ_ERROR_CODE__ = '(\\d*)'");
+
+    private static final Pattern PRODUCT_PATTERN = Pattern.compile("__LZ_PRODUCT__\\s*=\\s*\\{.*?\\bproduct\\s*:\\s*(?=\\{)",
+            Pattern.DOTALL);
+
+    @ExcludeFromGeneratedJacocoReport
+    private ScriptUtils() {
+        throw new UnsupportedOperationException(getClass().getName() + " is not allowed to instantiate");
+    }
+
+    /**
+     * Finds access token in the inline script containing {@code __LZ_CONFIG__}.
+     *
+     * @param text HTML or inner text of script
+     * @return access token or {@code null}
+     */
+    public static String findAccessToken(String text) {
+        return StringUtils.find(text, ACCESS_TOKEN_PATTERN, 1);
+    }
+
+    /**
+     * Finds error code in {@code __LZ_ERROR_CODE__}.
+     *
+     * @param text HTML or inner text of script
+     * @return error code or {@code null}
+     */
+    public static String findErrorCode(String text) {
+        return StringUtils.find(text, ERROR_CODE_PATTERN, 1);
+    }
+
+    /**
+     * Finds product in {@code __LZ_PRODUCT__}.
+     *
+     * <pre>{@code
+     *     __LZ_PRODUCT__ = { productType: 'comic', product: {...}, departure: '', all: {...}, prefree: {...} };
+     * }</pre>
+     *
+     * @param text HTML or inner text of script
+     * @return JSON of product or {@code null}
+     */
+    public static String findProduct(String text) {
+        Matcher matcher = PRODUCT_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        int end = findEndOfObject(text, matcher.end());
+        return end == -1 ? null : text.substring(matcher.end(), end);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the index next to the closing brace of the object, ignoring braces in string literals.
+     */
+    private static int findEndOfObject(String text, int start) {
+        int depth = 0;
+        char quote = 0;
+
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+
+            if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+}
@@ -18,28 +18,33 @@ package io.github.imsejin.lzcodl;
 
 import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
 import io.github.imsejin.common.util.FilenameUtils;
-import io.github.imsejin.common.util.JsonUtils;
 import io.github.imsejin.lzcodl.common.CommandParser;
 import io.github.imsejin.lzcodl.common.Loggers;
 import io.github.imsejin.lzcodl.common.UsagePrinter;
 import io.github.imsejin.lzcodl.common.exception.ConfigParseException;
 import io.github.imsejin.lzcodl.common.exception.EpisodeRangeParseException;
 import io.github.imsejin.lzcodl.common.exception.InvalidLanguageException;
+import io.github.imsejin.lzcodl.common.json.ModelTypeAdapterFactory;
 import io.github.imsejin.lzcodl.core.ChromeBrowser;
 import io.github.imsejin.lzcodl.core.Crawler;
 import io.github.imsejin.lzcodl.core.Downloader;
 import io.github.imsejin.lzcodl.core.LoginHelper;
+import io.github.imsejin.lzcodl.core.ProductCache;
 import io.github.imsejin.lzcodl.model.Arguments;
 import io.github.imsejin.lzcodl.model.Episode;
 import io.github.imsejin.lzcodl.model.Product;
 import org.apache.commons.cli.CommandLine;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 
 public final class Application {
@@ -68,12 +73,14 @@ public final class Application {
                     .comicName(cmd.getOptionValue('n'))
                     .episodeRange(cmd.getOptionValue('r', null))
                     .jpg(cmd.hasOption('j'))
+                    .hedging(cmd.hasOption('H'))
                     .debugging(cmd.hasOption('d'))
                     .build();
 
             // Activates debug mode.
             if (args.isDebugging()) {
                 Loggers.debugging();
+                io.github.imsejin.dl.lezhin.common.Loggers.debugging();
                 ChromeBrowser.debugging();
             }
 
@@ -86,21 +93,25 @@ public final class Application {
             // Login with username and password and gets a token.
             args.setAccessToken(LoginHelper.login(args));
 
-            // Crawls the webtoon page so that gets the information on the episode as JSON string.
-            String jsonText = Crawler.getJson(args);
-
-            // Converts JSON string to java object.
-            Product product = JsonUtils.toObject(jsonText, Product.class);
+            // Gets the information on the episode from the cache or the webtoon page.
+            Product product = getProduct(args);
             args.setProduct(product);
 
             // To download, pre-processes the data.
             preprocess(product);
 
+            // Releases the browser before downloading if it is no longer needed.
+            Downloader downloader = new Downloader(args);
+            if (!downloader.requiresBrowser()) {
+                Loggers.getLogger().debug("Quit browser before downloading");
+                ChromeBrowser.softQuit();
+            }
+
             // Downloads images.
-            new Downloader(args).download();
+            downloader.download();
 
             // Terminates the application.
-            ChromeBrowser.getDriver().quit();
+            ChromeBrowser.softQuit();
             System.exit(0);
 
         } catch (ConfigParseException e) {
@@ -125,6 +136,45 @@ public final class Application {
         }
     }
 
+    /**
+     * Gets the product from the cache or the webtoon page.
+     *
+     * <p> If the cached product is fresh, it doesn't request the webtoon page or change the locale setting.
+     * Otherwise it crawls the webtoon page and merges the updated episodes into the cached product.
+     *
+     * @param args arguments required to get the product
+     * @return product before preprocessing
+     * @throws IOException if the current directory cannot be resolved
+     */
+    private static Product getProduct(Arguments args) throws IOException {
+        ProductCache cache = new ProductCache(Paths.get(".").toRealPath());
+        Optional<ProductCache.Entry> cached = cache.load(args.getLanguage(), args.getComicName());
+
+        if (cached.isPresent()) {
+            ProductCache.Entry entry = cached.get();
+            args.setExpiredComic(entry.isExpiredComic());
+
+            if (cache.isFresh(entry)) {
+                Loggers.getLogger().info("Use the cached product (fetched {} ago)",
+                        Duration.ofMillis(System.currentTimeMillis() - entry.getFetchedAt()));
+                return entry.getProduct();
+            }
+        }
+
+        // Crawls the webtoon page so that gets the information on the episode as JSON string.
+        String jsonText = Crawler.getJson(args);
+
+        // Converts JSON string to java object.
+        Product product = ModelTypeAdapterFactory.GSON.fromJson(jsonText, Product.class);
+        if (cached.isPresent()) {
+            product = ProductCache.merge(cached.get().getProduct(), product);
+        }
+
+        cache.save(args.getLanguage(), args.getComicName(), product, args.isExpiredComic());
+
+        return product;
+    }
+
     private static void preprocess(Product product) {
         // 웹툰 이름 중 디렉터리명에 허용되지 않는 문자열을 치환한다.
         product.getDisplay().setTitle(FilenameUtils.replaceUnallowables(product.getDisplay().getTitle()));
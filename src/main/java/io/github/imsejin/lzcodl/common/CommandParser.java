@@ -57,13 +57,21 @@ public final class CommandParser {
             .desc("save as JPEG format")
             .build();
 
+    /**
+     * @since 2.9.0
+     */
+    private static final Option hedge = Option.builder("H")
+            .longOpt("hedge")
+            .desc("send a second request for slow image")
+            .build();
+
     private static final Option debug = Option.builder("d")
             .longOpt("debug")
             .desc("debug mode")
             .build();
 
     private static final Options options = new Options()
-            .addOption(lang).addOption(name).addOption(range).addOption(jpg).addOption(debug);
+            .addOption(lang).addOption(name).addOption(range).addOption(jpg).addOption(hedge).addOption(debug);
 
     @ExcludeFromGeneratedJacocoReport
     private CommandParser() {
@@ -16,6 +16,7 @@
 
 package io.github.imsejin.lzcodl.common;
 
+import io.github.imsejin.dl.lezhin.common.Origins;
 import io.github.imsejin.lzcodl.model.Arguments;
 import io.github.imsejin.lzcodl.model.Episode;
 import lombok.SneakyThrows;
@@ -24,32 +25,30 @@ import java.net.MalformedURLException;
 import java.net.URL;
 
 /**
+ * Factory of URLs on CDN
+ *
+ * <p> Origin of CDN is {@code https://ccdn.lezhin.com} by default and can be overridden
+ * as described in {@link Origins}.
+ *
  * @since 2.0.0
  */
 public final class URLFactory {
 
     /**
-     * CDN 서버의 origin URL
-     *
-     * @see <a href="http://cdn.lezhin.com">CDN URL</a>
-     */
-    private static final String cdnUrl = "https://ccdn.lezhin.com";
-
-    /**
-     * 각 회차의 정보를 얻을 수 있는 URI의 접두사<br>
-     * The prefix of URI to obtain information for each episode
+     * 각 회차의 정보를 얻을 수 있는 URI의 경로<br>
+     * The path of URI to obtain information for each episode
      *
      * @see <a href="http://cdn.lezhin.com/episodes/">Episode Info URL</a>
      */
-    private static final String episodeInfoUrl = cdnUrl + "/episodes/";
+    private static final String episodeInfoPath = "/episodes/";
 
     /**
-     * 이미지 URI의 접두사<br>
-     * The prefix of image URI
+     * 이미지 URI의 경로<br>
+     * The path of image URI
      *
      * @see <a href="http://cdn.lezhin.com/v2/comics/">Image Prefix URL</a>
      */
-    private static final String imgUrl = cdnUrl + "/v2/comics/";
+    private static final String imgPath = "/v2/comics/";
 
     /**
      * @since 2.8.0
@@ -69,7 +68,7 @@ public final class URLFactory {
     public static URL image(long comicId, long episodeId, int filename, String imageFormat, String accessToken, boolean purchased) {
         StringBuilder sb = new StringBuilder();
 
-        sb.append(imgUrl);
+        sb.append(Origins.getCdnOrigin()).append(imgPath);
         sb.append(comicId);
         sb.append("/episodes/");
         sb.append(episodeId);
@@ -95,7 +94,7 @@ public final class URLFactory {
     public URL image(long episodeId, int filename, boolean purchased) {
         StringBuilder sb = new StringBuilder();
 
-        sb.append(imgUrl);
+        sb.append(Origins.getCdnOrigin()).append(imgPath);
         sb.append(this.args.getProduct().getId());
         sb.append("/episodes/");
         sb.append(episodeId);
@@ -125,7 +124,7 @@ public final class URLFactory {
     public static URL oneEpisodeAPI(String comicName, String episodeName, String accessToken) {
         StringBuilder sb = new StringBuilder();
 
-        sb.append(episodeInfoUrl);
+        sb.append(Origins.getCdnOrigin()).append(episodeInfoPath);
         sb.append(comicName);
         sb.append('/');
         sb.append(episodeName);
@@ -149,7 +148,7 @@ public final class URLFactory {
     public static URL allEpisodeAPI(String comicName, String accessToken) {
         StringBuilder sb = new StringBuilder();
 
-        sb.append(episodeInfoUrl);
+        sb.append(Origins.getCdnOrigin()).append(episodeInfoPath);
         sb.append(comicName);
         sb.append("?access_token=");
         sb.append(accessToken);
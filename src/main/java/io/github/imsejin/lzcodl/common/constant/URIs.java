@@ -17,19 +17,25 @@
 package io.github.imsejin.lzcodl.common.constant;
 
 import io.github.imsejin.common.assertion.Asserts;
+import io.github.imsejin.dl.lezhin.common.Origins;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * URIs of lezhin platform
+ *
+ * <p> Origin of URI is {@code https://www.lezhin.com} by default and can be overridden
+ * as described in {@link Origins}.
+ *
  * @since 2.5.0
  */
 @Getter
-@RequiredArgsConstructor
 public enum URIs {
 
     /**
@@ -39,7 +45,7 @@ public enum URIs {
      *     https://www.lezhin.com/ko/login
      * }</pre>
      */
-    LOGIN("https://www.lezhin.com/{language}/login"),
+    LOGIN("{origin}/{language}/login"),
 
     /**
      * Page to choose your locale.
@@ -48,7 +54,7 @@ public enum URIs {
      *     https://www.lezhin.com/ko/locale/ko-KR?locale=ko-KR
      * }</pre>
      */
-    LOCALE("https://www.lezhin.com/{language}/locale/{locale}?locale={locale}"),
+    LOCALE("{origin}/{language}/locale/{locale}?locale={locale}"),
 
     /**
      * Comic page that shows its episodes.
@@ -57,7 +63,7 @@ public enum URIs {
      *     https://www.lezhin.com/ko/comic/redhood
      * }</pre>
      */
-    COMIC("https://www.lezhin.com/{language}/comic/{comicName}"),
+    COMIC("{origin}/{language}/comic/{comicName}"),
 
     /**
      * Episode page that shows its cuts(images).
@@ -67,18 +73,34 @@ public enum URIs {
      *     https://www.lezhin.com/ko/comic/redhood/e1
      * }</pre>
      */
-    EPISODE("https://www.lezhin.com/{language}/comic/{comicName}/{episodeName}"),
+    EPISODE("{origin}/{language}/comic/{comicName}/{episodeName}"),
 
-    EXPIRED("https://www.lezhin.com/{language}/error/expired"),
+    EXPIRED("{origin}/{language}/error/expired"),
 
-    LIB_COMIC("https://www.lezhin.com/{language}/library/comic/{locale}/{comicName}"),
+    LIB_COMIC("{origin}/{language}/library/comic/{locale}/{comicName}"),
 
-    LIB_EPISODE("https://www.lezhin.com/{language}/library/comic/{locale}/{comicName}/{episodeName}");
+    LIB_EPISODE("{origin}/{language}/library/comic/{locale}/{comicName}/{episodeName}");
 
     private static final Pattern pattern = Pattern.compile("\\{(.+?)}", Pattern.MULTILINE);
 
+    private static final String ORIGIN_VARIABLE = "{origin}";
+
+    /**
+     * Template URI with the default origin.
+     */
     private final String value;
 
+    /**
+     * Template URI whose origin is a variable.
+     */
+    @Getter(AccessLevel.NONE)
+    private final String template;
+
+    URIs(String template) {
+        this.template = template;
+        this.value = template.replace(ORIGIN_VARIABLE, "https://www.lezhin.com");
+    }
+
     /**
      * Checks if {@link URIs} that has the value exists.
      *
@@ -97,12 +119,15 @@ public enum URIs {
      * @return URI string
      */
     public URI get(String... params) {
-        if (params == null || params.length == 0) return URI.create(this.value);
+        String origin = Origins.getOrigin(Locale.KOREA);
+        String template = this.template.replace(ORIGIN_VARIABLE, origin);
+
+        if (params == null || params.length == 0) return URI.create(template);
 
-        Matcher matcher = pattern.matcher(this.value);
+        Matcher matcher = pattern.matcher(template);
 
         // Converts all variables to parameters.
-        String uri = this.value;
+        String uri = template;
         for (int i = 0; i < params.length && matcher.find(); i++) {
             uri = uri.replaceAll("\\{" + matcher.group(1) + '}', params[i]);
         }
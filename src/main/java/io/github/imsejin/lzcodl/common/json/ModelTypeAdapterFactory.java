@@ -0,0 +1,356 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.lzcodl.common.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.github.imsejin.lzcodl.model.Artist;
+import io.github.imsejin.lzcodl.model.Display;
+import io.github.imsejin.lzcodl.model.Episode;
+import io.github.imsejin.lzcodl.model.Product;
+import io.github.imsejin.lzcodl.model.Properties;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.isNull;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextBoolean;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextInt;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextLong;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.nextString;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.readList;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.readObject;
+import static io.github.imsejin.dl.lezhin.util.JsonReaders.writeList;
+
+/**
+ * Factory of streaming type adapters for the models
+ *
+ * <p> {@code __LZ_PRODUCT__} has a lot of fields we don't use and a product can have
+ * more than a thousand episodes. These adapters read only the fields of the models
+ * without reflection, skipping the others as they are.
+ *
+ * @since 2.9.0
+ */
+public final class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    /**
+     * Gson which has the adapters of the models.
+     */
+    public static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new ModelTypeAdapterFactory()).create();
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS;
+
+    static {
+        DisplayAdapter displayAdapter = new DisplayAdapter();
+        ArtistAdapter artistAdapter = new ArtistAdapter();
+        PropertiesAdapter propertiesAdapter = new PropertiesAdapter();
+        EpisodeAdapter episodeAdapter = new EpisodeAdapter(displayAdapter, propertiesAdapter);
+
+        ADAPTERS = Map.of(
+                Display.class, displayAdapter,
+                Artist.class, artistAdapter,
+                Properties.class, propertiesAdapter,
+                Episode.class, episodeAdapter,
+                Product.class, new ProductAdapter(displayAdapter, artistAdapter, episodeAdapter));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        return (TypeAdapter<T>) ADAPTERS.get(type.getRawType());
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static final class DisplayAdapter extends TypeAdapter<Display> {
+        @Override
+        public void write(JsonWriter writer, Display value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("title").value(value.getTitle());
+            writer.name("type").value(value.getType());
+            writer.name("displayName").value(value.getDisplayName());
+            writer.endObject();
+        }
+
+        @Override
+        public Display read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Display display = new Display();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "title":
+                        display.setTitle(nextString(reader));
+                        return true;
+                    case "type":
+                        display.setType(nextString(reader));
+                        return true;
+                    case "displayName":
+                        display.setDisplayName(nextString(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return display;
+        }
+    }
+
+    private static final class ArtistAdapter extends TypeAdapter<Artist> {
+        @Override
+        public void write(JsonWriter writer, Artist value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("name").value(value.getName());
+            writer.name("role").value(value.getRole());
+            writer.name("email").value(value.getEmail());
+            writer.name("id").value(value.getId());
+            writer.endObject();
+        }
+
+        @Override
+        public Artist read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Artist artist = new Artist();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "name":
+                        artist.setName(nextString(reader));
+                        return true;
+                    case "role":
+                        artist.setRole(nextString(reader));
+                        return true;
+                    case "email":
+                        artist.setEmail(nextString(reader));
+                        return true;
+                    case "id":
+                        artist.setId(nextString(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return artist;
+        }
+    }
+
+    private static final class PropertiesAdapter extends TypeAdapter<Properties> {
+        @Override
+        public void write(JsonWriter writer, Properties value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("expired").value(value.isExpired());
+            writer.name("notForSale").value(value.isNotForSale());
+            writer.endObject();
+        }
+
+        @Override
+        public Properties read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Properties properties = new Properties();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "expired":
+                        properties.setExpired(nextBoolean(reader));
+                        return true;
+                    case "notForSale":
+                        properties.setNotForSale(nextBoolean(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return properties;
+        }
+    }
+
+    private static final class EpisodeAdapter extends TypeAdapter<Episode> {
+        private final DisplayAdapter displayAdapter;
+
+        private final PropertiesAdapter propertiesAdapter;
+
+        private EpisodeAdapter(DisplayAdapter displayAdapter, PropertiesAdapter propertiesAdapter) {
+            this.displayAdapter = displayAdapter;
+            this.propertiesAdapter = propertiesAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter writer, Episode value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("name").value(value.getName());
+            writer.name("display");
+            this.displayAdapter.write(writer, value.getDisplay());
+            writer.name("properties");
+            this.propertiesAdapter.write(writer, value.getProperties());
+            writer.name("coin").value(value.getCoin());
+            writer.name("point").value(value.getPoint());
+            writer.name("updatedAt").value(value.getUpdatedAt());
+            writer.name("freedAt").value(value.getFreedAt());
+            writer.name("seq").value(value.getSeq());
+            writer.name("publishedAt").value(value.getPublishedAt());
+            writer.name("id").value(value.getId());
+            writer.endObject();
+        }
+
+        @Override
+        public Episode read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Episode episode = new Episode();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "name":
+                        episode.setName(nextString(reader));
+                        return true;
+                    case "display":
+                        episode.setDisplay(this.displayAdapter.read(reader));
+                        return true;
+                    case "properties":
+                        episode.setProperties(this.propertiesAdapter.read(reader));
+                        return true;
+                    case "coin":
+                        episode.setCoin(nextInt(reader));
+                        return true;
+                    case "point":
+                        episode.setPoint(nextInt(reader));
+                        return true;
+                    case "updatedAt":
+                        episode.setUpdatedAt(nextLong(reader));
+                        return true;
+                    case "freedAt":
+                        episode.setFreedAt(nextLong(reader));
+                        return true;
+                    case "seq":
+                        episode.setSeq(nextInt(reader));
+                        return true;
+                    case "publishedAt":
+                        episode.setPublishedAt(nextLong(reader));
+                        return true;
+                    case "id":
+                        episode.setId(nextLong(reader));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return episode;
+        }
+    }
+
+    private static final class ProductAdapter extends TypeAdapter<Product> {
+        private final DisplayAdapter displayAdapter;
+
+        private final ArtistAdapter artistAdapter;
+
+        private final EpisodeAdapter episodeAdapter;
+
+        private ProductAdapter(DisplayAdapter displayAdapter, ArtistAdapter artistAdapter, EpisodeAdapter episodeAdapter) {
+            this.displayAdapter = displayAdapter;
+            this.artistAdapter = artistAdapter;
+            this.episodeAdapter = episodeAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter writer, Product value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("display");
+            this.displayAdapter.write(writer, value.getDisplay());
+            writer.name("artists");
+            writeList(writer, value.getArtists(), this.artistAdapter);
+            writer.name("alias").value(value.getAlias());
+            writer.name("id").value(value.getId());
+            writer.name("episodes");
+            writeList(writer, value.getEpisodes(), this.episodeAdapter);
+            writer.endObject();
+        }
+
+        @Override
+        public Product read(JsonReader reader) throws IOException {
+            if (isNull(reader)) {
+                return null;
+            }
+
+            Product product = new Product();
+            readObject(reader, name -> {
+                switch (name) {
+                    case "display":
+                        product.setDisplay(this.displayAdapter.read(reader));
+                        return true;
+                    case "artists":
+                        product.setArtists(readList(reader, this.artistAdapter));
+                        return true;
+                    case "alias":
+                        product.setAlias(nextString(reader));
+                        return true;
+                    case "id":
+                        product.setId(nextLong(reader));
+                        return true;
+                    case "episodes":
+                        product.setEpisodes(readList(reader, this.episodeAdapter));
+                        return true;
+                    default:
+                        return false;
+                }
+            });
+
+            return product;
+        }
+    }
+
+}
@@ -45,7 +45,10 @@ public final class ChromeBrowser {
 
     private static ChromeOptions options = new ChromeOptions().addArguments(ChromeOption.getArguments());
 
-    private static boolean initialized;
+    /**
+     * Driver which is launched lazily; {@code null} if not running.
+     */
+    private static volatile ChromeDriver driver;
 
     static {
         Path currentPath;
@@ -75,7 +78,7 @@ public final class ChromeBrowser {
     }
 
     public static boolean isRunning() {
-        return ChromeBrowser.initialized;
+        return ChromeBrowser.driver != null;
     }
 
     /**
@@ -90,12 +93,33 @@ public final class ChromeBrowser {
         options = new ChromeOptions().addArguments(arguments);
     }
 
+    /**
+     * Returns the running driver, launching a new browser if it is not running.
+     *
+     * <p> After {@link #softQuit()}, this launches a new browser which has no cookies
+     * of the previous one.
+     *
+     * @return chrome driver
+     */
     public static ChromeDriver getDriver() {
-        return SingletonLazyHolder.DRIVER;
+        ChromeDriver current = ChromeBrowser.driver;
+        if (current != null) return current;
+
+        synchronized (ChromeBrowser.class) {
+            if (ChromeBrowser.driver == null) ChromeBrowser.driver = new ChromeDriver(options);
+            return ChromeBrowser.driver;
+        }
     }
 
-    public static void softQuit() {
-        if (ChromeBrowser.initialized) SingletonLazyHolder.DRIVER.quit();
+    /**
+     * Quits the browser and its driver process if it is running.
+     */
+    public static synchronized void softQuit() {
+        ChromeDriver current = ChromeBrowser.driver;
+        if (current == null) return;
+
+        ChromeBrowser.driver = null;
+        current.quit();
     }
 
     /**
@@ -129,14 +153,6 @@ public final class ChromeBrowser {
         }
     }
 
-    private static class SingletonLazyHolder {
-        static {
-            ChromeBrowser.initialized = true;
-        }
-
-        private static final ChromeDriver DRIVER = new ChromeDriver(options);
-    }
-
     /**
      * @since 2.6.2
      */
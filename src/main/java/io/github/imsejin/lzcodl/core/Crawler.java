@@ -17,6 +17,7 @@
 package io.github.imsejin.lzcodl.core;
 
 import io.github.imsejin.common.annotation.ExcludeFromGeneratedJacocoReport;
+import io.github.imsejin.dl.lezhin.browser.BrowserWaits;
 import io.github.imsejin.lzcodl.common.Loggers;
 import io.github.imsejin.lzcodl.common.constant.Languages;
 import io.github.imsejin.lzcodl.common.constant.URIs;
@@ -27,7 +28,6 @@ import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import javax.annotation.Nullable;
 import java.net.URI;
@@ -76,12 +76,13 @@ public final class Crawler {
     @Nullable
     public static String getJson(Arguments args) {
         ChromeDriver driver = ChromeBrowser.getDriver();
+        changeLocale(args);
 
-        // 언어/지역 설정 변경 페이지가 노출되면 다운로드할 수 없기에, 미리 API를 호출하여 설정을 변경한다.
-        String locale = args.getLanguage().getLocale();
-        URI localeUrl = URIs.LOCALE.get(args.getLanguage().getValue(), locale);
-        Loggers.getLogger().debug("Change locale setting: {}", localeUrl);
-        driver.get(localeUrl.toString());
+        // 서비스 종료된 것으로 알려진 웹툰이면 바로 '내 서재'로 접근한다.
+        if (args.isExpiredComic()) {
+            Loggers.getLogger().info("Comic was expired -> find it in 'My Library'");
+            return getJsonInMyLibrary(args);
+        }
 
         // 해당 웹툰 페이지로 이동한다.
         URI comicUrl = URIs.COMIC.get(args.getLanguage().getValue(), args.getComicName());
@@ -97,9 +98,7 @@ public final class Crawler {
 
         // Waits for DOM to complete the rendering.
         final int timeout = 15;
-        Loggers.getLogger().debug("Wait up to {} sec for episode list to be rendered", timeout);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        wait.until(ExpectedConditions.visibilityOfElementLocated(
+        BrowserWaits.until(driver, Duration.ofSeconds(timeout), "episode list", ExpectedConditions.visibilityOfElementLocated(
                 By.xpath("//main[@id='main' and @class='lzCntnr lzCntnr--episode']")));
 
         // 웹툰의 정보가 window 객체의 필드로 정의되어 있어, 이를 가져오기 위해 로컬스토리지에 저장한다.
@@ -109,6 +108,24 @@ public final class Crawler {
         return driver.getLocalStorage().getItem("product");
     }
 
+    /**
+     * Changes locale setting of the browser.
+     *
+     * <p> If the page to change locale setting is shown, episodes cannot be downloaded.
+     * To prevent it, this requests the API to change the setting in advance.
+     *
+     * @param args arguments required to change locale setting
+     * @since 2.9.0
+     */
+    public static void changeLocale(Arguments args) {
+        ChromeDriver driver = ChromeBrowser.getDriver();
+
+        String locale = args.getLanguage().getLocale();
+        URI localeUrl = URIs.LOCALE.get(args.getLanguage().getValue(), locale);
+        Loggers.getLogger().debug("Change locale setting: {}", localeUrl);
+        driver.get(localeUrl.toString());
+    }
+
     /**
      * @since 2.6.0
      */
@@ -122,9 +139,7 @@ public final class Crawler {
 
         // Waits for DOM to complete the rendering.
         final int timeout = 15;
-        Loggers.getLogger().debug("Wait up to {} sec for episode list to be rendered", timeout);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        wait.until(ExpectedConditions.visibilityOfElementLocated(
+        BrowserWaits.until(driver, Duration.ofSeconds(timeout), "episode list in 'My Library'", ExpectedConditions.visibilityOfElementLocated(
                 By.xpath("//ul[@id='library-episode-list' and @class='epsList']")));
 
         // 웹툰의 정보가 window 객체의 필드로 정의되어 있어, 이를 가져오기 위해 로컬스토리지에 저장한다.
@@ -183,9 +198,7 @@ public final class Crawler {
 
         // Waits for DOM to complete the rendering.
         final int timeout = 15;
-        Loggers.getLogger().debug("Wait up to {} sec for images to be rendered", timeout);
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        wait.until(ExpectedConditions.visibilityOfAllElements(scrollList));
+        BrowserWaits.until(driver, Duration.ofSeconds(timeout), "images", ExpectedConditions.visibilityOfAllElements(scrollList));
 
         try {
             List<WebElement> images = scrollList.findElements(
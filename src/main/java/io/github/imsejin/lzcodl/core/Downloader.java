@@ -19,6 +19,8 @@ package io.github.imsejin.lzcodl.core;
 import com.google.gson.JsonObject;
 import io.github.imsejin.common.util.FileUtils;
 import io.github.imsejin.common.util.JsonUtils;
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.http.hedge.HedgedFetcher;
 import io.github.imsejin.lzcodl.common.Loggers;
 import io.github.imsejin.lzcodl.common.URLFactory;
 import io.github.imsejin.lzcodl.common.constant.EpisodeRange;
@@ -32,7 +34,10 @@ import me.tongfei.progressbar.ConsoleProgressBarConsumer;
 import me.tongfei.progressbar.ProgressBar;
 import me.tongfei.progressbar.ProgressBarBuilder;
 import me.tongfei.progressbar.ProgressBarStyle;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
@@ -66,6 +71,21 @@ public final class Downloader {
      */
     private final Path comicDir;
 
+    /**
+     * Fetcher which hedges slow images, {@code null} if hedging is disabled.
+     *
+     * @since 2.9.0
+     */
+    @Nullable
+    private final HedgedFetcher hedgedFetcher;
+
+    /**
+     * Whether the locale setting of the browser is changed for episode pages.
+     *
+     * @since 2.9.0
+     */
+    private boolean localeChanged;
+
     public Downloader(Arguments args) {
         this(args, createDirectory(args.getProduct()));
     }
@@ -78,6 +98,7 @@ public final class Downloader {
         this.args = args;
         this.urlFactory = new URLFactory(args);
         this.comicDir = comicDir;
+        this.hedgedFetcher = args.isHedging() ? createHedgedFetcher() : null;
 
         // Creates a directory to save episodes.
         if (!comicDir.toFile().isDirectory()) Files.createDirectories(comicDir);
@@ -114,6 +135,36 @@ public final class Downloader {
         }
     }
 
+    /**
+     * Creates a fetcher which hedges slow images.
+     *
+     * <p> Its scheduler runs on a daemon thread, so it doesn't need to be closed before exit.
+     * The client shares dispatcher, circuit breakers and decoding of compressed response
+     * with the services.
+     *
+     * @return hedged fetcher
+     * @since 2.9.0
+     */
+    private static HedgedFetcher createHedgedFetcher() {
+        // Images are never cached.
+        OkHttpClient httpClient = BaseService.getSharedHttpClient().newBuilder().cache(null).build();
+
+        return new HedgedFetcher(httpClient, HedgedFetcher.Config.ofDefault());
+    }
+
+    /**
+     * Returns whether downloading needs the browser.
+     *
+     * <p> Only the platforms other than Korea need it to count images in the episode.
+     * Otherwise the browser can be quit before downloading.
+     *
+     * @return whether browser is needed
+     * @since 2.9.0
+     */
+    public boolean requiresBrowser() {
+        return this.args.getLanguage() != Languages.KOREAN;
+    }
+
     public void download() throws IOException {
         EpisodeRange episodeRange = EpisodeRange.from(this.args.getEpisodeRange());
 
@@ -129,9 +180,18 @@ public final class Downloader {
         if (!episode.isFree()) return;
 
         // 한국이 아닌 다른 국가의 플랫폼은 에피소드 API를 찾을 수 없어, 직접 크롤링한다.
-        final int numOfImages = arguments.getLanguage() == Languages.KOREAN
-                ? getNumOfImagesInEpisode(arguments, episode)
-                : Crawler.getNumOfImagesInEpisode(arguments, episode);
+        final int numOfImages;
+        if (requiresBrowser()) {
+            // Product can be cached, so the locale setting is changed only when the browser requests episode page.
+            if (!this.localeChanged) {
+                Crawler.changeLocale(arguments);
+                this.localeChanged = true;
+            }
+
+            numOfImages = Crawler.getNumOfImagesInEpisode(arguments, episode);
+        } else {
+            numOfImages = getNumOfImagesInEpisode(arguments, episode);
+        }
 
         // If episode has no image, skips this episode.
         if (numOfImages < 1) return;
@@ -168,9 +228,15 @@ public final class Downloader {
     /**
      * Creates a image file with the image URL. Returns {@code true} if success or {@code false}.
      */
-    private static boolean downloadImage(URL url, Path dest) {
+    private boolean downloadImage(URL url, Path dest) {
         try {
-            FileUtils.download(url, dest);
+            if (this.hedgedFetcher == null) {
+                FileUtils.download(url, dest);
+            } else {
+                byte[] bytes = this.hedgedFetcher.fetch(new Request.Builder().url(url).build());
+                Files.write(dest, bytes);
+            }
+
             return true;
         } catch (Exception e) {
             return false;
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.lzcodl.core;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.github.imsejin.common.util.FilenameUtils;
+import io.github.imsejin.dl.lezhin.common.Loggers;
+import io.github.imsejin.lzcodl.common.constant.Languages;
+import io.github.imsejin.lzcodl.common.json.ModelTypeAdapterFactory;
+import io.github.imsejin.lzcodl.model.Episode;
+import io.github.imsejin.lzcodl.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * On-disk cache of product
+ *
+ * <p> Product rarely changes between two runs, so this keeps it in the directory {@code .cache/products}
+ * with the time it was fetched at. Within {@link #getTtl() TTL} the cached product is used without
+ * requesting comic page. After that, the product is fetched again and the cached one only fills
+ * what it lacks.
+ *
+ * <p> This also remembers whether the comic is expired, so that crawler goes to 'My Library'
+ * without requesting the public comic page first.
+ *
+ * @since 2.9.0
+ */
+public final class ProductCache {
+
+    /**
+     * Default time to live of the cached product.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    private static final Gson GSON = ModelTypeAdapterFactory.GSON;
+
+    private final Path cacheDir;
+
+    @Getter
+    private final Duration ttl;
+
+    public ProductCache(Path basePath) {
+        this(basePath, DEFAULT_TTL);
+    }
+
+    public ProductCache(Path basePath, Duration ttl) {
+        this.cacheDir = basePath.resolve(".cache").resolve("products");
+        this.ttl = ttl;
+    }
+
+    /**
+     * Loads the cached entry of the comic.
+     *
+     * <p> If the cache file is corrupt, it is deleted and treated as absent.
+     *
+     * @param language  language of the comic
+     * @param comicName comic name in URI
+     * @return cached entry
+     */
+    public Optional<Entry> load(Languages language, String comicName) {
+        Path filePath = resolve(language, comicName);
+        if (!Files.isRegularFile(filePath)) {
+            return Optional.empty();
+        }
+
+        try {
+            String json = Files.readString(filePath, StandardCharsets.UTF_8);
+            Entry entry = GSON.fromJson(json, Entry.class);
+
+            if (entry == null || entry.product == null || entry.product.getEpisodes() == null) {
+                throw new JsonParseException("Product is missing");
+            }
+
+            return Optional.of(entry);
+        } catch (IOException | JsonParseException e) {
+            Loggers.getLogger().debug("Discard the corrupt product cache: {}", filePath, e);
+            delete(filePath);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the product as fetched just now.
+     *
+     * @param language     language of the comic
+     * @param comicName    comic name in URI
+     * @param product      product before preprocessing
+     * @param expiredComic whether the comic is expired
+     */
+    public void save(Languages language, String comicName, Product product, boolean expiredComic) {
+        Entry entry = new Entry(System.currentTimeMillis(), expiredComic, product);
+        Path filePath = resolve(language, comicName);
+
+        try {
+            Files.createDirectories(this.cacheDir);
+            Files.writeString(filePath, GSON.toJson(entry), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // The cache is just an optimization.
+            Loggers.getLogger().debug("Failed to save the product cache: {}", filePath, e);
+        }
+    }
+
+    /**
+     * Returns whether the entry is still fresh.
+     *
+     * @param entry cached entry
+     * @return whether the entry is fetched within TTL
+     */
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.fetchedAt < this.ttl.toMillis();
+    }
+
+    /**
+     * Merges the cached product into the newly fetched one.
+     *
+     * <p> The fetched product is authoritative, so its episodes are taken in its order with their
+     * current values, and the episodes removed from the comic are dropped. The cached data fills only
+     * what the fetched product lacks.
+     *
+     * @param cached  cached product
+     * @param fetched newly fetched product
+     * @return merged product
+     */
+    public static Product merge(Product cached, Product fetched) {
+        Product product = new Product();
+        product.setDisplay(Optional.ofNullable(fetched.getDisplay()).orElse(cached.getDisplay()));
+        product.setArtists(Optional.ofNullable(fetched.getArtists()).orElse(cached.getArtists()));
+        product.setAlias(Optional.ofNullable(fetched.getAlias()).orElse(cached.getAlias()));
+        product.setId(fetched.getId() == 0 ? cached.getId() : fetched.getId());
+
+        if (fetched.getEpisodes() == null) {
+            product.setEpisodes(cached.getEpisodes());
+            return product;
+        }
+
+        Map<Long, Episode> cachedEpisodes = cached.getEpisodes().stream()
+                .collect(toMap(Episode::getId, Function.identity(), (a, b) -> a));
+
+        List<Episode> episodes = new ArrayList<>();
+        for (Episode episode : fetched.getEpisodes()) {
+            Episode cachedEpisode = cachedEpisodes.remove(episode.getId());
+            if (cachedEpisode != null) {
+                fillMissing(episode, cachedEpisode);
+            }
+
+            episodes.add(episode);
+        }
+
+        Loggers.getLogger().debug("{} episode(s) are removed since the product was cached", cachedEpisodes.size());
+
+        product.setEpisodes(episodes);
+
+        return product;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static void fillMissing(Episode episode, Episode cached) {
+        if (episode.getName() == null) episode.setName(cached.getName());
+        if (episode.getDisplay() == null) episode.setDisplay(cached.getDisplay());
+        if (episode.getProperties() == null) episode.setProperties(cached.getProperties());
+    }
+
+    private Path resolve(Languages language, String comicName) {
+        String fileName = FilenameUtils.replaceUnallowables(language.getValue() + '_' + comicName) + ".json";
+        return this.cacheDir.resolve(fileName);
+    }
+
+    private static void delete(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Entry {
+        /**
+         * Epoch milliseconds when the product was fetched.
+         */
+        private final long fetchedAt;
+
+        private final boolean expiredComic;
+
+        private final Product product;
+    }
+
+}
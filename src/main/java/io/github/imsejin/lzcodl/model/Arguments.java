@@ -37,7 +37,7 @@ import java.util.Map;
  */
 @Getter
 @Setter
-@ToString(of = {"language", "comicName", "episodeRange", "imageFormat", "debugging"})
+@ToString(of = {"language", "comicName", "episodeRange", "imageFormat", "hedging", "debugging"})
 public class Arguments {
 
     private final String username;
@@ -56,6 +56,11 @@ public class Arguments {
      */
     private final boolean debugging;
 
+    /**
+     * @since 2.9.0
+     */
+    private final boolean hedging;
+
     private String accessToken;
     private Product product;
 
@@ -100,7 +105,7 @@ public class Arguments {
     }
 
     @Builder
-    private Arguments(String language, String comicName, String episodeRange, boolean jpg, boolean debugging) {
+    private Arguments(String language, String comicName, String episodeRange, boolean jpg, boolean hedging, boolean debugging) {
         // 유효하지 않은 에피소드 범위의 경우
         if (EpisodeRange.invalidate(episodeRange)) {
             throw new EpisodeRangeParseException("Invalid episode range: '%s'", episodeRange);
@@ -110,6 +115,7 @@ public class Arguments {
         this.comicName = comicName;
         this.episodeRange = episodeRange;
         this.imageFormat = jpg ? "jpg" : "webp";
+        this.hedging = hedging;
         this.debugging = debugging;
     }
 
@@ -0,0 +1,135 @@
+package io.github.imsejin.dl.lezhin.annotation.processing
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import javax.tools.Diagnostic
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaFileObject
+import javax.tools.SimpleJavaFileObject
+import javax.tools.StandardLocation
+import javax.tools.ToolProvider
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ProcessorRegistryGeneratorSpec extends Specification {
+
+    @TempDir
+    Path outputPath
+
+    private static JavaFileObject processor(String name, List<String> dependsOn, String constructor = "") {
+        def annotation = dependsOn.isEmpty() ? "@ProcessSpecification"
+                : "@ProcessSpecification(dependsOn = {${dependsOn.collect { "${it}.class" }.join(", ")}})"
+        def source = """
+            package sample;
+
+            import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification;
+            import io.github.imsejin.dl.lezhin.process.ProcessContext;
+            import io.github.imsejin.dl.lezhin.process.Processor;
+
+            ${annotation}
+            public class ${name} implements Processor {
+                ${constructor}
+
+                @Override
+                public Object process(ProcessContext context) {
+                    return null;
+                }
+            }
+        """
+
+        new SimpleJavaFileObject(URI.create("string:///sample/${name}.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            CharSequence getCharContent(boolean ignoreEncodingErrors) { source }
+        }
+    }
+
+    private Map compile(JavaFileObject... sources) {
+        def compiler = ToolProvider.systemJavaCompiler
+        def diagnostics = new DiagnosticCollector<JavaFileObject>()
+        def fileManager = compiler.getStandardFileManager(diagnostics, null, null)
+        fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, [outputPath])
+        fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, [outputPath])
+
+        def task = compiler.getTask(null, fileManager, diagnostics,
+                ["-proc:only", "-classpath", System.getProperty("java.class.path")], null, sources as List)
+        task.processors = [new ProcessorRegistryGenerator()]
+        task.call()
+        fileManager.close()
+
+        def generated = outputPath.resolve("io/github/imsejin/dl/lezhin/process/framework/GeneratedProcessorRegistry.java")
+        [
+                errors   : diagnostics.diagnostics.findAll { it.kind == Diagnostic.Kind.ERROR }*.getMessage(Locale.ROOT),
+                generated: Files.exists(generated) ? Files.readString(generated) : null,
+        ]
+    }
+
+    def "Generates registry in order of dependency"() {
+        when:
+        def result = compile(
+                processor("Third", ["Second"], "public Third(java.util.Locale locale, java.nio.file.Path basePath) {}"),
+                processor("First", []),
+                processor("Second", ["First"], "public Second(String name) {} public Second(java.nio.file.Path basePath) {}"))
+
+        then:
+        result.errors.isEmpty()
+        result.generated.contains("""
+            sample.First.class,
+            sample.Second.class,
+            sample.Third.class);
+""")
+        result.generated.contains("""
+                new sample.First(),
+                new sample.Second(basePath),
+                new sample.Third(locale, basePath));
+""")
+    }
+
+    def "Generates registry with dependency graph which is not linear"() {
+        when:
+        def result = compile(
+                processor("Join", ["Left", "Right"]),
+                processor("Right", ["First"]),
+                processor("Left", ["First"]),
+                processor("First", []),
+                processor("Other", []))
+
+        then:
+        result.errors.isEmpty()
+        result.generated.contains("""
+            sample.First.class,
+            sample.Left.class,
+            sample.Other.class,
+            sample.Right.class,
+            sample.Join.class);
+""")
+        result.generated.contains("Map.entry(sample.Join.class, List.of(sample.Left.class, sample.Right.class))")
+        result.generated.contains("Map.entry(sample.Other.class, List.of())")
+    }
+
+    def "Fails when the dependency graph is not valid"() {
+        when:
+        def result = compile(sources as JavaFileObject[])
+
+        then:
+        result.generated == null
+        result.errors.any { it.contains(message) }
+
+        where:
+        sources                                                                                    || message
+        [processor("First", ["Second"]), processor("Second", ["First"])]                           || "no @ProcessSpecification as a starting process"
+        [processor("First", []), processor("Second", ["Second"])]                                  || "self-referential"
+        [processor("First", []), processor("Second", ["First", "Third"]), processor("Third", ["Second"])] || "There is a cycle"
+        [processor("First", []), processor("Second", ["java.lang.String"])]                        || "must be an implementation of Processor"
+    }
+
+    def "Fails when there is no constructor with the beans"() {
+        when:
+        def result = compile(processor("First", [], "public First(String name) {}"))
+
+        then:
+        result.generated == null
+        result.errors.any { it.contains("There is no public constructor") }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api
+
+import io.github.imsejin.dl.lezhin.http.interceptor.FabricatedHeadersInterceptor
+import spock.lang.Specification
+
+class BaseServiceSpec extends Specification {
+
+    private static class TestService extends BaseService {
+        TestService(Locale locale, UUID accessToken) {
+            super(locale, accessToken)
+        }
+    }
+
+    def "Shares HTTP client in the same session"() {
+        given:
+        def token = UUID.randomUUID()
+
+        when:
+        def first = new TestService(Locale.KOREA, token).httpClient
+        def second = new TestService(Locale.KOREA, token).httpClient
+
+        then:
+        first.is(second)
+    }
+
+    def "Separates HTTP client of each session"() {
+        given:
+        def token = UUID.randomUUID()
+
+        when:
+        def korean = new TestService(Locale.KOREA, token).httpClient
+        def english = new TestService(Locale.US, token).httpClient
+        def other = new TestService(Locale.KOREA, UUID.randomUUID()).httpClient
+
+        then: "Each session has its own headers"
+        !korean.is(english)
+        !korean.is(other)
+        interceptorOf(korean).locale == Locale.KOREA
+        interceptorOf(english).locale == Locale.US
+        interceptorOf(other).accessToken != token
+
+        and: "Connection pool and dispatcher are shared"
+        korean.connectionPool().is(english.connectionPool())
+        korean.dispatcher().is(other.dispatcher())
+    }
+
+    private static FabricatedHeadersInterceptor interceptorOf(client) {
+        client.interceptors().find { it instanceof FabricatedHeadersInterceptor } as FabricatedHeadersInterceptor
+    }
+
+}
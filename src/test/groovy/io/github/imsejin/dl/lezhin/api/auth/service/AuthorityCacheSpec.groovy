@@ -0,0 +1,176 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.auth.service
+
+import io.github.imsejin.dl.lezhin.api.auth.model.Authority
+import io.github.imsejin.dl.lezhin.api.auth.model.ServiceRequest
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+class AuthorityCacheSpec extends Specification {
+
+    private static CompletableFuture<Authority> authority(String signature, long lifetime) {
+        // Server clock is far from client clock.
+        def now = 1_000_000L
+        CompletableFuture.completedFuture(new Authority("policy", signature, "KEY", now + lifetime, now))
+    }
+
+    def "Serves cached authority without loading again"() {
+        given:
+        def count = new AtomicInteger()
+        def cache = new AuthorityCache({ authority("sig-${count.incrementAndGet()}", 60_000) })
+        def request = new ServiceRequest(contentId: 1, episodeId: 2)
+
+        when:
+        def first = cache.get(request)
+        def second = cache.get(new ServiceRequest(contentId: 1, episodeId: 2))
+        def other = cache.get(new ServiceRequest(contentId: 1, episodeId: 3))
+
+        then:
+        first.is(second)
+        !first.is(other)
+        count.get() == 2
+        cache.size() == 2
+
+        cleanup:
+        cache.close()
+    }
+
+    def "Loads again when authority is expired"() {
+        given:
+        def count = new AtomicInteger()
+        def cache = new AuthorityCache({ authority("sig-${count.incrementAndGet()}", 0) })
+        def request = new ServiceRequest(contentId: 1, episodeId: 2)
+
+        when:
+        def first = cache.get(request)
+        def second = cache.get(request)
+
+        then:
+        first.signature == "sig-1"
+        second.signature == "sig-2"
+
+        cleanup:
+        cache.close()
+    }
+
+    def "Refreshes authority before it is expired"() {
+        given:
+        def count = new AtomicInteger()
+        def cache = new AuthorityCache({ authority("sig-${count.incrementAndGet()}", 500) }, Duration.ofMillis(400))
+        def request = new ServiceRequest(contentId: 1, episodeId: 2)
+
+        when:
+        def first = cache.get(request)
+
+        then:
+        first.signature == "sig-1"
+        new PollingConditions(timeout: 3).eventually {
+            assert count.get() >= 2
+            assert cache.get(request).signature != "sig-1"
+        }
+
+        cleanup:
+        cache.close()
+    }
+
+    def "Doesn't cache failure"() {
+        given:
+        def count = new AtomicInteger()
+        def cache = new AuthorityCache({
+            if (count.incrementAndGet() == 1) throw new IllegalStateException("failure")
+            authority("sig", 60_000)
+        })
+        def request = new ServiceRequest(contentId: 1, episodeId: 2)
+
+        when:
+        cache.get(request)
+
+        then:
+        thrown(IllegalStateException)
+        cache.size() == 0
+
+        when:
+        def loaded = cache.get(request)
+
+        then:
+        loaded.signature == "sig"
+        count.get() == 2
+
+        cleanup:
+        cache.close()
+    }
+
+    def "Gets all authorities with bounded parallelism"() {
+        given:
+        def inFlight = new AtomicInteger()
+        def maxInFlight = new AtomicInteger()
+        def executor = Executors.newFixedThreadPool(8)
+        def cache = new AuthorityCache({ request ->
+            CompletableFuture.supplyAsync({
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max)
+                Thread.sleep(20)
+                inFlight.decrementAndGet()
+                new Authority("policy", "sig-${request.episodeId}", "KEY", 60_000, 0)
+            }, executor)
+        })
+        def requests = (1..20).collect { new ServiceRequest(contentId: 1, episodeId: it) }
+
+        when:
+        def authorities = cache.getAllAsync(requests, 3).join()
+
+        then:
+        authorities*.signature == (1..20).collect { "sig-$it" }
+        maxInFlight.get() <= 3
+        cache.size() == 20
+
+        cleanup:
+        cache.close()
+        executor.shutdown()
+    }
+
+    def "Serves authorities put from the other cache"() {
+        given:
+        def count = new AtomicInteger()
+        def previous = new AuthorityCache({ authority("sig-${count.incrementAndGet()}", 60_000) })
+        previous.get(new ServiceRequest(contentId: 1, episodeId: 2))
+        previous.get(new ServiceRequest(contentId: 1, episodeId: 3))
+        previous.close()
+
+        def cache = new AuthorityCache({ authority("sig-${count.incrementAndGet()}", 60_000) })
+        def expired = new AuthorityCache.CachedAuthority(1, 4, false, authority("sig-0", 0).join(), 0)
+
+        when:
+        cache.putAll(previous.getAll() + expired)
+
+        then:
+        cache.size() == 2
+        cache.contains(new ServiceRequest(contentId: 1, episodeId: 2))
+        !cache.contains(new ServiceRequest(contentId: 1, episodeId: 4))
+        cache.get(new ServiceRequest(contentId: 1, episodeId: 3)).signature == "sig-2"
+        count.get() == 2
+
+        cleanup:
+        cache.close()
+    }
+
+}
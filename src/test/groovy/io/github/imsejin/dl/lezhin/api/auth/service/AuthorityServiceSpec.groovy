@@ -17,18 +17,28 @@
 package io.github.imsejin.dl.lezhin.api.auth.service
 
 import io.github.imsejin.dl.lezhin.api.auth.model.ServiceRequest
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
 import spock.lang.Specification
 
 class AuthorityServiceSpec extends Specification {
 
+    @Shared
+    @AutoCleanup
+    FakeLezhinServer server = FakeLezhinServer.builder().build().start()
+
+    def setupSpec() {
+        server.overrideOrigins()
+    }
+
     def "Gets authority for viewing episode"() {
         given:
         def service = new AuthorityService(Locale.KOREA, new UUID(0, 0))
 
         when:
         // First episode doesn't need access token in HTTP header.
-        // https://www.lezhin.com/ko/comic/bff/p1
-        def request = new ServiceRequest(contentId: 5474379383439360, episodeId: 6310446659534848, firstCheckType: 'P' as char)
+        def request = new ServiceRequest(contentId: FakeLezhinServer.CONTENT_ID, episodeId: 1, firstCheckType: 'P' as char)
         def response = service.getAuthForViewEpisode(request)
 
         then:
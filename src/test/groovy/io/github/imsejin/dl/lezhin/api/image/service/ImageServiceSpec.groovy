@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.image.service
+
+import com.sun.net.httpserver.HttpServer
+import io.github.imsejin.dl.lezhin.api.auth.model.Authority
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import okhttp3.HttpUrl
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ImageServiceSpec extends Specification {
+
+    @TempDir
+    Path tempPath
+
+    def "Gets image URL signed by authority"() {
+        given:
+        def authority = new Authority("policy+/=", "signature", "KEY", 2000, 1000)
+
+        when:
+        def url = ImageService.getImageUrl(1, 2, 3, 4, "webp", authority)
+
+        then:
+        url.encodedPath() == "/v2/comics/1/episodes/2/contents/scrolls/4.webp"
+        url.queryParameter("purchased") == "false"
+        url.queryParameter("q") == "30"
+        url.queryParameter("updated") == "3"
+        url.queryParameter("Policy") == "policy+/="
+        url.queryParameter("Signature") == "signature"
+        url.queryParameter("Key-Pair-Id") == "KEY"
+    }
+
+    def "Downloads image to the file"() {
+        given:
+        def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/image.webp") { exchange ->
+            def body = new byte[100_000]
+            new Random(0).nextBytes(body)
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.responseBody.withCloseable { it.write(body) }
+        }
+        server.createContext("/missing.webp") { exchange ->
+            exchange.sendResponseHeaders(404, -1)
+            exchange.close()
+        }
+        server.start()
+
+        and:
+        def service = new ImageService(Locale.KOREA, UUID.randomUUID())
+        def url = { String path -> HttpUrl.get("http://127.0.0.1:${server.address.port}$path") }
+
+        when:
+        def dest = service.downloadAsync(url("/image.webp"), tempPath.resolve("001.webp")).join()
+
+        then:
+        Files.size(dest) == 100_000
+        Files.list(tempPath).count() == 1
+
+        when:
+        service.downloadAsync(url("/missing.webp"), tempPath.resolve("002.webp")).join()
+
+        then:
+        thrown(Exception)
+        Files.notExists(tempPath.resolve("002.webp"))
+
+        cleanup:
+        server.stop(0)
+    }
+
+    def "Emits event of image fetch"() {
+        given:
+        def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/image.webp") { exchange ->
+            exchange.sendResponseHeaders(200, 1_000)
+            exchange.responseBody.withCloseable { it.write(new byte[1_000]) }
+        }
+        server.createContext("/missing.webp") { exchange ->
+            exchange.sendResponseHeaders(404, -1)
+            exchange.close()
+        }
+        server.start()
+
+        and:
+        def service = new ImageService(Locale.KOREA, UUID.randomUUID())
+        def url = { String path -> HttpUrl.get("http://127.0.0.1:${server.address.port}$path") }
+        def recording = new Recording()
+        recording.enable("io.github.imsejin.dl.lezhin.ImageFetch")
+        recording.start()
+
+        when:
+        service.downloadAsync(url("/image.webp"), tempPath.resolve("001.webp")).join()
+        service.downloadAsync(url("/missing.webp"), tempPath.resolve("002.webp")).handle { path, e -> path }.join()
+        recording.stop()
+
+        def dump = tempPath.resolve("recording.jfr")
+        recording.dump(dump)
+        def events = RecordingFile.readAllEvents(dump).sort { it.getInt("status") }
+
+        then:
+        events.size() == 2
+        events*.getString("host") == ["127.0.0.1", "127.0.0.1"]
+        events*.getInt("status") == [200, 404]
+        events*.getLong("size") == [1_000, 0]
+        events*.getString("outcome") == ["SUCCESS", "FAILURE"]
+
+        cleanup:
+        recording?.close()
+        server.stop(0)
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.api.login.service
+
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication
+import io.github.imsejin.dl.lezhin.exception.LoginFailureException
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class LoginServiceSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    FakeLezhinServer server = FakeLezhinServer.builder().username("user@lezhin.com").password("password").build().start()
+
+    def setupSpec() {
+        server.overrideOrigins()
+    }
+
+    def "Logs in and gets access token"() {
+        given:
+        def service = new LoginService(locale)
+
+        when:
+        def session = service.login(new Authentication("user@lezhin.com", "password"))
+
+        then:
+        session.username == "user@lezhin.com"
+        session.locale == locale
+        session.accessToken == server.accessToken
+        session.cookies*.name == ["_lz_session"]
+
+        where:
+        locale << [Locale.KOREA, Locale.US, Locale.JAPAN]
+    }
+
+    def "Fails to log in with invalid password"() {
+        given:
+        def service = new LoginService(Locale.KOREA)
+
+        when:
+        service.login(new Authentication("user@lezhin.com", "invalid"))
+
+        then:
+        thrown(LoginFailureException)
+    }
+
+}
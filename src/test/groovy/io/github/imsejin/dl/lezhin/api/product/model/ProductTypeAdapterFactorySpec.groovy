@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.api.product.model
+
+import com.google.gson.Gson
+import io.github.imsejin.lzcodl.benchmark.ProductFixtures
+import spock.lang.Specification
+
+import static org.assertj.core.api.Assertions.assertThat
+
+class ProductTypeAdapterFactorySpec extends Specification {
+
+    private static final Gson REFLECTIVE = new Gson()
+
+    def "Reads product as reflective Gson does"() {
+        given:
+        def json = ProductFixtures.product(1500)
+
+        when:
+        def expected = REFLECTIVE.fromJson(json, Product)
+        def actual = ProductTypeAdapterFactory.GSON.fromJson(json, Product)
+
+        then:
+        actual.episodes.size() == 1500
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected)
+    }
+
+    def "Reads null and missing fields"() {
+        given:
+        def json = '{"id":null,"display":null,"artists":null,"alias":"alias",' +
+                '"episodes":[{"id":null,"name":null,"seq":null,"display":{"title":"1"}}]}'
+
+        when:
+        def product = ProductTypeAdapterFactory.GSON.fromJson(json, Product)
+
+        then:
+        product.id == null
+        product.display == null
+        product.artists == null
+        product.alias == "alias"
+        product.episodes.size() == 1
+        with(product.episodes[0]) {
+            id == null
+            name == null
+            seq == 0
+            display.title == "1"
+            display.displayName == null
+        }
+    }
+
+    def "Writes product which is read back as the same"() {
+        given:
+        def product = ProductTypeAdapterFactory.GSON.fromJson(ProductFixtures.product(10), Product)
+
+        when:
+        def json = ProductTypeAdapterFactory.GSON.toJson(product)
+
+        then:
+        assertThat(REFLECTIVE.fromJson(json, Product)).usingRecursiveComparison().isEqualTo(product)
+    }
+
+}
@@ -75,4 +75,28 @@ class EpisodeRangeSpec extends Specification {
         "29~30" | value
     }
 
+    def "Gets indexes of episodes"() {
+        given:
+        def episodeRange = new EpisodeRange()
+
+        when:
+        episodeRange.value = value
+        def actual = episodeRange.getArray(numOfEpisodes)
+
+        then:
+        actual == expected as int[]
+
+        where:
+        value  | numOfEpisodes || expected
+        ""     | 3             || [0, 1, 2]
+        ""     | 0             || []
+        "2"    | 3             || [1]
+        "4"    | 3             || []
+        "2~"   | 4             || [1, 2, 3]
+        "~2"   | 4             || [0, 1]
+        "~10"  | 4             || [0, 1, 2, 3]
+        "2~3"  | 4             || [1, 2]
+        "3~10" | 4             || [2, 3]
+    }
+
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.cache
+
+import okhttp3.MediaType
+import okhttp3.Request
+import okhttp3.RequestBody
+import spock.lang.Specification
+
+class CacheRuleSpec extends Specification {
+
+    def "Finds rule of the request"() {
+        given:
+        def request = new Request.Builder().url(url).build()
+
+        expect:
+        CacheRule.from(request).orElse(null) == expected
+
+        where:
+        url                                                                                       || expected
+        "https://www.lezhin.com/ko/comic/snail"                                                   || CacheRule.PRODUCT
+        "https://www.lezhinus.com/en/comic/snail"                                                 || CacheRule.PRODUCT
+        "https://cdn.lezhin.com/episodes/snail/1.json?access_token=0"                             || CacheRule.EPISODE_METADATA
+        "https://www.lezhin.com/lz-api/v2/cloudfront/signed-url/generate?contentId=1&episodeId=2" || CacheRule.SIGNED_URL
+        "https://ccdn.lezhin.com/v2/comics/1/episodes/2/contents/scrolls/1.webp?q=30"             || CacheRule.IMAGE
+        "https://www.lezhin.com/ko"                                                               || null
+        "https://www.lezhin.com/ko/login"                                                         || null
+        "https://www.lezhin.com/ko/comic/snail/1"                                                 || null
+    }
+
+    def "Doesn't apply rule to the request other than GET"() {
+        given:
+        def body = RequestBody.create(MediaType.get("application/x-www-form-urlencoded"), "")
+        def request = new Request.Builder().url("https://www.lezhin.com/ko/comic/snail").post(body).build()
+
+        expect:
+        CacheRule.from(request).isEmpty()
+    }
+
+    def "Converts to cache control"() {
+        expect:
+        rule.toCacheControl() == expected
+
+        where:
+        rule                        || expected
+        CacheRule.PRODUCT           || "private, max-age=600"
+        CacheRule.EPISODE_METADATA  || "private, max-age=600"
+        CacheRule.SIGNED_URL        || "no-store"
+        CacheRule.IMAGE             || "no-store"
+    }
+
+}
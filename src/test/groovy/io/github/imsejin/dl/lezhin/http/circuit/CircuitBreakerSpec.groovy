@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.circuit
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+import static io.github.imsejin.dl.lezhin.http.circuit.CircuitBreaker.State.*
+
+class CircuitBreakerSpec extends Specification {
+
+    private static CircuitBreaker.Config config() {
+        CircuitBreaker.Config.builder()
+                .failureRateThreshold(0.5F)
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .waitDurationInOpenState(Duration.ofSeconds(10))
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build()
+    }
+
+    def "Opens when failure rate reaches the threshold"() {
+        given:
+        def circuitBreaker = new CircuitBreaker(Endpoint.IMAGE, config(), { 0L })
+
+        when:
+        3.times { circuitBreaker.tryAcquirePermission(); circuitBreaker.onFailure() }
+
+        then: "Failure rate is not computed until the minimum number of calls"
+        circuitBreaker.state == CLOSED
+
+        when:
+        circuitBreaker.tryAcquirePermission()
+        circuitBreaker.onSuccess()
+
+        then:
+        circuitBreaker.state == OPEN
+        circuitBreaker.metrics.failureRate == 0.75F
+        circuitBreaker.metrics.transitions == 1
+    }
+
+    def "Evicts the oldest outcome from the sliding window"() {
+        given:
+        def circuitBreaker = new CircuitBreaker(Endpoint.IMAGE, config(), { 0L })
+
+        when:
+        circuitBreaker.onFailure()
+        4.times { circuitBreaker.onSuccess() }
+        circuitBreaker.onFailure()
+
+        then:
+        circuitBreaker.state == CLOSED
+        circuitBreaker.metrics.bufferedCalls == 4
+        circuitBreaker.metrics.failedCalls == 1
+    }
+
+    def "Rejects calls while open and lets probes through when half-open"() {
+        given:
+        def now = 0L
+        def circuitBreaker = new CircuitBreaker(Endpoint.SIGNED_URL, config(), { now })
+        4.times { circuitBreaker.onFailure() }
+
+        expect:
+        circuitBreaker.state == OPEN
+        circuitBreaker.tryAcquirePermission() == Optional.of(Duration.ofSeconds(10))
+
+        when:
+        now = 4_000L
+        def rejected = circuitBreaker.tryAcquirePermission()
+
+        then:
+        rejected == Optional.of(Duration.ofSeconds(6))
+        circuitBreaker.metrics.notPermittedCalls == 2
+
+        when:
+        now = 10_000L
+        def probes = (1..3).collect { circuitBreaker.tryAcquirePermission() }
+
+        then:
+        circuitBreaker.state == HALF_OPEN
+        probes*.isEmpty() == [true, true, false]
+
+        when:
+        2.times { circuitBreaker.onSuccess() }
+
+        then:
+        circuitBreaker.state == CLOSED
+        circuitBreaker.metrics.bufferedCalls == 0
+        circuitBreaker.tryAcquirePermission().isEmpty()
+    }
+
+    def "Opens again when a probe fails"() {
+        given:
+        def now = 0L
+        def circuitBreaker = new CircuitBreaker(Endpoint.LOGIN, config(), { now })
+        4.times { circuitBreaker.onFailure() }
+        now = 10_000L
+
+        when:
+        circuitBreaker.tryAcquirePermission()
+        circuitBreaker.onFailure()
+
+        then:
+        circuitBreaker.state == OPEN
+        circuitBreaker.tryAcquirePermission() == Optional.of(Duration.ofSeconds(10))
+    }
+
+    def "Released permission lets another probe through"() {
+        given:
+        def now = 0L
+        def circuitBreaker = new CircuitBreaker(Endpoint.IMAGE, config(), { now })
+        4.times { circuitBreaker.onFailure() }
+        now = 10_000L
+        2.times { circuitBreaker.tryAcquirePermission() }
+
+        expect:
+        circuitBreaker.tryAcquirePermission().isPresent()
+
+        when:
+        circuitBreaker.releasePermission()
+
+        then:
+        circuitBreaker.tryAcquirePermission().isEmpty()
+    }
+
+    def "Fails to create with invalid config"() {
+        when:
+        new CircuitBreaker(Endpoint.IMAGE, CircuitBreaker.Config.builder()
+                .failureRateThreshold(threshold).slidingWindowSize(10).minimumNumberOfCalls(minimum).build())
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        threshold | minimum
+        0F        | 5
+        1.5F      | 5
+        0.5F      | 0
+        0.5F      | 11
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.hedge
+
+import spock.lang.Specification
+
+class HedgeBudgetSpec extends Specification {
+
+    def "Caps hedges at the ratio of requests"() {
+        given:
+        def budget = new HedgeBudget(0.1, 10)
+
+        when:
+        def hedges = (1..100).count {
+            budget.deposit()
+            budget.tryWithdraw()
+        }
+
+        then:
+        hedges == 10
+    }
+
+    def "Doesn't save up tokens over the max"() {
+        given:
+        def budget = new HedgeBudget(0.5, 2)
+
+        when:
+        1000.times { budget.deposit() }
+        def hedges = (1..10).count { budget.tryWithdraw() }
+
+        then:
+        hedges == 2
+    }
+
+}
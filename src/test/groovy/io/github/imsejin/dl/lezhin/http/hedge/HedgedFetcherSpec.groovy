@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.hedge
+
+import com.sun.net.httpserver.HttpServer
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+class HedgedFetcherSpec extends Specification {
+
+    HttpServer server
+
+    AtomicInteger slowHits = new AtomicInteger()
+
+    def setup() {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/fast") { exchange ->
+            def body = "fast".bytes
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.responseBody.withCloseable { it.write(body) }
+        }
+        server.createContext("/slow") { exchange ->
+            // Only the first request is slow.
+            def body = slowHits.incrementAndGet() == 1 ? "slow" : "hedge"
+            if (body == "slow") Thread.sleep(3000)
+            exchange.sendResponseHeaders(200, body.length())
+            exchange.responseBody.withCloseable { it.write(body.bytes) }
+        }
+        server.createContext("/error") { exchange ->
+            exchange.sendResponseHeaders(503, -1)
+            exchange.close()
+        }
+        server.executor = Executors.newCachedThreadPool()
+        server.start()
+    }
+
+    def cleanup() {
+        server.stop(0)
+        (server.executor as ExecutorService).shutdownNow()
+    }
+
+    private Request request(String path) {
+        new Request.Builder().url("http://127.0.0.1:${server.address.port}$path").build()
+    }
+
+    private static HedgedFetcher fetcher(double budgetRatio) {
+        def config = HedgedFetcher.Config.builder()
+                .minimumSamples(5)
+                .minimumDelay(Duration.ofMillis(50))
+                .budgetRatio(budgetRatio)
+                .build()
+
+        new HedgedFetcher(new OkHttpClient(), config)
+    }
+
+    def "Doesn't hedge until enough latencies are tracked"() {
+        given:
+        def fetcher = fetcher(1)
+
+        expect:
+        fetcher.hedgeDelay.isEmpty()
+
+        when:
+        5.times { fetcher.fetch(request("/fast")) }
+
+        then:
+        fetcher.hedgeDelay.get() >= Duration.ofMillis(50)
+        fetcher.hedgeCount == 0
+
+        cleanup:
+        fetcher.close()
+    }
+
+    def "Takes the hedge when the original request is slow"() {
+        given:
+        def fetcher = fetcher(0.5)
+        5.times { fetcher.fetch(request("/fast")) }
+
+        when:
+        def startedAt = System.nanoTime()
+        def body = new String(fetcher.fetch(request("/slow")))
+        def elapsed = Duration.ofNanos(System.nanoTime() - startedAt)
+
+        then:
+        body == "hedge"
+        elapsed < Duration.ofMillis(2500)
+        fetcher.hedgeCount == 1
+        slowHits.get() == 2
+
+        cleanup:
+        fetcher.close()
+    }
+
+    def "Tracks latency from the original request when the hedge wins"() {
+        given:
+        def fetcher = fetcher(0.5)
+        5.times { fetcher.fetch(request("/fast")) }
+        def delay = fetcher.hedgeDelay.get()
+
+        when:
+        def body = new String(fetcher.fetch(request("/slow")))
+
+        then: "latency of the fetch includes the delay before hedge"
+        body == "hedge"
+        fetcher.hedgeCount == 1
+        fetcher.hedgeDelay.get() > delay
+
+        cleanup:
+        fetcher.close()
+    }
+
+    def "Waits for the original request without budget"() {
+        given:
+        def fetcher = fetcher(0)
+        5.times { fetcher.fetch(request("/fast")) }
+
+        when:
+        def body = new String(fetcher.fetch(request("/slow")))
+
+        then:
+        body == "slow"
+        fetcher.hedgeCount == 0
+        slowHits.get() == 1
+
+        cleanup:
+        fetcher.close()
+    }
+
+    def "Fails when response is not successful"() {
+        given:
+        def fetcher = fetcher(1)
+
+        when:
+        fetcher.fetch(request("/error"))
+
+        then:
+        def e = thrown(IOException)
+        e.message.startsWith("Unexpected response")
+
+        cleanup:
+        fetcher.close()
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.hedge
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class LatencyTrackerSpec extends Specification {
+
+    def "Gets latency at the percentile"() {
+        given:
+        def tracker = new LatencyTracker(100)
+        (1..100).each { tracker.record(Duration.ofMillis(it)) }
+
+        expect:
+        tracker.getPercentile(percentile) == Optional.of(Duration.ofMillis(expected))
+
+        where:
+        percentile | expected
+        0.01       | 1
+        0.5        | 50
+        0.95       | 95
+        1          | 100
+    }
+
+    def "Keeps only the latest samples"() {
+        given:
+        def tracker = new LatencyTracker(3)
+
+        when:
+        [100, 1, 2, 3].each { tracker.record(Duration.ofMillis(it)) }
+
+        then:
+        tracker.size() == 3
+        tracker.getPercentile(1) == Optional.of(Duration.ofMillis(3))
+    }
+
+    def "Gets nothing without sample"() {
+        expect:
+        new LatencyTracker(10).getPercentile(0.5).isEmpty()
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor
+
+import okhttp3.Interceptor
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import spock.lang.Specification
+
+class CacheRuleInterceptorSpec extends Specification {
+
+    def "Rewrites caching headers of response"() {
+        given:
+        def interceptor = new CacheRuleInterceptor()
+        def chain = Mock(Interceptor.Chain)
+        def request = new Request.Builder().url(url).build()
+
+        when:
+        def response = interceptor.intercept(chain)
+
+        then:
+        1 * chain.request() >> request
+        1 * chain.proceed(request) >> new Response.Builder()
+                .request(request).protocol(Protocol.HTTP_1_1).code(code).message("")
+                .header("cache-control", "no-cache")
+                .header("pragma", "no-cache")
+                .header("content-type", contentType)
+                .build()
+        response.header("cache-control") == cacheControl
+        response.header("vary") == vary
+
+        where:
+        url                                                               | code | contentType        || cacheControl           | vary
+        "https://www.lezhin.com/ko/comic/snail"                           | 200  | "text/html"        || "private, max-age=600" | "cookie, authorization"
+        "https://cdn.lezhin.com/episodes/snail/1.json"                    | 200  | "application/json" || "private, max-age=600" | null
+        "https://cdn.lezhin.com/episodes/snail/1.json"                    | 404  | "application/json" || "no-cache"             | null
+        "https://www.lezhin.com/ko"                                       | 200  | "text/html"        || "no-cache"             | null
+        "https://www.lezhin.com/lz-api/v2/cloudfront/signed-url/generate" | 200  | "application/json" || "no-store"             | null
+        "https://cdn.lezhin.com/v2/comics/1/episodes/2/x.jpg"             | 200  | "image/jpeg"       || "no-store"             | null
+        "https://cdn.lezhin.com/images/banner.webp"                       | 200  | "image/webp"       || "no-store"             | null
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor
+
+import io.github.imsejin.dl.lezhin.http.circuit.CallNotPermittedException
+import io.github.imsejin.dl.lezhin.http.circuit.CircuitBreaker
+import io.github.imsejin.dl.lezhin.http.circuit.Endpoint
+import okhttp3.Call
+import okhttp3.Interceptor
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import spock.lang.Specification
+
+import java.time.Duration
+
+class CircuitBreakerInterceptorSpec extends Specification {
+
+    private static CircuitBreaker.Config config() {
+        CircuitBreaker.Config.builder()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build()
+    }
+
+    private static Response response(Request request, int code) {
+        new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(code).message("").build()
+    }
+
+    def "Fails fast when the circuit of endpoint is open"() {
+        given:
+        def interceptor = new CircuitBreakerInterceptor(config())
+        def req = new Request.Builder().url("https://cdn.lezhin.com/v2/comics/1/episodes/2/contents/scrolls/1").build()
+        def chain = Mock(Interceptor.Chain) {
+            request() >> req
+            call() >> Mock(Call)
+        }
+
+        when: "Server error and network failure are failures"
+        interceptor.intercept(chain)
+        try {
+            interceptor.intercept(chain)
+        } catch (IOException ignored) {
+        }
+
+        then:
+        1 * chain.proceed(req) >> response(req, 503)
+        1 * chain.proceed(req) >> { throw new SocketTimeoutException() }
+        interceptor.getCircuitBreaker(Endpoint.IMAGE).state == CircuitBreaker.State.OPEN
+        interceptor.getCircuitBreaker(Endpoint.SIGNED_URL).state == CircuitBreaker.State.CLOSED
+
+        when:
+        interceptor.intercept(chain)
+
+        then:
+        0 * chain.proceed(_)
+        def e = thrown(CallNotPermittedException)
+        e.endpoint == Endpoint.IMAGE
+        e.retryAfter > Duration.ZERO
+    }
+
+    def "Counts client error as success"() {
+        given:
+        def interceptor = new CircuitBreakerInterceptor(config())
+        def req = new Request.Builder().url("https://www.lezhin.com/lz-api/v2/cloudfront/signed-url/generate").build()
+        def chain = Mock(Interceptor.Chain) {
+            request() >> req
+            proceed(req) >> response(req, 403)
+        }
+
+        when:
+        3.times { interceptor.intercept(chain) }
+
+        then:
+        def metrics = interceptor.getCircuitBreaker(Endpoint.SIGNED_URL).metrics
+        metrics.state == CircuitBreaker.State.CLOSED
+        metrics.failedCalls == 0
+    }
+
+    def "Doesn't guard request which matches no endpoint"() {
+        given:
+        def interceptor = new CircuitBreakerInterceptor(config())
+        def req = new Request.Builder().url("https://www.lezhin.com/ko").build()
+        def chain = Mock(Interceptor.Chain) {
+            request() >> req
+            proceed(req) >> response(req, 500)
+        }
+
+        when:
+        3.times { interceptor.intercept(chain) }
+
+        then:
+        Endpoint.values().every { interceptor.getCircuitBreaker(it).metrics.bufferedCalls == 0 }
+    }
+
+}
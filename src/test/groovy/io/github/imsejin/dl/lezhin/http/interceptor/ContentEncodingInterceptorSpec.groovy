@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor
+
+import okhttp3.Interceptor
+import okhttp3.MediaType
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPOutputStream
+
+class ContentEncodingInterceptorSpec extends Specification {
+
+    private static final String JSON = '{"id":1,"alias":"snail","episodes":[]}'
+
+    def "Decodes compressed response"() {
+        given:
+        def interceptor = new ContentEncodingInterceptor()
+        def chain = Mock(Interceptor.Chain)
+        def request = new Request.Builder().url("https://www.lezhin.com").build()
+        Request proceeded = null
+
+        when:
+        def response = interceptor.intercept(chain)
+
+        then:
+        1 * chain.request() >> request
+        1 * chain.proceed(_ as Request) >> { Request it ->
+            proceeded = it
+            responseOf(it, encoding, encode(JSON.getBytes(StandardCharsets.UTF_8)))
+        }
+        proceeded.header("accept-encoding") == "br, gzip"
+        response.header("content-encoding") == null
+        (response.header("content-length") == null) == (encoding != null)
+        response.body().string() == JSON
+
+        where:
+        encoding | encode
+        "br"     | ContentEncodingInterceptorSpec.&brotli
+        "gzip"   | ContentEncodingInterceptorSpec.&gzip
+        null     | { byte[] it -> it }
+    }
+
+    def "Doesn't touch response if caller negotiates encoding"() {
+        given:
+        def interceptor = new ContentEncodingInterceptor()
+        def chain = Mock(Interceptor.Chain)
+        def request = new Request.Builder().url("https://www.lezhin.com").header("accept-encoding", "identity").build()
+        def bytes = gzip(JSON.getBytes(StandardCharsets.UTF_8))
+
+        when:
+        def response = interceptor.intercept(chain)
+
+        then:
+        1 * chain.request() >> request
+        1 * chain.proceed(request) >> responseOf(request, "gzip", bytes)
+        response.header("content-encoding") == "gzip"
+        response.body().bytes() == bytes
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static Response responseOf(Request request, String encoding, byte[] bytes) {
+        def builder = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("content-length", String.valueOf(bytes.length))
+                .body(ResponseBody.create(MediaType.get("application/json"), bytes))
+        if (encoding != null) builder.header("content-encoding", encoding)
+
+        builder.build()
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        def out = new ByteArrayOutputStream()
+        new GZIPOutputStream(out).withCloseable { it.write(bytes) }
+        out.toByteArray()
+    }
+
+    /**
+     * Encodes bytes as an uncompressed meta-block of brotli, followed by an empty last meta-block.
+     */
+    private static byte[] brotli(byte[] bytes) {
+        // WBITS(1) = 0, ISLAST(1) = 0, MNIBBLES(2) = 0, MLEN-1(16), ISUNCOMPRESSED(1) = 1
+        int header = ((bytes.length - 1) << 4) | (1 << 20)
+
+        def out = new ByteArrayOutputStream()
+        out.write(header & 0xFF)
+        out.write((header >> 8) & 0xFF)
+        out.write((header >> 16) & 0xFF)
+        out.write(bytes)
+        // ISLAST = 1, ISLASTEMPTY = 1
+        out.write(0x03)
+        out.toByteArray()
+    }
+
+}
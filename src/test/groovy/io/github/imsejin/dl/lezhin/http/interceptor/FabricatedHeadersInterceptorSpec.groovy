@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.http.interceptor
+
+import okhttp3.Interceptor
+import okhttp3.Request
+import okhttp3.Response
+import spock.lang.Specification
+
+class FabricatedHeadersInterceptorSpec extends Specification {
+
+    def "Adds headers of the session"() {
+        given:
+        def interceptor = new FabricatedHeadersInterceptor(locale, accessToken, "agent")
+        def chain = Mock(Interceptor.Chain)
+        Request intercepted = null
+
+        when:
+        interceptor.intercept(chain)
+
+        then:
+        1 * chain.request() >> new Request.Builder().url("https://www.lezhin.com").build()
+        1 * chain.proceed(_ as Request) >> { Request request -> intercepted = request; null as Response }
+        intercepted.header("user-agent") == "agent"
+        intercepted.header("x-lz-country") == country
+        intercepted.header("x-lz-locale") == languageTag
+        intercepted.header("authorization") == authorization
+
+        where:
+        locale       | accessToken                                             || country | languageTag | authorization
+        Locale.KOREA | new UUID(0, 0)                                          || "kr"    | "ko-KR"     | null
+        Locale.US    | UUID.fromString("5be30a25-a044-410c-88b0-19a1da968a64") || "us"    | "en-US"     | "Bearer 5be30a25-a044-410c-88b0-19a1da968a64"
+        Locale.JAPAN | UUID.fromString("f01c3a5e-0ef2-4a39-a7b1-6c3cd3b0e0aa") || "jp"    | "ja-JP"     | "Bearer f01c3a5e-0ef2-4a39-a7b1-6c3cd3b0e0aa"
+    }
+
+    def "Randomizes user agent"() {
+        when:
+        def userAgent = FabricatedHeadersInterceptor.randomizeUserAgent()
+
+        then:
+        userAgent ==~ /Mozilla\/5\.0 \(.+\) AppleWebKit\/537\.36 \(KHTML, like Gecko\) Chrome\/\d+\.0\.\d{4}\.\d{1,3} Safari\/537\.36/
+    }
+
+}
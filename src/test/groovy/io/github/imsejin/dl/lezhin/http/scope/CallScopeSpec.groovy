@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.http.scope
+
+import com.sun.net.httpserver.HttpServer
+import okhttp3.Call
+import okhttp3.Callback
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+@Timeout(10)
+class CallScopeSpec extends Specification {
+
+    HttpServer server
+
+    OkHttpClient httpClient = new OkHttpClient.Builder().eventListenerFactory(CallScope::register).build()
+
+    def setup() {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/slow") { exchange ->
+            Thread.sleep(3000)
+            exchange.sendResponseHeaders(200, -1)
+            exchange.close()
+        }
+        server.executor = Executors.newCachedThreadPool()
+        server.start()
+    }
+
+    def cleanup() {
+        server.stop(0)
+        (server.executor as ExecutorService).shutdownNow()
+    }
+
+    private Request request() {
+        new Request.Builder().url("http://127.0.0.1:${server.address.port}/slow").build()
+    }
+
+    private static CompletableFuture<Response> enqueue(Call call) {
+        def future = new CompletableFuture<Response>()
+        call.enqueue(new Callback() {
+            @Override
+            void onFailure(Call c, IOException e) { future.completeExceptionally(e) }
+
+            @Override
+            void onResponse(Call c, Response response) { future.complete(response) }
+        })
+        future
+    }
+
+    def "Cancels calls in flight in the scope"() {
+        given:
+        def scope = CallScope.open()
+        def call = httpClient.newCall(request())
+        def future = enqueue(call)
+
+        when:
+        scope.cancel()
+        future.join()
+
+        then:
+        thrown(Exception)
+        scope.cancelled
+        call.canceled
+
+        cleanup:
+        scope.close()
+    }
+
+    def "Cancels call started after the scope is cancelled"() {
+        given:
+        def scope = CallScope.open()
+        scope.cancel()
+
+        when:
+        httpClient.newCall(request()).execute()
+
+        then:
+        def e = thrown(IOException)
+        e.message == "Canceled"
+
+        cleanup:
+        scope.close()
+    }
+
+    def "Doesn't cancel calls out of the scope"() {
+        given:
+        def scope = CallScope.open()
+        scope.close()
+
+        when:
+        def call = httpClient.newCall(request())
+        enqueue(call)
+        scope.cancel()
+
+        then:
+        !call.canceled
+
+        cleanup:
+        call.cancel()
+    }
+
+}
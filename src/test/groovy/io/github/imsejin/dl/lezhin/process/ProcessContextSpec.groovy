@@ -16,13 +16,20 @@
 
 package io.github.imsejin.dl.lezhin.process
 
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache
+import io.github.imsejin.dl.lezhin.api.product.model.Product
 import io.github.imsejin.dl.lezhin.argument.impl.ContentName
 import io.github.imsejin.dl.lezhin.argument.impl.DebugMode
 import io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange
 import io.github.imsejin.dl.lezhin.argument.impl.Language
 import io.github.imsejin.dl.lezhin.argument.impl.SaveAsJpeg
+import io.github.imsejin.dl.lezhin.argument.impl.WarmUpBrowser
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication
+import io.github.imsejin.dl.lezhin.session.Session
 import spock.lang.Specification
 
+import java.lang.reflect.Modifier
+
 class ProcessContextSpec extends Specification {
 
     def "Creates new context with attributes"() {
@@ -90,4 +97,64 @@ class ProcessContextSpec extends Specification {
         new Language(value: "ja") | new ContentName(value: "zeta")    | new EpisodeRange(value: "1~10") | new SaveAsJpeg(value: "true")  | new DebugMode(value: "true")
     }
 
+    def "Overwrites attributes of context with new ones"() {
+        given:
+        def context = ProcessContext.create(new Language(value: "ko"), new ContentName(value: "alpha"))
+        def accessToken = UUID.randomUUID()
+
+        when:
+        def newContext = ProcessContext.of(context, new ContentName(value: "zeta"), accessToken, new ContentName(value: "eta"))
+
+        then:
+        !newContext.is(context)
+        newContext.language.is(context.language)
+        newContext.contentName.value == "zeta"
+        newContext.accessToken === accessToken
+        context.contentName.value == "alpha"
+        context.accessToken == null
+    }
+
+    def "Discards unknown attributes"() {
+        given:
+        def context = ProcessContext.create(new Language(value: "ko"))
+
+        when:
+        def newContext = ProcessContext.of(context, "unknown", 1L)
+
+        then:
+        newContext == context
+    }
+
+    def "Keeps all the attributes of context when merged"() {
+        given:
+        def attributes = [
+                new Language(value: "ko"), new ContentName(value: "alpha"), new EpisodeRange(value: "1~10"),
+                new SaveAsJpeg(value: "true"), new DebugMode(value: "false"), new WarmUpBrowser(value: "false"),
+                new Authentication("username", "password"),
+                Session.of("username", Locale.KOREA, UUID.randomUUID(), []),
+                UUID.randomUUID(), new Product(), new AuthorityCache({ null }),
+        ]
+        def context = ProcessContext.create(attributes as Object[])
+
+        when:
+        def newContext = ProcessContext.of(context, "unknown")
+
+        then:
+        !newContext.is(context)
+        newContext == context
+        ProcessContext.declaredFields.findAll { !Modifier.isStatic(it.modifiers) && !it.synthetic }
+                .every { newContext[it.name] != null && newContext[it.name].is(context[it.name]) }
+
+        cleanup:
+        context?.authorityCache?.close()
+    }
+
+    def "Has slots for all the fields"() {
+        given:
+        def fields = ProcessContext.declaredFields.findAll { !Modifier.isStatic(it.modifiers) && !it.synthetic }
+
+        expect:
+        ProcessContext.SLOTS*.type == fields*.type
+    }
+
 }
@@ -0,0 +1,339 @@
+package io.github.imsejin.dl.lezhin.process.framework
+
+import io.github.imsejin.dl.lezhin.argument.impl.Language
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication
+import io.github.imsejin.dl.lezhin.exception.InvalidProcessSpecificationException
+import io.github.imsejin.dl.lezhin.process.Checkpoint
+import io.github.imsejin.dl.lezhin.process.ProcessContext
+import io.github.imsejin.dl.lezhin.process.Processor
+import io.github.imsejin.dl.lezhin.session.CheckpointStore
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Timeout
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Path
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+@Timeout(10)
+class ProcessorExecutorSpec extends Specification {
+
+    @TempDir
+    private Path tempPath
+
+    def "Runs independent processors concurrently"() {
+        given:
+        def latch = new CountDownLatch(2)
+        def accessToken = UUID.randomUUID()
+        def authentication = new Authentication("username", "password")
+        def joined = new CopyOnWriteArrayList<ProcessContext>()
+        def processors = [
+                new Root({ null }),
+                new Left({ latch.countDown(); assert latch.await(5, TimeUnit.SECONDS); accessToken }),
+                new Right({ latch.countDown(); assert latch.await(5, TimeUnit.SECONDS); authentication }),
+                new Join({ joined.add(it); null }),
+        ]
+        def dependencies = [(Root): [], (Left): [Root], (Right): [Root], (Join): [Left, Right]]
+        def context = ProcessContext.create(new Language(value: "ko"))
+
+        when:
+        def result = new ProcessorExecutor(processors, dependencies).execute(context)
+
+        then:
+        joined.size() == 1
+        joined[0].language.is(context.language)
+        joined[0].accessToken === accessToken
+        joined[0].authentication === authentication
+        result.accessToken === accessToken
+        result.authentication === authentication
+    }
+
+    def "Doesn't pass results of concurrent processors to each other"() {
+        given:
+        def seen = new CopyOnWriteArrayList<ProcessContext>()
+        def processors = [
+                new Root({ UUID.randomUUID() }),
+                new Left({ Thread.sleep(100); new Authentication("username", "password") }),
+                new Right({ Thread.sleep(200); seen.add(it); null }),
+        ]
+        def dependencies = [(Root): [], (Left): [Root], (Right): [Root]]
+
+        when:
+        new ProcessorExecutor(processors, dependencies).execute(ProcessContext.create())
+
+        then:
+        seen[0].accessToken != null
+        seen[0].authentication == null
+    }
+
+    def "Propagates failure and cancels sibling branches"() {
+        given:
+        def failure = new IllegalStateException("failure")
+        def interrupted = new AtomicBoolean()
+        def joinRan = new AtomicBoolean()
+        def processors = [
+                new Root({ null }),
+                new Left({ Thread.sleep(100); throw failure }),
+                new Right({
+                    try {
+                        Thread.sleep(10_000)
+                    } catch (InterruptedException ignored) {
+                        interrupted.set(true)
+                    }
+                    null
+                }),
+                new Join({ joinRan.set(true); null }),
+        ]
+        def dependencies = [(Root): [], (Left): [Root], (Right): [Root], (Join): [Left, Right]]
+
+        when:
+        new ProcessorExecutor(processors, dependencies).execute(ProcessContext.create())
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.is(failure)
+        new PollingConditions(timeout: 3).eventually {
+            assert interrupted.get()
+        }
+        !joinRan.get()
+    }
+
+    def "Waits for cancelled processors to stop before propagating failure"() {
+        given:
+        def stopped = new AtomicBoolean()
+        def processors = [
+                new Root({ null }),
+                new Left({ Thread.sleep(100); throw new IllegalStateException("failure") }),
+                new Right({
+                    try {
+                        Thread.sleep(10_000)
+                    } catch (InterruptedException ignored) {
+                        Thread.sleep(300)
+                        stopped.set(true)
+                    }
+                    null
+                }),
+        ]
+        def dependencies = [(Root): [], (Left): [Root], (Right): [Root]]
+
+        when:
+        new ProcessorExecutor(processors, dependencies).execute(ProcessContext.create())
+
+        then:
+        thrown(IllegalStateException)
+        stopped.get()
+    }
+
+    def "Fails when processor comes before the processor it depends on"() {
+        when:
+        new ProcessorExecutor([new Left({ null }), new Root({ null })], [(Root): [], (Left): [Root]])
+
+        then:
+        thrown(InvalidProcessSpecificationException)
+    }
+
+    def "Skips processor whose result is restored from checkpoint"() {
+        given:
+        def count = new AtomicInteger()
+        def accessToken = UUID.randomUUID()
+        def joined = new CopyOnWriteArrayList<ProcessContext>()
+        def processors = [
+                new Root({ new Authentication("username", "password") }),
+                new CheckpointedLeft({ count.incrementAndGet(); accessToken }),
+                new Join({ joined.add(it); null }),
+        ]
+        def dependencies = [(Root): [], (CheckpointedLeft): [Root], (Join): [CheckpointedLeft]]
+        def context = ProcessContext.create(new Language(value: "ko"))
+
+        when:
+        2.times { new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context) }
+
+        then:
+        count.get() == 1
+        joined*.accessToken == [accessToken, accessToken]
+
+        when: "Checkpoint is not kept for the other locale"
+        new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath))
+                .execute(ProcessContext.create(new Language(value: "en")))
+
+        then:
+        count.get() == 2
+    }
+
+    def "Keeps checkpoint even if the other processor fails"() {
+        given:
+        def count = new AtomicInteger()
+        def failing = new AtomicBoolean(true)
+        def processors = [
+                new Root({ new Authentication("username", "password") }),
+                new CheckpointedLeft({ count.incrementAndGet(); UUID.randomUUID() }),
+                new Join({
+                    if (failing.get()) throw new IllegalStateException("failure")
+                    null
+                }),
+        ]
+        def dependencies = [(Root): [], (CheckpointedLeft): [Root], (Join): [CheckpointedLeft]]
+        def context = ProcessContext.create(new Language(value: "ko"))
+
+        when: "Fails late in a run"
+        new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context)
+
+        then:
+        thrown(IllegalStateException)
+        count.get() == 1
+
+        when: "Resumes"
+        failing.set(false)
+        new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context)
+
+        then:
+        count.get() == 1
+    }
+
+    def "Stores checkpoint again at the end only if its result is mutable"() {
+        given:
+        def immutable = new CheckpointedLeft({ UUID.randomUUID() })
+        def mutable = new MutableCheckpointedRight({ UUID.randomUUID() })
+        def processors = [new Root({ new Authentication("username", "password") }), immutable, mutable]
+        def dependencies = [(Root): [], (CheckpointedLeft): [Root], (MutableCheckpointedRight): [Root]]
+        def context = ProcessContext.create(new Language(value: "ko"))
+
+        when:
+        new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context)
+
+        then:
+        immutable.snapshotCount.get() == 1
+        mutable.snapshotCount.get() == 2
+
+        when: "Restored result is stored again only if it is mutable"
+        new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context)
+
+        then:
+        immutable.snapshotCount.get() == 1
+        mutable.snapshotCount.get() == 3
+    }
+
+    def "Runs processor when its checkpoint is no longer valid"() {
+        given:
+        def count = new AtomicInteger()
+        def processors = [
+                new Root({ new Authentication("username", "password") }),
+                new CheckpointedLeft({ count.incrementAndGet(); CheckpointedLeft.EXPIRED }),
+        ]
+        def dependencies = [(Root): [], (CheckpointedLeft): [Root]]
+        def context = ProcessContext.create(new Language(value: "ko"))
+
+        when:
+        2.times { new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context) }
+
+        then:
+        count.get() == 2
+    }
+
+    def "Emits event of each processor"() {
+        given:
+        def processors = [
+                new Root({ new Authentication("username", "password") }),
+                new CheckpointedLeft({ UUID.randomUUID() }),
+                new Right({ throw new IllegalStateException("failure") }),
+        ]
+        def dependencies = [(Root): [], (CheckpointedLeft): [Root], (Right): [CheckpointedLeft]]
+        def context = ProcessContext.create(new Language(value: "ko"))
+        new ProcessorExecutor(processors.take(2), dependencies.subMap([Root, CheckpointedLeft]), new CheckpointStore(tempPath))
+                .execute(context)
+
+        and:
+        def recording = new Recording()
+        recording.enable("io.github.imsejin.dl.lezhin.Processor")
+        recording.start()
+
+        when:
+        new ProcessorExecutor(processors, dependencies, new CheckpointStore(tempPath)).execute(context)
+
+        then:
+        thrown(IllegalStateException)
+
+        when:
+        recording.stop()
+        def dump = tempPath.resolve("recording.jfr")
+        recording.dump(dump)
+        def events = RecordingFile.readAllEvents(dump).collectEntries { [it.getString("processor"), it.getString("outcome")] }
+
+        then:
+        events == [(Root.name): "SUCCESS", (CheckpointedLeft.name): "RESTORED", (Right.name): "FAILURE"]
+
+        cleanup:
+        recording?.close()
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static abstract class ClosureProcessor implements Processor {
+        private final Closure<?> closure
+
+        ClosureProcessor(Closure<?> closure) {
+            this.closure = closure
+        }
+
+        @Override
+        Object process(ProcessContext context) {
+            closure.call(context)
+        }
+    }
+
+    private static class Root extends ClosureProcessor {
+        Root(Closure<?> closure) { super(closure) }
+    }
+
+    private static class Left extends ClosureProcessor {
+        Left(Closure<?> closure) { super(closure) }
+    }
+
+    private static class Right extends ClosureProcessor {
+        Right(Closure<?> closure) { super(closure) }
+    }
+
+    private static class Join extends ClosureProcessor {
+        Join(Closure<?> closure) { super(closure) }
+    }
+
+    private static class CheckpointedLeft extends ClosureProcessor implements Checkpoint<UUID, String> {
+        static final UUID EXPIRED = new UUID(0, 0)
+
+        final AtomicInteger snapshotCount = new AtomicInteger()
+
+        CheckpointedLeft(Closure<?> closure) { super(closure) }
+
+        @Override
+        String getCheckpointKey(ProcessContext context) { "key" }
+
+        @Override
+        Class<String> getSnapshotType() { String }
+
+        @Override
+        String snapshot(UUID result) {
+            snapshotCount.incrementAndGet()
+            result.toString()
+        }
+
+        @Override
+        Optional<UUID> restore(String snapshot, ProcessContext context) {
+            def accessToken = UUID.fromString(snapshot)
+            accessToken == EXPIRED ? Optional.empty() : Optional.of(accessToken)
+        }
+    }
+
+    private static class MutableCheckpointedRight extends CheckpointedLeft {
+        MutableCheckpointedRight(Closure<?> closure) { super(closure) }
+
+        @Override
+        boolean isMutable() { true }
+    }
+
+}
@@ -0,0 +1,281 @@
+package io.github.imsejin.dl.lezhin.process.framework
+
+import com.sun.net.httpserver.HttpServer
+import io.github.imsejin.dl.lezhin.annotation.ExecutionPolicy
+import io.github.imsejin.dl.lezhin.exception.InvalidProcessSpecificationException
+import io.github.imsejin.dl.lezhin.exception.ProcessorTimeoutException
+import io.github.imsejin.dl.lezhin.exception.UnexpectedPageException
+import io.github.imsejin.dl.lezhin.http.scope.CallScope
+import io.github.imsejin.dl.lezhin.process.ProcessContext
+import io.github.imsejin.dl.lezhin.process.Processor
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+@Timeout(10)
+class ProcessorInvokerSpec extends Specification {
+
+    def "Runs processor without policy once"() {
+        given:
+        def count = new AtomicInteger()
+        def invoker = new ProcessorInvoker({ count.incrementAndGet(); throw new UnexpectedPageException("failure") } as Processor)
+
+        when:
+        invoker.invoke(ProcessContext.create())
+
+        then:
+        thrown(UnexpectedPageException)
+        count.get() == 1
+    }
+
+    def "Retries on retryable exception with backoff"() {
+        given:
+        def attempts = []
+        def processor = new Retrying({
+            attempts << System.nanoTime()
+            if (attempts.size() < 3) throw new UnexpectedPageException("failure")
+            "done"
+        })
+
+        when:
+        def result = new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        result == "done"
+        attempts.size() == 3
+
+        and: "Backoff grows by multiplier"
+        (attempts[1] - attempts[0]) / 1_000_000 >= 50
+        (attempts[2] - attempts[1]) / 1_000_000 >= 100
+    }
+
+    def "Doesn't retry on the other exception"() {
+        given:
+        def count = new AtomicInteger()
+        def processor = new Retrying({ count.incrementAndGet(); throw new IllegalStateException("failure") })
+
+        when:
+        new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        thrown(IllegalStateException)
+        count.get() == 1
+    }
+
+    def "Gives up after max retries"() {
+        given:
+        def count = new AtomicInteger()
+        def processor = new Retrying({ count.incrementAndGet(); throw new UnexpectedPageException("failure") })
+
+        when:
+        new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        thrown(UnexpectedPageException)
+        count.get() == 3
+    }
+
+    def "Interrupts attempt which takes too long and retries it"() {
+        given:
+        def count = new AtomicInteger()
+        def processor = new TimingOut({
+            if (count.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000)
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("interrupted", e)
+                }
+            }
+            "done"
+        })
+
+        when:
+        def result = new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        result == "done"
+        count.get() == 2
+        !Thread.currentThread().isInterrupted()
+    }
+
+    def "Fails with timeout when the last attempt takes too long"() {
+        given:
+        def count = new AtomicInteger()
+        def processor = new TimingOut({
+            count.incrementAndGet()
+            try {
+                Thread.sleep(5_000)
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("interrupted", e)
+            }
+        })
+
+        when:
+        new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        def e = thrown(ProcessorTimeoutException)
+        e.cause instanceof IllegalStateException
+        count.get() == 2
+        !Thread.currentThread().isInterrupted()
+    }
+
+    def "Doesn't retry attempt which timed out without opt-in"() {
+        given:
+        def count = new AtomicInteger()
+        def processor = new TimingOutOnce({
+            count.incrementAndGet()
+            try {
+                Thread.sleep(5_000)
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("interrupted", e)
+            }
+        })
+
+        when:
+        new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        thrown(ProcessorTimeoutException)
+        count.get() == 1
+    }
+
+    def "Doesn't leak interruption by timer which races with the end of attempt"() {
+        given: "attempt which is done just after timeout, while the timer is interrupting it"
+        def processor = new Busy({
+            def until = System.nanoTime() + 150_000_000
+            while (System.nanoTime() < until) Thread.onSpinWait()
+            "done"
+        })
+        def result = null
+        def interruptedAfterAttempt = null
+        def worker = new SlowToInterrupt({
+            result = new ProcessorInvoker(processor).invoke(ProcessContext.create())
+            try {
+                // Interruption which leaks would wake up the next wait such as backoff.
+                Thread.sleep(500)
+                interruptedAfterAttempt = false
+            } catch (InterruptedException ignored) {
+                interruptedAfterAttempt = true
+            }
+        })
+
+        when:
+        worker.start()
+        worker.join()
+
+        then:
+        worker.interrupting.count == 0
+        result == "done"
+        !interruptedAfterAttempt
+    }
+
+    def "Cancels HTTP call of attempt which takes too long"() {
+        given:
+        def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/slow") { exchange ->
+            Thread.sleep(5_000)
+            exchange.sendResponseHeaders(200, -1)
+            exchange.close()
+        }
+        server.executor = Executors.newCachedThreadPool()
+        server.start()
+
+        and:
+        def httpClient = new OkHttpClient.Builder().eventListenerFactory(CallScope::register).build()
+        def request = new Request.Builder().url("http://127.0.0.1:${server.address.port}/slow").build()
+        def processor = new TimingOut({
+            try {
+                httpClient.newCall(request).execute().close()
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex)
+            }
+        })
+
+        when:
+        def startedAt = System.nanoTime()
+        new ProcessorInvoker(processor).invoke(ProcessContext.create())
+
+        then:
+        def e = thrown(ProcessorTimeoutException)
+        e.cause instanceof UncheckedIOException
+        Duration.ofNanos(System.nanoTime() - startedAt) < Duration.ofSeconds(2)
+        !Thread.currentThread().isInterrupted()
+
+        cleanup:
+        server.stop(0)
+        (server.executor as ExecutorService).shutdownNow()
+    }
+
+    def "Fails when policy is invalid"() {
+        when:
+        new ProcessorInvoker(new Invalid())
+
+        then:
+        thrown(InvalidProcessSpecificationException)
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static abstract class ClosureProcessor implements Processor {
+        private final Closure<?> closure
+
+        ClosureProcessor(Closure<?> closure) {
+            this.closure = closure
+        }
+
+        @Override
+        Object process(ProcessContext context) {
+            closure.call(context)
+        }
+    }
+
+    @ExecutionPolicy(maxRetries = 2, backoffMillis = 50, backoffMultiplier = 2, retryOn = UnexpectedPageException)
+    private static class Retrying extends ClosureProcessor {
+        Retrying(Closure<?> closure) { super(closure) }
+    }
+
+    @ExecutionPolicy(timeoutMillis = 200, maxRetries = 1, backoffMillis = 0, retryOnTimeout = true)
+    private static class TimingOut extends ClosureProcessor {
+        TimingOut(Closure<?> closure) { super(closure) }
+    }
+
+    @ExecutionPolicy(timeoutMillis = 200, maxRetries = 1, backoffMillis = 0)
+    private static class TimingOutOnce extends ClosureProcessor {
+        TimingOutOnce(Closure<?> closure) { super(closure) }
+    }
+
+    @ExecutionPolicy(timeoutMillis = 100)
+    private static class Busy extends ClosureProcessor {
+        Busy(Closure<?> closure) { super(closure) }
+    }
+
+    /**
+     * Worker which is descheduled for a while when the timer interrupts it.
+     */
+    private static class SlowToInterrupt extends Thread {
+        final CountDownLatch interrupting = new CountDownLatch(1)
+
+        SlowToInterrupt(Runnable runnable) { super(runnable) }
+
+        @Override
+        void interrupt() {
+            interrupting.countDown()
+            Thread.sleep(300)
+            super.interrupt()
+        }
+    }
+
+    @ExecutionPolicy(timeoutMillis = -1)
+    private static class Invalid extends ClosureProcessor {
+        Invalid() { super({ null }) }
+    }
+
+}
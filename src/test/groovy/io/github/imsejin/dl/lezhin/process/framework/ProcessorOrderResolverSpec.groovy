@@ -3,11 +3,18 @@ package io.github.imsejin.dl.lezhin.process.framework
 import io.github.imsejin.common.tool.ClassFinder
 import io.github.imsejin.common.tool.ClassFinder.SearchPolicy
 import io.github.imsejin.common.util.ClassUtils
+import io.github.imsejin.dl.lezhin.annotation.ProcessSpecification
+import io.github.imsejin.dl.lezhin.exception.InvalidProcessSpecificationException
+import io.github.imsejin.dl.lezhin.process.ProcessContext
 import io.github.imsejin.dl.lezhin.process.Processor
 import io.github.imsejin.dl.lezhin.process.impl.AccessTokenProcessor
 import io.github.imsejin.dl.lezhin.process.impl.ConfigurationFileProcessor
+import io.github.imsejin.dl.lezhin.process.impl.DownloadProcessor
 import io.github.imsejin.dl.lezhin.process.impl.EpisodeAuthorityProcessor
+import io.github.imsejin.dl.lezhin.process.impl.HttpLoginProcessor
 import io.github.imsejin.dl.lezhin.process.impl.LoginProcessor
+import io.github.imsejin.dl.lezhin.process.impl.ProductProcessor
+import io.github.imsejin.dl.lezhin.process.impl.SessionProcessor
 import spock.lang.Specification
 
 class ProcessorOrderResolverSpec extends Specification {
@@ -23,10 +30,70 @@ class ProcessorOrderResolverSpec extends Specification {
         then:
         orderedTypes == [
                 ConfigurationFileProcessor,
+                SessionProcessor,
+                HttpLoginProcessor,
                 LoginProcessor,
                 AccessTokenProcessor,
+                ProductProcessor,
                 EpisodeAuthorityProcessor,
+                DownloadProcessor,
         ]
     }
 
+    def "Resolves dependency graph which is not linear"() {
+        given:
+        def processorTypes = [Join, Right, Left, Root, Other] as Set
+
+        when:
+        def dependencies = ProcessorOrderResolver.resolveDependencies(processorTypes)
+
+        then:
+        dependencies.keySet() as List == [Other, Root, Left, Right, Join]
+        dependencies[Join] == [Left, Right]
+        dependencies[Root] == []
+    }
+
+    def "Fails to resolve dependency graph which is not acyclic"() {
+        when:
+        ProcessorOrderResolver.resolve(processorTypes as Set)
+
+        then:
+        def e = thrown(InvalidProcessSpecificationException)
+        e.message.startsWith(message)
+
+        where:
+        processorTypes           || message
+        [Left, Right]            || "@ProcessSpecification.dependsOn must be one of the processors"
+        [Root, CycleA, CycleB]   || "There is a cycle in dependency graph of process specification"
+        [CycleA, CycleB]         || "There is no @ProcessSpecification as a starting process"
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static abstract class AbstractProcessor implements Processor {
+        @Override
+        Object process(ProcessContext context) { null }
+    }
+
+    @ProcessSpecification
+    private static class Root extends AbstractProcessor {}
+
+    @ProcessSpecification
+    private static class Other extends AbstractProcessor {}
+
+    @ProcessSpecification(dependsOn = Root)
+    private static class Left extends AbstractProcessor {}
+
+    @ProcessSpecification(dependsOn = Root)
+    private static class Right extends AbstractProcessor {}
+
+    @ProcessSpecification(dependsOn = [Left, Right])
+    private static class Join extends AbstractProcessor {}
+
+    @ProcessSpecification(dependsOn = CycleB)
+    private static class CycleA extends AbstractProcessor {}
+
+    @ProcessSpecification(dependsOn = CycleA)
+    private static class CycleB extends AbstractProcessor {}
+
 }
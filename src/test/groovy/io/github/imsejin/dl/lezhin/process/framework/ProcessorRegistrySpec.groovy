@@ -0,0 +1,46 @@
+package io.github.imsejin.dl.lezhin.process.framework
+
+import io.github.imsejin.common.tool.ClassFinder
+import io.github.imsejin.common.tool.ClassFinder.SearchPolicy
+import io.github.imsejin.common.util.ClassUtils
+import io.github.imsejin.dl.lezhin.process.Processor
+import spock.lang.Specification
+
+import java.nio.file.Paths
+
+class ProcessorRegistrySpec extends Specification {
+
+    def "Finds the generated registry"() {
+        when:
+        def registry = ProcessorRegistry.find()
+
+        then:
+        registry.isPresent()
+        registry.get().class.name == ProcessorRegistry.GENERATED_CLASS_NAME
+    }
+
+    def "Lists the processors in the same order and dependencies as the resolver at runtime"() {
+        given:
+        def processorTypes = ClassFinder.getAllSubtypes(Processor, SearchPolicy.CLASS)
+                .findAll { !ClassUtils.isAbstractClass(it) && it.enclosingClass == null } as Set
+
+        when:
+        def registry = ProcessorRegistry.find().get()
+
+        then:
+        registry.processorTypes == ProcessorOrderResolver.resolve(processorTypes)
+        registry.dependencies == ProcessorOrderResolver.resolveDependencies(processorTypes)
+    }
+
+    def "Creates the processors in order"() {
+        given:
+        def registry = ProcessorRegistry.find().get()
+
+        when:
+        def processors = registry.createProcessors(Paths.get("").toAbsolutePath(), Locale.KOREA)
+
+        then:
+        processors*.class == registry.processorTypes
+    }
+
+}
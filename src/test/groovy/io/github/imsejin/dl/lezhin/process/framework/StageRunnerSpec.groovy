@@ -0,0 +1,124 @@
+package io.github.imsejin.dl.lezhin.process.framework
+
+import io.github.imsejin.dl.lezhin.process.Stage
+import io.github.imsejin.dl.lezhin.process.Stage.Emitter
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+@Timeout(10)
+class StageRunnerSpec extends Specification {
+
+    def "Runs items through the stages"() {
+        given:
+        def runner = StageRunner.<Integer> builder()
+                .stage("square", 2, { Integer item, Emitter<Integer> emitter -> emitter.emit(item * item) } as Stage)
+                .stage("repeat", 3, 4, { Integer item, Emitter<String> emitter ->
+                    item.times { emitter.emit("#$item") }
+                } as Stage)
+                .build()
+        def results = new ConcurrentLinkedQueue<String>()
+
+        when:
+        runner.run(1..4, { results.add(it) } as Emitter)
+
+        then:
+        results.sort() == (["#1"] + ["#4"] * 4 + ["#9"] * 9 + ["#16"] * 16).sort()
+    }
+
+    def "Passes each item to the next stage without waiting for the others"() {
+        given:
+        def events = new CopyOnWriteArrayList<String>()
+        def runner = StageRunner.<Integer> builder()
+                .stage("slow", 1, { Integer item, Emitter<Integer> emitter ->
+                    Thread.sleep(50)
+                    events.add("slow:$item".toString())
+                    emitter.emit(item)
+                } as Stage)
+                .stage("fast", 1, { Integer item, Emitter<Integer> emitter ->
+                    events.add("fast:$item".toString())
+                    emitter.emit(item)
+                } as Stage)
+                .build()
+
+        when:
+        runner.run(1..5, {} as Emitter)
+
+        then:
+        events.indexOf("fast:1") < events.indexOf("slow:5")
+    }
+
+    def "Holds back the source when the last stage is slow"() {
+        given:
+        def emitted = new AtomicInteger()
+        def completed = new AtomicInteger()
+        def maxInFlight = new AtomicInteger()
+        // Counts items taken by the runner.
+        Iterable<Integer> source = {
+            def iterator = (1..100).iterator()
+            [hasNext: { iterator.hasNext() }, next: { emitted.incrementAndGet(); iterator.next() }] as Iterator
+        } as Iterable
+        def runner = StageRunner.<Integer> builder()
+                .stage("pass", 2, 3, { Integer item, Emitter<Integer> emitter -> emitter.emit(item) } as Stage)
+                .stage("slow", 2, 3, { Integer item, Emitter<Integer> emitter ->
+                    maxInFlight.accumulateAndGet(emitted.get() - completed.get(), Math::max)
+                    Thread.sleep(2)
+                    completed.incrementAndGet()
+                } as Stage)
+                .build()
+
+        when:
+        runner.run(source, {} as Emitter)
+
+        then:
+        completed.get() == 100
+        // Buffers and workers of both stages, and an item which the source is holding.
+        maxInFlight.get() <= 3 + 2 + 3 + 2 + 1
+    }
+
+    def "Stops all the stages when a stage fails"() {
+        given:
+        def failure = new IllegalStateException("failure")
+        def interrupted = new AtomicBoolean()
+        def runner = StageRunner.<Integer> builder()
+                .stage("fail", 1, { Integer item, Emitter<Integer> emitter ->
+                    if (item == 3) throw failure
+                    emitter.emit(item)
+                } as Stage)
+                .stage("block", 1, { Integer item, Emitter<Integer> emitter ->
+                    try {
+                        Thread.sleep(10_000)
+                    } catch (InterruptedException e) {
+                        interrupted.set(true)
+                        throw e
+                    }
+                } as Stage)
+                .build()
+
+        when:
+        runner.run(1..10, {} as Emitter)
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.is(failure)
+        interrupted.get()
+    }
+
+    def "Fails to build with invalid stage"() {
+        when:
+        StageRunner.<Integer> builder().stage("stage", workers, bufferSize, { item, emitter -> } as Stage)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        workers | bufferSize
+        0       | 1
+        1       | 0
+    }
+
+}
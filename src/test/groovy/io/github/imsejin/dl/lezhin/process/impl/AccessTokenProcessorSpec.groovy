@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.process.impl
+
+import io.github.imsejin.dl.lezhin.api.login.service.LoginService
+import io.github.imsejin.dl.lezhin.argument.impl.ContentName
+import io.github.imsejin.dl.lezhin.argument.impl.Language
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication
+import io.github.imsejin.dl.lezhin.exception.UnexpectedPageException
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer
+import io.github.imsejin.dl.lezhin.process.ProcessContext
+import io.github.imsejin.dl.lezhin.session.Session
+import org.openqa.selenium.Cookie
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class AccessTokenProcessorSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    FakeLezhinServer server = FakeLezhinServer.builder()
+            .username("user@lezhin.com").password("password").ageGated(true).build().start()
+
+    @TempDir
+    private Path tempPath
+
+    def setupSpec() {
+        server.overrideOrigins()
+    }
+
+    def "Puts session of browser into context for the next processors"() {
+        given: "cookies of browser which has logged in"
+        def authentication = new Authentication("user@lezhin.com", "password")
+        def cookies = new LoginService(Locale.KOREA).login(authentication).cookies
+                .collect { new Cookie(it.name, it.value, it.domain, it.path, null) }
+        def context = ProcessContext.create(new Language(value: "ko"),
+                new ContentName(value: FakeLezhinServer.ALIAS), authentication)
+
+        when:
+        def session = new AccessTokenProcessor(tempPath).establishSession(context, server.accessToken, cookies)
+        context = ProcessContext.of(context, session)
+
+        then:
+        context.session == session
+        context.accessToken == server.accessToken
+
+        when:
+        def product = new ProductProcessor().process(context)
+
+        then: "comic page is requested with the cookies"
+        product.alias == FakeLezhinServer.ALIAS
+    }
+
+    def "Fails to get product of age-gated comic without session"() {
+        given:
+        def context = ProcessContext.create(new Language(value: "ko"),
+                new ContentName(value: FakeLezhinServer.ALIAS), server.accessToken)
+
+        when:
+        new ProductProcessor().process(context)
+
+        then:
+        thrown(UnexpectedPageException)
+    }
+
+}
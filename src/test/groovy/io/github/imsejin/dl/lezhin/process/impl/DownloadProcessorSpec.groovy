@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.process.impl
+
+import io.github.imsejin.dl.lezhin.http.circuit.CallNotPermittedException
+import io.github.imsejin.dl.lezhin.http.circuit.Endpoint
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+
+class DownloadProcessorSpec extends Specification {
+
+    def "Calls again after circuit breaker lets requests through"() {
+        given:
+        def calls = 0
+        def call = {
+            calls++
+            calls == 1
+                    ? CompletableFuture.failedFuture(new CallNotPermittedException(Endpoint.IMAGE, Duration.ofMillis(200)))
+                    : CompletableFuture.completedFuture("image")
+        }
+
+        when:
+        def startedAt = System.nanoTime()
+        def result = DownloadProcessor.joinPermitted(call)
+        def elapsed = Duration.ofNanos(System.nanoTime() - startedAt)
+
+        then:
+        result == "image"
+        calls == 2
+        elapsed >= Duration.ofMillis(200)
+    }
+
+    def "Gives up after waiting for circuit breaker several times"() {
+        given:
+        def calls = 0
+        def call = {
+            calls++
+            CompletableFuture.failedFuture(new CallNotPermittedException(Endpoint.EPISODE_METADATA, Duration.ZERO))
+        }
+
+        when:
+        DownloadProcessor.joinPermitted(call)
+
+        then:
+        def e = thrown(CompletionException)
+        e.cause instanceof CallNotPermittedException
+        calls == 4
+    }
+
+    def "Doesn't call again on the other failures"() {
+        given:
+        def calls = 0
+        def call = {
+            calls++
+            CompletableFuture.failedFuture(new IOException("reset"))
+        }
+
+        when:
+        DownloadProcessor.joinPermitted(call)
+
+        then:
+        thrown(CompletionException)
+        calls == 1
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.session
+
+import io.github.imsejin.dl.lezhin.api.auth.model.Authority
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache.CachedAuthority
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class CheckpointStoreSpec extends Specification {
+
+    @TempDir
+    private Path tempPath
+
+    def "Saves and loads a checkpoint"() {
+        given:
+        def authentication = new Authentication("anonymous", "password")
+        def authority = new Authority("policy", "signature", "KEY", 2_000L, 1_000L)
+        def checkpoint = [new CachedAuthority(1, 2, false, authority, 3_000L)] as CachedAuthority[]
+        def store = new CheckpointStore(tempPath)
+
+        when:
+        store.save(authentication, Locale.KOREA, "name", checkpoint)
+        def loaded = store.load(authentication, Locale.KOREA, "name", CachedAuthority[])
+
+        then:
+        loaded.isPresent()
+        loaded.get().length == 1
+        loaded.get()[0].episodeId == 2
+        loaded.get()[0].expiresAt == 3_000L
+        loaded.get()[0].authority.signature == "signature"
+        loaded.get()[0].authority.lifetime == authority.lifetime
+
+        and: "Content is not stored in plain text"
+        def files = Files.list(tempPath.resolve(".checkpoints")).toList()
+        files.size() == 1
+        !Files.readString(files[0]).contains("signature")
+    }
+
+    def "Separates checkpoints by account, locale and name"() {
+        given:
+        def authentication = new Authentication("anonymous", "password")
+        def store = new CheckpointStore(tempPath)
+        store.save(authentication, Locale.KOREA, "name", "checkpoint")
+
+        expect:
+        store.load(authentication, Locale.KOREA, "name", String).get() == "checkpoint"
+        store.load(authentication, Locale.JAPAN, "name", String).isEmpty()
+        store.load(authentication, Locale.KOREA, "other", String).isEmpty()
+        store.load(new Authentication("someone", "password"), Locale.KOREA, "name", String).isEmpty()
+    }
+
+    def "Discards a checkpoint that cannot be decrypted"() {
+        given:
+        def store = new CheckpointStore(tempPath)
+        store.save(new Authentication("anonymous", "password"), Locale.KOREA, "name", "checkpoint")
+
+        when: "Password is changed"
+        def loaded = store.load(new Authentication("anonymous", "changed"), Locale.KOREA, "name", String)
+
+        then:
+        loaded.isEmpty()
+        Files.list(tempPath.resolve(".checkpoints")).count() == 0
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.session
+
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class SessionStoreSpec extends Specification {
+
+    @TempDir
+    private Path tempPath
+
+    def "Saves and loads a session"() {
+        given:
+        def authentication = new Authentication("anonymous", "password")
+        def cookie = new Session.Cookie("_lz_session", "abcdef", ".lezhin.com", "/", null)
+        def session = new Session("anonymous", locale, UUID.randomUUID(), [cookie], System.currentTimeMillis() + 60_000)
+        def store = new SessionStore(tempPath)
+
+        when:
+        store.save(authentication, session)
+        def loaded = store.load(authentication, locale)
+
+        then:
+        loaded.isPresent()
+        loaded.get() == session
+        loaded.get().toCookieHeader() == "_lz_session=abcdef"
+
+        and: "Content is not stored in plain text"
+        def files = Files.list(tempPath.resolve(".sessions")).toList()
+        files.size() == 1
+        !Files.readString(files[0]).contains("_lz_session")
+
+        where:
+        locale << [Locale.KOREA, Locale.US, Locale.JAPAN]
+    }
+
+    def "Discards a session of the other locale or account"() {
+        given:
+        def authentication = new Authentication("anonymous", "password")
+        def session = new Session("anonymous", Locale.KOREA, UUID.randomUUID(), [], System.currentTimeMillis() + 60_000)
+        def store = new SessionStore(tempPath)
+        store.save(authentication, session)
+
+        expect:
+        store.load(authentication, Locale.JAPAN).isEmpty()
+        store.load(new Authentication("someone", "password"), Locale.KOREA).isEmpty()
+    }
+
+    def "Discards a session that cannot be decrypted"() {
+        given:
+        def session = new Session("anonymous", Locale.KOREA, UUID.randomUUID(), [], System.currentTimeMillis() + 60_000)
+        def store = new SessionStore(tempPath)
+        store.save(new Authentication("anonymous", "password"), session)
+
+        when: "Password is changed"
+        def loaded = store.load(new Authentication("anonymous", "changed"), Locale.KOREA)
+
+        then:
+        loaded.isEmpty()
+        Files.list(tempPath.resolve(".sessions")).count() == 0
+    }
+
+    def "Discards an expired session"() {
+        given:
+        def authentication = new Authentication("anonymous", "password")
+        def session = new Session("anonymous", Locale.US, UUID.randomUUID(), [], System.currentTimeMillis() - 1)
+        def store = new SessionStore(tempPath)
+        store.save(authentication, session)
+
+        when:
+        def loaded = store.load(authentication, Locale.US)
+
+        then:
+        loaded.isEmpty()
+        Files.list(tempPath.resolve(".sessions")).count() == 0
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.imsejin.dl.lezhin.util
+
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonToken
+import spock.lang.Specification
+
+class JsonReadersSpec extends Specification {
+
+    def "Reads null as null or default value"() {
+        given:
+        def reader = new JsonReader(new StringReader('[null, null, null, null, null, null, null, "end"]'))
+        reader.beginArray()
+
+        expect:
+        JsonReaders.nextString(reader) == null
+        JsonReaders.nextLongOrNull(reader) == null
+        JsonReaders.nextLong(reader) == 0
+        JsonReaders.nextIntOrNull(reader) == null
+        JsonReaders.nextInt(reader) == 0
+        !JsonReaders.nextBoolean(reader)
+        JsonReaders.isNull(reader)
+        !JsonReaders.isNull(reader)
+        reader.nextString() == "end"
+    }
+
+    def "Skips members which are not read"() {
+        given:
+        def reader = new JsonReader(new StringReader('{"a": 1, "b": {"c": [2, 3]}, "d": "e"}'))
+        def read = [:]
+
+        when:
+        JsonReaders.readObject(reader) { name ->
+            if (name == "b") return false
+            read[name] = JsonReaders.nextString(reader)
+            true
+        }
+
+        then:
+        read == [a: "1", d: "e"]
+        reader.peek() == JsonToken.END_DOCUMENT
+    }
+
+}
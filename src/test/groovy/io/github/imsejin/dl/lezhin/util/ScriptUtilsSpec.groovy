@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.util
+
+import spock.lang.Specification
+
+class ScriptUtilsSpec extends Specification {
+
+    def "Finds access token"() {
+        given:
+        def text = """
+        __LZ_CONFIG__ = _.merge(window.__LZ_CONFIG__, {
+            locale: 'ko-KR',
+            token: '$token',
+        });
+        """
+
+        expect:
+        ScriptUtils.findAccessToken(text) == expected
+
+        where:
+        token                                  | expected
+        "5be30a25-a044-410c-88b0-19a1da968a64" | token
+        "f01c3a5e-0ef2-4a39-a7b1-6c3cd3b0e0aa" | token
+        ""                                     | null
+        "not-a-token"                          | null
+    }
+
+    def "Finds error code"() {
+        expect:
+        ScriptUtils.findErrorCode(text) == expected
+
+        where:
+        text                                   | expected
+        "__LZ_ERROR_CODE__ = '1101';"          | "1101"
+        "__LZ_ERROR_CODE__ = '';"              | ""
+        "__LZ_PRODUCT__ = { productType: '' }" | null
+    }
+
+    def "Finds product"() {
+        given:
+        def product = '''{"id":1,"alias":"snail","display":{"title":"a {brace} and \\"quote\\""},"episodes":[{"id":2}]}'''
+        def text = """
+        __LZ_MESSAGE__ = {};
+        __LZ_PRODUCT__ = { productType: 'comic', product: $product, departure: '', all: {}, prefree: {} };
+        __LZ_DATA__ = {};
+        """
+
+        expect:
+        ScriptUtils.findProduct(text) == product
+        ScriptUtils.findProduct("__LZ_PRODUCT__ = { productType: 'comic' };") == null
+        ScriptUtils.findProduct("__LZ_PRODUCT__ = { productType: 'comic', product: {\"id\": 1") == null
+    }
+
+}
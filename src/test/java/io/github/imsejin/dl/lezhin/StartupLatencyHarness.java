@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import io.github.imsejin.dl.lezhin.argument.Argument;
+import io.github.imsejin.dl.lezhin.argument.ArgumentsParser;
+import io.github.imsejin.dl.lezhin.argument.impl.ContentName;
+import io.github.imsejin.dl.lezhin.argument.impl.DebugMode;
+import io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange;
+import io.github.imsejin.dl.lezhin.argument.impl.Language;
+import io.github.imsejin.dl.lezhin.argument.impl.SaveAsJpeg;
+import io.github.imsejin.dl.lezhin.argument.impl.WarmUpBrowser;
+import io.github.imsejin.dl.lezhin.common.Origins;
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer;
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer.Route;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.Processor;
+import io.github.imsejin.dl.lezhin.process.framework.ProcessorCreator;
+import io.github.imsejin.dl.lezhin.process.framework.ProcessorOrderResolver;
+import io.github.imsejin.dl.lezhin.process.framework.ProcessorRegistry;
+import io.github.imsejin.lzcodl.common.CommandParser;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Measures start-up of {@link Application} phase by phase.
+ *
+ * <p> Each run is a new JVM, so class loading and JIT are cold as they are on every launch.
+ * The run follows the sequence of {@link Application#main(String[])} in its own working directory
+ * with {@code config.ini}. HTTP goes to {@link FakeLezhinServer} in this process, so login succeeds
+ * without browser and {@code LoginProcessor} is skipped as it is when HTTP login succeeds.
+ *
+ * <pre>{@code
+ *     StartupLatencyHarness --forks=10 --episodes=3 --cuts=5 --discovery=scan
+ * }</pre>
+ *
+ * <p> It reports median, min and max of wall time of each phase and time to first image,
+ * which is from start of JVM to when the fake server writes the first image. Arguments of the legacy
+ * entry point are measured too, but the rest of it needs a real browser.
+ *
+ * <p> Processors are created by the registry generated on compilation by default. With {@code --discovery=scan},
+ * they are found by scanning classpath as the fallback does. Classpath of the runs includes test classes,
+ * so scanning for processors takes a little longer than it does in the distribution.
+ */
+public final class StartupLatencyHarness {
+
+    private static final String USERNAME = "user@lezhin.com";
+
+    private static final String PASSWORD = "password";
+
+    private static final String CHILD_OPTION = "--child";
+
+    private static final String SCAN = "scan";
+
+    private static final String PHASE_PREFIX = "phase:";
+
+    private static final String TIME_TO_FIRST_IMAGE = "time to first image";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(keyValue[0], keyValue.length == 2 ? keyValue[1] : "true");
+        }
+
+        String discovery = options.getOrDefault("discovery", "registry");
+
+        if (options.containsKey(CHILD_OPTION.substring(2))) {
+            new Child().run(discovery.equals(SCAN));
+        } else {
+            runForks(discovery, Integer.parseInt(options.getOrDefault("forks", "5")),
+                    Integer.parseInt(options.getOrDefault("episodes", "3")),
+                    Integer.parseInt(options.getOrDefault("cuts", "5")));
+        }
+    }
+
+    private static void runForks(String discovery, int forks, int episodes, int cuts) throws Exception {
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+
+        try (FakeLezhinServer server = FakeLezhinServer.builder().username(USERNAME).password(PASSWORD)
+                .episodeCount(episodes).cutCount(cuts).imageSize(16 * 1024).build().start()) {
+            for (int i = 0; i < forks; i++) {
+                server.resetStatistics();
+                Map<String, Long> phases = fork(server.getOrigin(), discovery);
+
+                long jvmStartedAt = phases.remove("jvm start");
+                server.getFirstCompletedAt(Route.IMAGE)
+                        .ifPresent(it -> phases.put(TIME_TO_FIRST_IMAGE, it - jvmStartedAt));
+
+                phases.forEach((phase, millis) -> samples.computeIfAbsent(phase, k -> new ArrayList<>()).add(millis));
+                System.out.printf("Run %d/%d: %d ms to first image%n", i + 1, forks,
+                        phases.getOrDefault(TIME_TO_FIRST_IMAGE, -1L));
+            }
+        }
+
+        System.out.printf("%n%-40s %10s %10s %10s%n", "Phase", "median(ms)", "min(ms)", "max(ms)");
+        samples.forEach((phase, millis) -> {
+            List<Long> sorted = millis.stream().sorted().collect(toList());
+            System.out.printf("%-40s %10d %10d %10d%n", phase, sorted.get((sorted.size() - 1) / 2),
+                    sorted.get(0), sorted.get(sorted.size() - 1));
+        });
+    }
+
+    /**
+     * Runs the sequence in a new JVM and returns wall time of each phase.
+     */
+    private static Map<String, Long> fork(String origin, String discovery) throws IOException, InterruptedException {
+        Path workingPath = Files.createTempDirectory("lezhin-startup-");
+        Files.writeString(workingPath.resolve("config.ini"),
+                "[account]\nusername = " + USERNAME + "\npassword = " + PASSWORD + '\n');
+
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+
+        // The run has another working directory.
+        String classpath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(it -> Paths.get(it).toAbsolutePath().toString()).collect(joining(File.pathSeparator));
+
+        Process process = new ProcessBuilder(java.toString(),
+                "-D" + Origins.ORIGIN_PROPERTY + '=' + origin,
+                "-D" + Origins.CDN_ORIGIN_PROPERTY + '=' + origin,
+                "-cp", classpath,
+                StartupLatencyHarness.class.getName(), CHILD_OPTION, "--discovery=" + discovery)
+                .directory(workingPath.toFile())
+                .redirectErrorStream(true)
+                .start();
+
+        Map<String, Long> phases = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(PHASE_PREFIX)) {
+                    System.out.println(line);
+                    continue;
+                }
+
+                String[] nameAndMillis = line.substring(PHASE_PREFIX.length()).split("=", 2);
+                phases.put(nameAndMillis[0], Long.parseLong(nameAndMillis[1]));
+            }
+        }
+
+        try {
+            if (process.waitFor() != 0) {
+                throw new IllegalStateException("Run failed with exit code: " + process.exitValue());
+            }
+        } finally {
+            try (Stream<Path> stream = Files.walk(workingPath)) {
+                for (Path path : stream.sorted(Comparator.reverseOrder()).collect(toList())) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+
+        return phases;
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Sequence of {@link Application#main(String[])} which reports each phase.
+     */
+    private static final class Child {
+        private long lastTime = System.nanoTime();
+
+        private void run(boolean scan) {
+            long jvmStartedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+            report("jvm start", jvmStartedAt);
+            report("jvm to main", System.currentTimeMillis() - jvmStartedAt);
+            lap(null);
+
+            // Logs of the tool would be mixed with the report.
+            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+            loggerContext.getLoggerList().forEach(it -> it.setLevel(Level.ERROR));
+            lap("logback");
+
+            CommandParser.parse("-l", "ko", "-n", FakeLezhinServer.ALIAS);
+            lap("legacy: CommandParser");
+
+            ArgumentsParser argumentsParser = new ArgumentsParser(new Language(), new ContentName(),
+                    new EpisodeRange(), new SaveAsJpeg(), new DebugMode(), new WarmUpBrowser());
+            List<Argument> arguments = argumentsParser.parse("-l=ko", "-n=" + FakeLezhinServer.ALIAS);
+            lap("ArgumentsParser");
+
+            ProcessContext context = ProcessContext.create(arguments.toArray());
+            lap("ProcessContext");
+
+            Path basePath = Paths.get("").toAbsolutePath();
+            List<Processor> processors;
+            if (scan) {
+                Set<Class<? extends Processor>> processorTypes = Application.findProcessorTypes();
+                lap("scan processors");
+
+                List<Class<? extends Processor>> orderedTypes = ProcessorOrderResolver.resolve(processorTypes);
+                lap("ProcessorOrderResolver");
+
+                ProcessorCreator processorCreator = new ProcessorCreator(basePath, context.getLanguage().getValue());
+                processors = processorCreator.create(orderedTypes);
+                lap("ProcessorCreator");
+            } else {
+                ProcessorRegistry registry = ProcessorRegistry.find().orElseThrow(() ->
+                        new IllegalStateException("Registry is not generated: " + ProcessorRegistry.GENERATED_CLASS_NAME));
+                lap("ProcessorRegistry");
+
+                processors = registry.createProcessors(basePath, context.getLanguage().getValue());
+                lap("create processors");
+            }
+
+            for (Processor processor : processors) {
+                Object result = processor.process(context);
+                context = ProcessContext.of(context, result);
+                lap(processor.getClass().getSimpleName());
+            }
+
+            report("total", System.currentTimeMillis() - jvmStartedAt);
+
+            // Non-daemon threads of HTTP client would keep JVM alive for a while.
+            System.exit(0);
+        }
+
+        private void lap(String phase) {
+            long now = System.nanoTime();
+            if (phase != null) report(phase, (now - this.lastTime) / 1_000_000);
+            this.lastTime = now;
+        }
+
+        private static void report(String phase, long millis) {
+            System.out.println(PHASE_PREFIX + phase + '=' + millis);
+        }
+    }
+
+}
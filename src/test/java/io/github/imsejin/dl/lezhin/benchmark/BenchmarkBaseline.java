@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares result of JMH with the baseline.
+ *
+ * <p> Both are JSON files written by {@code -rf json}. A benchmark regresses if its score or
+ * allocation per operation ({@code gc.alloc.rate.norm}) grows more than the threshold.
+ * All the benchmarks measure average time, so lower is better for both.
+ *
+ * <pre>{@code
+ *     BenchmarkBaseline <baseline.json> <result.json> [threshold percent]
+ * }</pre>
+ *
+ * <p> Exits with 1 if there is any regression.
+ */
+public final class BenchmarkBaseline {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkBaseline <baseline.json> <result.json> [threshold percent]");
+            System.exit(2);
+        }
+
+        Path baselinePath = Paths.get(args[0]);
+        if (Files.notExists(baselinePath)) {
+            System.out.printf("There is no baseline: %s%n", baselinePath);
+            return;
+        }
+
+        Map<String, Score> baseline = read(baselinePath);
+        Map<String, Score> result = read(Paths.get(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int numOfRegressions = 0;
+        System.out.printf("%-100s %14s %14s %9s %9s%n", "Benchmark", "Baseline", "Result", "Time", "Alloc");
+
+        for (Map.Entry<String, Score> entry : result.entrySet()) {
+            Score current = entry.getValue();
+            Score base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-100s %14s %11.3f %s%n", entry.getKey(), "-", current.score, current.unit);
+                continue;
+            }
+
+            double timeChange = change(base.score, current.score);
+            double allocChange = change(base.allocation, current.allocation);
+            boolean regressed = timeChange > threshold || allocChange > threshold;
+            if (regressed) numOfRegressions++;
+
+            System.out.printf("%-100s %11.3f %s %11.3f %s %+8.1f%% %+8.1f%%%s%n", entry.getKey(),
+                    base.score, base.unit, current.score, current.unit, timeChange, allocChange,
+                    regressed ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("%d regression(s) over %.1f%%%n", numOfRegressions, threshold);
+        if (numOfRegressions > 0) System.exit(1);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        JsonArray array;
+        try (Reader reader = Files.newBufferedReader(path)) {
+            array = JsonParser.parseReader(reader).getAsJsonArray();
+        }
+
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonElement element : array) {
+            JsonObject object = element.getAsJsonObject();
+            JsonObject primary = object.getAsJsonObject("primaryMetric");
+            JsonObject secondaries = object.getAsJsonObject("secondaryMetrics");
+
+            double allocation = secondaries != null && secondaries.has(ALLOCATION_METRIC)
+                    ? secondaries.getAsJsonObject(ALLOCATION_METRIC).get("score").getAsDouble()
+                    : Double.NaN;
+
+            scores.put(key(object), new Score(primary.get("score").getAsDouble(),
+                    primary.get("scoreUnit").getAsString(), allocation));
+        }
+
+        return scores;
+    }
+
+    private static String key(JsonObject object) {
+        String name = object.get("benchmark").getAsString();
+        JsonObject params = object.getAsJsonObject("params");
+        if (params == null) return name;
+
+        // Sorts parameters, so that the key doesn't depend on their order.
+        Map<String, String> sorted = new TreeMap<>();
+        params.entrySet().forEach(it -> sorted.put(it.getKey(), it.getValue().getAsString()));
+        return name + sorted;
+    }
+
+    /**
+     * Returns change in percent, or {@code 0} if it cannot be computed.
+     */
+    private static double change(double base, double current) {
+        if (Double.isNaN(base) || Double.isNaN(current) || base == 0) return 0;
+        return (current - base) / base * 100;
+    }
+
+    private static final class Score {
+        private final double score;
+
+        private final String unit;
+
+        /**
+         * Bytes allocated per operation.
+         */
+        private final double allocation;
+
+        private Score(double score, String unit, double allocation) {
+            this.score = score;
+            this.unit = unit;
+            this.allocation = allocation;
+        }
+    }
+
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.github.imsejin.dl.lezhin.api.BaseService;
+import io.github.imsejin.dl.lezhin.api.auth.service.AuthorityCache;
+import io.github.imsejin.dl.lezhin.api.login.service.LoginService;
+import io.github.imsejin.dl.lezhin.api.product.model.Product;
+import io.github.imsejin.dl.lezhin.argument.ArgumentsParser;
+import io.github.imsejin.dl.lezhin.argument.impl.ContentName;
+import io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange;
+import io.github.imsejin.dl.lezhin.argument.impl.Language;
+import io.github.imsejin.dl.lezhin.argument.impl.SaveAsJpeg;
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer;
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer.Route;
+import io.github.imsejin.dl.lezhin.fake.FakeLezhinServer.RouteConfig;
+import io.github.imsejin.dl.lezhin.http.circuit.Endpoint;
+import io.github.imsejin.dl.lezhin.http.hedge.LatencyTracker;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import io.github.imsejin.dl.lezhin.process.impl.DownloadProcessor;
+import io.github.imsejin.dl.lezhin.process.impl.EpisodeAuthorityProcessor;
+import io.github.imsejin.dl.lezhin.process.impl.ProductProcessor;
+import io.github.imsejin.dl.lezhin.session.Session;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Measures throughput of downloading a synthetic comic end to end.
+ *
+ * <p> This drives {@link ProductProcessor}, {@link EpisodeAuthorityProcessor} and {@link DownloadProcessor}
+ * against {@link FakeLezhinServer} with the simulated network conditions, once for each parallelism
+ * of download. Each run has its own server and session, so the runs don't share cached authority or
+ * connection.
+ *
+ * <pre>{@code
+ *     DownloadThroughputHarness --episodes=20 --cuts=40 --image-size=300000 \
+ *         --latency=50 --latency-sigma=0.5 --bandwidth=2000000 --error-rate=0.01 --parallelism=2,4,8,16
+ * }</pre>
+ *
+ * <ul>
+ *     <li>{@code --episodes}, {@code --cuts}, {@code --image-size}: size of the comic</li>
+ *     <li>{@code --latency}: median latency of each request in milliseconds</li>
+ *     <li>{@code --latency-sigma}: spread of log-normal latency, constant if zero</li>
+ *     <li>{@code --bandwidth}: bytes per second of each image response, unlimited if zero</li>
+ *     <li>{@code --error-rate}: ratio of image requests which fail with 503</li>
+ *     <li>{@code --parallelism}: comma-separated max numbers of images being downloaded</li>
+ *     <li>{@code --warmup}: number of runs discarded before measuring</li>
+ *     <li>{@code --verbose}: prints logs of the tool as well</li>
+ * </ul>
+ *
+ * <p> Latency of cut is measured on the server, from receiving request to writing the whole image,
+ * so it doesn't include queueing in the client. Peak heap is sampled every 10 milliseconds and
+ * allocation is the growth of heap plus the garbage collected during the run.
+ *
+ * <p> Circuit breakers are shared by all runs in the process. If error rate is high enough to open
+ * the breaker of images, the later runs fail fast; the state is reported for each run.
+ */
+public final class DownloadThroughputHarness {
+
+    private static final String USERNAME = "user@lezhin.com";
+
+    private static final String PASSWORD = "password";
+
+    private final Map<String, String> options;
+
+    private DownloadThroughputHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(keyValue[0], keyValue.length == 2 ? keyValue[1] : "true");
+        }
+
+        // Logs of each image would bury the report.
+        if (!options.containsKey("verbose")) {
+            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+            loggerContext.getLoggerList().forEach(it -> it.setLevel(Level.ERROR));
+        }
+
+        new DownloadThroughputHarness(options).run();
+    }
+
+    private void run() throws Exception {
+        int episodes = getInt("episodes", 10);
+        int cuts = getInt("cuts", 30);
+        int imageSize = getInt("image-size", 200_000);
+        int warmup = getInt("warmup", 1);
+        List<Integer> parallelisms = Arrays.stream(this.options.getOrDefault("parallelism", "1,2,4,8").split(","))
+                .map(String::trim).map(Integer::parseInt).collect(toList());
+
+        RouteConfig imageConfig = RouteConfig.builder()
+                .latency(Duration.ofMillis(getInt("latency", 30)))
+                .latencySigma(getDouble("latency-sigma", 0.5))
+                .bytesPerSecond(getInt("bandwidth", 0))
+                .errorRate(getDouble("error-rate", 0))
+                .build();
+
+        System.out.printf("Comic: %d episode(s) x %d cut(s) x %,d bytes%n", episodes, cuts, imageSize);
+        System.out.printf("Image route: latency=%s, sigma=%.2f, bandwidth=%,d B/s, error rate=%.3f%n",
+                imageConfig.getLatency(), imageConfig.getLatencySigma(), imageConfig.getBytesPerSecond(),
+                imageConfig.getErrorRate());
+
+        for (int i = 0; i < warmup; i++) {
+            measure(episodes, cuts, imageSize, imageConfig, parallelisms.get(0));
+        }
+
+        System.out.printf("%n%11s %8s %9s %8s %8s %8s %8s %11s %11s %9s %s%n", "parallelism", "images",
+                "images/s", "MB/s", "p50(ms)", "p95(ms)", "p99(ms)", "peak heap", "allocated", "failures", "breaker");
+
+        for (int parallelism : parallelisms) {
+            Result result = measure(episodes, cuts, imageSize, imageConfig, parallelism);
+
+            double seconds = result.elapsed.toNanos() / 1e9;
+            System.out.printf("%11d %8d %9.1f %8.2f %8d %8d %8d %9.1fMB %9.1fMB %9d %s%n", parallelism,
+                    result.images, result.images / seconds, result.bytes / seconds / 1e6,
+                    result.getPercentile(0.5), result.getPercentile(0.95), result.getPercentile(0.99),
+                    result.peakHeap / 1e6, result.allocated / 1e6, result.failures,
+                    BaseService.getCircuitBreaker(Endpoint.IMAGE).getState());
+        }
+    }
+
+    private Result measure(int episodes, int cuts, int imageSize, RouteConfig imageConfig, int parallelism)
+            throws Exception {
+        Path basePath = Files.createTempDirectory("lezhin-throughput-");
+
+        try (FakeLezhinServer server = FakeLezhinServer.builder().username(USERNAME).password(PASSWORD)
+                .episodeCount(episodes).cutCount(cuts).imageSize(imageSize).build().start()) {
+            server.overrideOrigins();
+            server.configure(Route.IMAGE, imageConfig);
+
+            Session session = new LoginService(Locale.KOREA).login(new Authentication(USERNAME, PASSWORD));
+            Object[] arguments = new ArgumentsParser(new Language(), new ContentName(), new EpisodeRange(),
+                    new SaveAsJpeg()).parse("-l", "ko", "-n", FakeLezhinServer.ALIAS, "-r", "").toArray();
+            ProcessContext context = ProcessContext.of(ProcessContext.create(arguments),
+                    session, session.getAccessToken());
+
+            server.resetStatistics();
+            MemoryMeter meter = MemoryMeter.start();
+            long startedAt = System.nanoTime();
+
+            Product product = new ProductProcessor().process(context);
+            context = ProcessContext.of(context, product);
+            AuthorityCache authorityCache = new EpisodeAuthorityProcessor().process(context);
+            context = ProcessContext.of(context, authorityCache);
+            new DownloadProcessor(basePath, parallelism).process(context);
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+            meter.stop();
+
+            List<Path> files = listFiles(basePath);
+            long bytes = 0;
+            for (Path file : files) {
+                bytes += Files.size(file);
+            }
+
+            List<Duration> serviceTimes = server.getServiceTimes(Route.IMAGE);
+            LatencyTracker tracker = new LatencyTracker(Math.max(1, serviceTimes.size()));
+            serviceTimes.forEach(tracker::record);
+
+            return new Result(elapsed, files.size(), bytes, episodes * cuts - files.size(), tracker,
+                    meter.peakHeap.get(), meter.getAllocated());
+        } finally {
+            for (Path path : listAll(basePath)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private int getInt(String name, int defaultValue) {
+        String value = this.options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private double getDouble(String name, double defaultValue) {
+        String value = this.options.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static List<Path> listFiles(Path basePath) throws IOException {
+        try (Stream<Path> stream = Files.walk(basePath)) {
+            return stream.filter(Files::isRegularFile).collect(toList());
+        }
+    }
+
+    /**
+     * Returns all files and directories, deepest first.
+     */
+    private static List<Path> listAll(Path basePath) throws IOException {
+        try (Stream<Path> stream = Files.walk(basePath)) {
+            return stream.sorted(Comparator.reverseOrder()).collect(toList());
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static final class Result {
+        private final Duration elapsed;
+
+        private final int images;
+
+        private final long bytes;
+
+        private final int failures;
+
+        private final LatencyTracker latencyTracker;
+
+        private final long peakHeap;
+
+        private final long allocated;
+
+        private Result(Duration elapsed, int images, long bytes, int failures, LatencyTracker latencyTracker,
+                       long peakHeap, long allocated) {
+            this.elapsed = elapsed;
+            this.images = images;
+            this.bytes = bytes;
+            this.failures = failures;
+            this.latencyTracker = latencyTracker;
+            this.peakHeap = peakHeap;
+            this.allocated = allocated;
+        }
+
+        private long getPercentile(double percentile) {
+            return this.latencyTracker.getPercentile(percentile).map(Duration::toMillis).orElse(-1L);
+        }
+    }
+
+    /**
+     * Meter of heap during a run.
+     */
+    private static final class MemoryMeter implements NotificationListener {
+        private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+        private final Set<String> heapPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(it -> it.getType() == MemoryType.HEAP).map(MemoryPoolMXBean::getName).collect(toSet());
+
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+        private final AtomicLong peakHeap = new AtomicLong();
+
+        private final AtomicLong collected = new AtomicLong();
+
+        private final long heapAtStart;
+
+        private long heapAtStop;
+
+        private volatile boolean running = true;
+
+        private MemoryMeter() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean instanceof NotificationEmitter) {
+                    NotificationEmitter emitter = (NotificationEmitter) bean;
+                    emitter.addNotificationListener(this, null, null);
+                    this.emitters.add(emitter);
+                }
+            }
+
+            this.heapAtStart = this.memoryBean.getHeapMemoryUsage().getUsed();
+            this.peakHeap.set(this.heapAtStart);
+
+            Thread sampler = new Thread(() -> {
+                while (this.running) {
+                    this.peakHeap.accumulateAndGet(this.memoryBean.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "heap-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+
+        private static MemoryMeter start() {
+            return new MemoryMeter();
+        }
+
+        private void stop() throws Exception {
+            this.heapAtStop = this.memoryBean.getHeapMemoryUsage().getUsed();
+            this.running = false;
+
+            // Notifications of GC are delivered asynchronously.
+            Thread.sleep(100);
+            for (NotificationEmitter emitter : this.emitters) {
+                emitter.removeNotificationListener(this);
+            }
+        }
+
+        private long getAllocated() {
+            return this.heapAtStop - this.heapAtStart + this.collected.get();
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                    (CompositeData) notification.getUserData());
+            Map<String, MemoryUsage> before = info.getGcInfo().getMemoryUsageBeforeGc();
+            Map<String, MemoryUsage> after = info.getGcInfo().getMemoryUsageAfterGc();
+
+            long freed = 0;
+            for (String poolName : this.heapPoolNames) {
+                if (before.containsKey(poolName) && after.containsKey(poolName)) {
+                    freed += before.get(poolName).getUsed() - after.get(poolName).getUsed();
+                }
+            }
+
+            this.collected.addAndGet(freed);
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.benchmark;
+
+import io.github.imsejin.dl.lezhin.http.interceptor.FabricatedHeadersInterceptor;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FabricatedHeadersInterceptor#intercept(Interceptor.Chain)}, which runs for every request.
+ *
+ * <p> The chain responds without network, so this measures only copying request with the headers.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FabricatedHeadersInterceptorBenchmark {
+
+    private FabricatedHeadersInterceptor interceptor;
+
+    private Interceptor.Chain chain;
+
+    @Setup
+    public void setUp() {
+        this.interceptor = new FabricatedHeadersInterceptor(Locale.KOREA, UUID.randomUUID(),
+                FabricatedHeadersInterceptor.randomizeUserAgent());
+
+        Request request = new Request.Builder()
+                .url("https://ccdn.lezhin.com/v2/comics/5566/episodes/1/contents/scrolls/1.webp?purchased=false&q=30")
+                .build();
+        this.chain = new RespondingChain(request);
+    }
+
+    @Benchmark
+    public Response intercept() throws IOException {
+        return this.interceptor.intercept(this.chain);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Chain which responds with empty response to any request.
+     */
+    private static final class RespondingChain implements Interceptor.Chain {
+        private final Request request;
+
+        private RespondingChain(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public Request request() {
+            return this.request;
+        }
+
+        @Override
+        public Response proceed(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .build();
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.benchmark;
+
+import io.github.imsejin.common.util.ArrayUtils;
+import io.github.imsejin.common.util.ReflectionUtils;
+import io.github.imsejin.dl.lezhin.argument.ArgumentsParser;
+import io.github.imsejin.dl.lezhin.argument.impl.ContentName;
+import io.github.imsejin.dl.lezhin.argument.impl.DebugMode;
+import io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange;
+import io.github.imsejin.dl.lezhin.argument.impl.Language;
+import io.github.imsejin.dl.lezhin.argument.impl.SaveAsJpeg;
+import io.github.imsejin.dl.lezhin.attribute.impl.Authentication;
+import io.github.imsejin.dl.lezhin.process.ProcessContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+/**
+ * Measures {@link ProcessContext#of(ProcessContext, Object...)}, which merges context after every processor.
+ *
+ * <p> {@code reflective*} merges context in the previous way: reads every field by reflection,
+ * prepends the new attributes and assigns them to new context by reflection.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProcessContextBenchmark {
+
+    private ProcessContext context;
+
+    private UUID accessToken;
+
+    @Setup
+    public void setUp() {
+        Object[] arguments = new ArgumentsParser(new Language(), new ContentName(), new EpisodeRange(),
+                new SaveAsJpeg(), new DebugMode())
+                .parse("-l", "ko", "-n", "alias", "-r", "1~10").toArray();
+
+        this.context = ProcessContext.of(ProcessContext.create(arguments), new Authentication("username", "password"));
+        this.accessToken = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public ProcessContext ofOneAttribute() {
+        return ProcessContext.of(this.context, this.accessToken);
+    }
+
+    @Benchmark
+    public ProcessContext ofNothing() {
+        return ProcessContext.of(this.context, (Object) null);
+    }
+
+    @Benchmark
+    public ProcessContext reflectiveOfOneAttribute() {
+        return reflectiveOf(this.context, this.accessToken);
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private static final List<Field> FIELDS = Arrays.stream(ProcessContext.class.getDeclaredFields())
+            .filter(it -> !Modifier.isStatic(it.getModifiers()))
+            .filter(it -> !it.isSynthetic())
+            .collect(toUnmodifiableList());
+
+    private static ProcessContext reflectiveOf(ProcessContext context, Object... attributes) {
+        Object[] originAttributes = FIELDS.stream().map(it -> ReflectionUtils.getFieldValue(context, it)).toArray();
+        Object[] prepended = ArrayUtils.prepend(originAttributes, attributes);
+
+        ProcessContext created = ProcessContext.create();
+
+        outer:
+        for (Field field : FIELDS) {
+            for (Object attribute : prepended) {
+                if (attribute == null) {
+                    continue;
+                }
+
+                if (field.getType().isAssignableFrom(attribute.getClass())) {
+                    ReflectionUtils.setFieldValue(created, field, attribute);
+                    continue outer;
+                }
+            }
+        }
+
+        return created;
+    }
+
+}
@@ -0,0 +1,642 @@
+/*
+ * Copyright 2022 Sejin Im
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.imsejin.dl.lezhin.fake;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.imsejin.dl.lezhin.common.Origins;
+import io.github.imsejin.lzcodl.benchmark.ProductFixtures;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Embedded stand-in for lezhin servers
+ *
+ * <p> This serves platform pages, episode metadata, signed URL and images of a synthetic comic
+ * on a single local port. {@link #overrideOrigins()} points the tool at this server.
+ * Latency, bandwidth and error rate are configurable for each {@link Route}.
+ *
+ * <pre>{@code
+ *     try (FakeLezhinServer server = FakeLezhinServer.builder().build().start()) {
+ *         server.overrideOrigins();
+ *         server.configure(Route.IMAGE, RouteConfig.builder().latency(Duration.ofMillis(50)).build());
+ *         // ...
+ *     }
+ * }</pre>
+ */
+@Getter
+public class FakeLezhinServer implements Closeable {
+
+    public static final String ALIAS = "alias";
+
+    public static final long CONTENT_ID = 5566;
+
+    private static final String SESSION_COOKIE = "_lz_session";
+
+    private static final Pattern COOKIE_PATTERN = Pattern.compile(SESSION_COOKIE + "=([0-9a-f-]+)");
+
+    private static final Pattern POLICY_EPISODE_PATTERN = Pattern.compile("^(\\d+):(\\d+)$");
+
+    private final String username;
+
+    private final String password;
+
+    private final UUID accessToken;
+
+    private final int episodeCount;
+
+    private final int cutCount;
+
+    private final int imageSize;
+
+    /**
+     * Lifetime of authority for viewing episode.
+     */
+    private final Duration authorityLifetime;
+
+    /**
+     * Whether comic page has the product only for the logged-in account, like comics for adults.
+     */
+    private final boolean ageGated;
+
+    private final String productJson;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Route, RouteConfig> routeConfigs = new EnumMap<>(Route.class);
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Route, AtomicLong> requestCounts = new EnumMap<>(Route.class);
+
+    /**
+     * Nanoseconds from receiving request to writing the whole response, for each route.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Route, Queue<Long>> serviceTimes = new EnumMap<>(Route.class);
+
+    /**
+     * Epoch milliseconds when the first response is written, for each route.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Route, AtomicLong> firstCompletedAt = new EnumMap<>(Route.class);
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    @Getter(lombok.AccessLevel.NONE)
+    private HttpServer server;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private ExecutorService executor;
+
+    @Builder
+    private FakeLezhinServer(String username, String password, Integer episodeCount, Integer cutCount,
+                             Integer imageSize, Duration authorityLifetime, Boolean ageGated) {
+        this.username = username == null ? "user@lezhin.com" : username;
+        this.password = password == null ? "password" : password;
+        this.accessToken = UUID.randomUUID();
+        this.episodeCount = episodeCount == null ? 20 : episodeCount;
+        this.cutCount = cutCount == null ? 10 : cutCount;
+        this.imageSize = imageSize == null ? 16 * 1024 : imageSize;
+        this.authorityLifetime = authorityLifetime == null ? Duration.ofMinutes(10) : authorityLifetime;
+        this.ageGated = ageGated != null && ageGated;
+        this.productJson = ProductFixtures.product(this.episodeCount);
+
+        for (Route route : Route.values()) {
+            this.routeConfigs.put(route, RouteConfig.builder().build());
+            this.requestCounts.put(route, new AtomicLong());
+            this.serviceTimes.put(route, new ConcurrentLinkedQueue<>());
+            this.firstCompletedAt.put(route, new AtomicLong());
+        }
+    }
+
+    /**
+     * Starts server on a random local port.
+     *
+     * @return this
+     * @throws IOException if failed to bind
+     */
+    public FakeLezhinServer start() throws IOException {
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-lezhin-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(this.executor);
+        this.server.start();
+
+        return this;
+    }
+
+    /**
+     * Returns origin of this server.
+     *
+     * @return origin URL (e.g. http://127.0.0.1:54321)
+     */
+    public String getOrigin() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    /**
+     * Points both platform and CDN at this server until closed.
+     */
+    public void overrideOrigins() {
+        System.setProperty(Origins.ORIGIN_PROPERTY, getOrigin());
+        System.setProperty(Origins.CDN_ORIGIN_PROPERTY, getOrigin());
+    }
+
+    /**
+     * Changes behavior of the route.
+     *
+     * @param route  route
+     * @param config behavior
+     */
+    public synchronized void configure(Route route, RouteConfig config) {
+        this.routeConfigs.put(route, config);
+    }
+
+    /**
+     * Returns the number of requests to the route.
+     *
+     * @param route route
+     * @return number of requests
+     */
+    public long getRequestCount(Route route) {
+        return this.requestCounts.get(route).get();
+    }
+
+    /**
+     * Returns service times of the route, including simulated latency and transfer of the body.
+     *
+     * @param route route
+     * @return service times in the order of completion
+     */
+    public List<Duration> getServiceTimes(Route route) {
+        return this.serviceTimes.get(route).stream().map(Duration::ofNanos).collect(toList());
+    }
+
+    /**
+     * Returns when the first response of the route is written.
+     *
+     * @param route route
+     * @return epoch milliseconds, or empty if there is no response yet
+     */
+    public OptionalLong getFirstCompletedAt(Route route) {
+        long completedAt = this.firstCompletedAt.get(route).get();
+        return completedAt == 0 ? OptionalLong.empty() : OptionalLong.of(completedAt);
+    }
+
+    /**
+     * Clears statistics of all routes.
+     */
+    public void resetStatistics() {
+        this.requestCounts.values().forEach(it -> it.set(0));
+        this.serviceTimes.values().forEach(Queue::clear);
+        this.firstCompletedAt.values().forEach(it -> it.set(0));
+    }
+
+    @Override
+    public void close() {
+        System.clearProperty(Origins.ORIGIN_PROPERTY);
+        System.clearProperty(Origins.CDN_ORIGIN_PROPERTY);
+
+        if (this.server != null) this.server.stop(0);
+        if (this.executor != null) this.executor.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath();
+
+            for (Route route : Route.values()) {
+                Matcher matcher = route.pattern.matcher(path);
+                if (!matcher.matches()) continue;
+
+                long startedAt = System.nanoTime();
+                this.requestCounts.get(route).incrementAndGet();
+                Response response = route(route, matcher, exchange);
+                send(exchange, route, response);
+                this.serviceTimes.get(route).add(System.nanoTime() - startedAt);
+                this.firstCompletedAt.get(route).compareAndSet(0, System.currentTimeMillis());
+                return;
+            }
+
+            exchange.sendResponseHeaders(404, -1);
+        }
+    }
+
+    private Response route(Route route, Matcher matcher, HttpExchange exchange) throws IOException {
+        switch (route) {
+            case HOME:
+                return homePage(exchange);
+            case LOGIN:
+                return "POST".equals(exchange.getRequestMethod())
+                        ? submitLogin(matcher.group(1), exchange)
+                        : loginPage(matcher.group(1), exchange);
+            case COMIC:
+                return ALIAS.equals(matcher.group(2)) ? comicPage(exchange) : Response.of(404);
+            case EPISODE:
+                return episode(matcher.group(1));
+            case ALL_EPISODES:
+                return allEpisodes(matcher.group(1));
+            case SIGNED_URL:
+                return signedUrl(exchange);
+            case IMAGE:
+                return image(Long.parseLong(matcher.group(2)), Integer.parseInt(matcher.group(3)),
+                        matcher.group(4), exchange);
+            default:
+                return Response.of(404);
+        }
+    }
+
+    private boolean isLoggedIn(HttpExchange exchange) {
+        String cookie = exchange.getRequestHeaders().getFirst("cookie");
+        Matcher matcher = COOKIE_PATTERN.matcher(cookie == null ? "" : cookie);
+        return matcher.find() && this.sessions.contains(matcher.group(1));
+    }
+
+    private Response homePage(HttpExchange exchange) {
+        String script = isLoggedIn(exchange)
+                ? "__LZ_ME__ = { email: '" + this.username + "' };\n"
+                + "__LZ_CONFIG__ = { token: '" + this.accessToken + "' };"
+                : "__LZ_ME__ = {};";
+
+        return Response.html(page(script));
+    }
+
+    private Response loginPage(String language, HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        String errorCode = query != null && query.contains("error=1") ? "1" : "";
+
+        String body = "<form id=\"email\" action=\"/" + language + "/login\" method=\"post\">\n"
+                + "    <input type=\"hidden\" name=\"redirect\" value=\"\">\n"
+                + "    <input type=\"hidden\" name=\"_csrf\" value=\"csrf-token\">\n"
+                + "    <input id=\"login-email\" name=\"username\" type=\"email\">\n"
+                + "    <input id=\"login-password\" name=\"password\" type=\"password\">\n"
+                + "    <button type=\"submit\"></button>\n"
+                + "</form>\n"
+                + "<script>__LZ_ERROR_CODE__ = '" + errorCode + "';</script>";
+
+        return Response.html("<html><body>" + body + "</body></html>");
+    }
+
+    private Response submitLogin(String language, HttpExchange exchange) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        for (String pair : form.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            if (keyValue.length == 2) {
+                fields.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8),
+                        URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8));
+            }
+        }
+
+        if (!this.username.equals(fields.get("username")) || !this.password.equals(fields.get("password"))
+                || !"csrf-token".equals(fields.get("_csrf"))) {
+            return Response.redirect("/" + language + "/login?error=1");
+        }
+
+        String session = UUID.randomUUID().toString();
+        this.sessions.add(session);
+
+        Response response = Response.redirect("/" + language);
+        response.headers.put("set-cookie", SESSION_COOKIE + '=' + session + "; Path=/; HttpOnly");
+        return response;
+    }
+
+    private Response comicPage(HttpExchange exchange) {
+        // Anonymous user sees the page without product.
+        if (this.ageGated && !isLoggedIn(exchange)) {
+            return Response.html(page("__LZ_ME__ = {};"));
+        }
+
+        String script = "__LZ_PRODUCT__ = { productType: 'comic', product: " + this.productJson
+                + ", departure: '', all: {}, prefree: {} };";
+        return Response.html(page(script));
+    }
+
+    private Response episode(String alias) {
+        if (!ALIAS.equals(alias)) return Response.of(404);
+
+        return Response.json("{\"cut\":" + this.cutCount + ",\"subscribed\":false,\"updatedAt\":0}");
+    }
+
+    private Response allEpisodes(String alias) {
+        if (!ALIAS.equals(alias)) return Response.of(404);
+
+        int start = this.productJson.indexOf("\"episodes\":");
+        return Response.json('{' + this.productJson.substring(start));
+    }
+
+    private Response signedUrl(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String episodeId = query.get("episodeId");
+        if (!String.valueOf(CONTENT_ID).equals(query.get("contentId")) || episodeId == null) {
+            return Response.json("{\"code\":400,\"description\":\"INVALID_PARAMETER\",\"data\":null}");
+        }
+
+        long now = System.currentTimeMillis();
+        long expiredAt = now + this.authorityLifetime.toMillis();
+        String policy = toHex(episodeId + ':' + expiredAt);
+
+        return Response.json("{\"code\":0,\"description\":\"SUCCESS\",\"data\":{"
+                + "\"Policy\":\"" + policy + "\","
+                + "\"Signature\":\"" + sign(policy) + "\","
+                + "\"Key-Pair-Id\":\"APKAFAKEKEYPAIR\","
+                + "\"expiredAt\":" + expiredAt + ",\"now\":" + now + "}}");
+    }
+
+    private Response image(long episodeId, int cutNo, String format, HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String policy = query.getOrDefault("Policy", "");
+        if (!sign(policy).equals(query.get("Signature"))) {
+            return Response.of(403);
+        }
+
+        Matcher matcher = POLICY_EPISODE_PATTERN.matcher(fromHex(policy));
+        if (!matcher.matches() || Long.parseLong(matcher.group(1)) != episodeId
+                || Long.parseLong(matcher.group(2)) < System.currentTimeMillis()) {
+            return Response.of(403);
+        }
+
+        if (cutNo < 1 || cutNo > this.cutCount) return Response.of(404);
+
+        Response response = Response.of(200);
+        response.body = "jpg".equals(format) ? jpeg(cutNo) : webp(cutNo);
+        response.headers.put("content-type", "jpg".equals(format) ? "image/jpeg" : "image/webp");
+        return response;
+    }
+
+    private void send(HttpExchange exchange, Route route, Response response) throws IOException {
+        RouteConfig config;
+        synchronized (this) {
+            config = this.routeConfigs.get(route);
+        }
+
+        sleep(config.sampleLatency());
+
+        if (config.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate) {
+            exchange.sendResponseHeaders(config.errorStatus, -1);
+            return;
+        }
+
+        response.headers.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+        exchange.sendResponseHeaders(response.status, response.body.length == 0 ? -1 : response.body.length);
+        if (response.body.length == 0) return;
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (config.bytesPerSecond <= 0) {
+                out.write(response.body);
+                return;
+            }
+
+            // Writes a chunk every 100 milliseconds.
+            int chunkSize = (int) Math.max(1, config.bytesPerSecond / 10);
+            for (int offset = 0; offset < response.body.length; offset += chunkSize) {
+                out.write(response.body, offset, Math.min(chunkSize, response.body.length - offset));
+                out.flush();
+                sleep(100);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    private byte[] webp(int cutNo) {
+        byte[] bytes = new byte[Math.max(this.imageSize, 20)];
+        new Random(cutNo).nextBytes(bytes);
+
+        int payloadSize = bytes.length - 20;
+        System.arraycopy("RIFF".getBytes(StandardCharsets.US_ASCII), 0, bytes, 0, 4);
+        writeLittleEndian(bytes, 4, bytes.length - 8);
+        System.arraycopy("WEBPVP8L".getBytes(StandardCharsets.US_ASCII), 0, bytes, 8, 8);
+        writeLittleEndian(bytes, 16, payloadSize);
+
+        return bytes;
+    }
+
+    private byte[] jpeg(int cutNo) {
+        byte[] bytes = new byte[Math.max(this.imageSize, 4)];
+        new Random(cutNo).nextBytes(bytes);
+
+        bytes[0] = (byte) 0xFF;
+        bytes[1] = (byte) 0xD8;
+        bytes[bytes.length - 2] = (byte) 0xFF;
+        bytes[bytes.length - 1] = (byte) 0xD9;
+
+        return bytes;
+    }
+
+    private static void writeLittleEndian(byte[] bytes, int offset, int value) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private String sign(String policy) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((policy + this.accessToken).getBytes(StandardCharsets.UTF_8));
+            return toHex(Arrays.copyOf(hash, 20));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(String text) {
+        return toHex(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static String fromHex(String hex) {
+        if (hex.length() % 2 != 0 || !hex.matches("[0-9a-f]*")) return "";
+
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+
+        for (String pair : rawQuery.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            query.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8),
+                    keyValue.length == 2 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "");
+        }
+
+        return query;
+    }
+
+    private static String page(String script) {
+        return "<html><head><script>\n" + script + "\n</script></head><body></body></html>";
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------------------
+
+    /**
+     * Route of fake server
+     */
+    public enum Route {
+        HOME("^/(ko|en|ja)$"),
+        LOGIN("^/(ko|en|ja)/login$"),
+        COMIC("^/(ko|en|ja)/comic/([^/]+)$"),
+        EPISODE("^/episodes/([^/]+)/([^/]+)\\.json$"),
+        ALL_EPISODES("^/episodes/([^/]+)$"),
+        SIGNED_URL("^/lz-api/v2/cloudfront/signed-url/generate$"),
+        IMAGE("^/v2/comics/(\\d+)/episodes/(\\d+)/contents/scrolls/(\\d+)\\.(webp|jpg)$");
+
+        private final Pattern pattern;
+
+        Route(String regex) {
+            this.pattern = Pattern.compile(regex);
+        }
+    }
+
+    /**
+     * Behavior of route
+     */
+    @Getter
+    @Builder
+    public static final class RouteConfig {
+        /**
+         * Delay before response.
+         */
+        @Builder.Default
+        private final Duration latency = Duration.ZERO;
+
+        /**
+         * Spread of latency; if positive, latency follows log-normal distribution
+         * whose median is {@link #latency}, as latency of network usually does.
+         */
+        @Builder.Default
+        private final double latencySigma = 0;
+
+        /**
+         * Bandwidth of response body, unlimited if not positive.
+         */
+        @Builder.Default
+        private final long bytesPerSecond = 0;
+
+        /**
+         * Ratio of requests which fail with {@link #errorStatus}.
+         */
+        @Builder.Default
+        private final double errorRate = 0;
+
+        @Builder.Default
+        private final int errorStatus = 503;
+
+        private long sampleLatency() {
+            long median = this.latency.toMillis();
+            if (this.latencySigma <= 0) return median;
+
+            return Math.round(median * Math.exp(this.latencySigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+
+        private final Map<String, String> headers = new HashMap<>();
+
+        private byte[] body = new byte[0];
+
+        private Response(int status) {
+            this.status = status;
+        }
+
+        private static Response of(int status) {
+            return new Response(status);
+        }
+
+        private static Response html(String html) {
+            Response response = new Response(200);
+            response.body = html.getBytes(StandardCharsets.UTF_8);
+            response.headers.put("content-type", "text/html; charset=utf-8");
+            return response;
+        }
+
+        private static Response json(String json) {
+            Response response = new Response(200);
+            response.body = json.getBytes(StandardCharsets.UTF_8);
+            response.headers.put("content-type", "application/json; charset=utf-8");
+            return response;
+        }
+
+        private static Response redirect(String location) {
+            Response response = new Response(302);
+            response.headers.put("location", location);
+            return response;
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.github.imsejin.lzcodl.benchmark;
+
+import io.github.imsejin.dl.lezhin.argument.ArgumentsParser;
+import io.github.imsejin.lzcodl.common.constant.EpisodeRange;
+import io.github.imsejin.lzcodl.common.json.ModelTypeAdapterFactory;
+import io.github.imsejin.lzcodl.model.Arguments;
+import io.github.imsejin.lzcodl.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code getArray} of the legacy {@link EpisodeRange} with the one of
+ * {@link io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange}.
+ *
+ * <p> The legacy one parses the range with regex on every call.
+ * Arguments of the legacy one read {@code config.ini}, so run this on the project root.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EpisodeRangeBenchmark {
+
+    @Param({"", "3~1000", "3~", "~1000"})
+    String range;
+
+    private EpisodeRange legacyRange;
+
+    private Arguments arguments;
+
+    private io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange currentRange;
+
+    private int numOfEpisodes;
+
+    @Setup
+    public void setUp() {
+        Product product = ModelTypeAdapterFactory.GSON.fromJson(ProductFixtures.product(1500), Product.class);
+        this.numOfEpisodes = product.getEpisodes().size();
+
+        this.arguments = Arguments.builder().language("ko").comicName("alias").episodeRange(this.range).build();
+        this.arguments.setProduct(product);
+        this.legacyRange = EpisodeRange.from(this.range);
+
+        this.currentRange = (io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange) new ArgumentsParser(
+                new io.github.imsejin.dl.lezhin.argument.impl.EpisodeRange()).parse("-r", this.range).get(0);
+    }
+
+    @Benchmark
+    public int[] legacy() {
+        return this.legacyRange.getArray(this.arguments);
+    }
+
+    @Benchmark
+    public int[] current() {
+        return this.currentRange.getArray(this.numOfEpisodes);
+    }
+
+}
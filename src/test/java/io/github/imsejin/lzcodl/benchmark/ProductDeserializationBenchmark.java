@@ -0,0 +1,84 @@
+package io.github.imsejin.lzcodl.benchmark;
+
+import com.google.gson.Gson;
+import io.github.imsejin.dl.lezhin.api.product.model.ProductTypeAdapterFactory;
+import io.github.imsejin.lzcodl.common.json.ModelTypeAdapterFactory;
+import io.github.imsejin.lzcodl.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming adapters with reflective Gson on deserializing product.
+ *
+ * <p> Both models of product are covered; the legacy one and the one of
+ * {@link io.github.imsejin.dl.lezhin.api.product.service.ProductService}.
+ *
+ * <p> Run {@link #main(String[])} to see allocation per operation as well ({@code gc.alloc.rate.norm}).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductDeserializationBenchmark {
+
+    private static final Gson REFLECTIVE = new Gson();
+
+    private static final Gson STREAMING = ModelTypeAdapterFactory.GSON;
+
+    private static final Gson PRODUCT_STREAMING = ProductTypeAdapterFactory.GSON;
+
+    @Param({"100", "1500"})
+    int episodeCount;
+
+    String json;
+
+    @Setup
+    public void setUp() {
+        this.json = ProductFixtures.product(this.episodeCount);
+    }
+
+    @Benchmark
+    public Product reflective() {
+        return REFLECTIVE.fromJson(this.json, Product.class);
+    }
+
+    @Benchmark
+    public Product streaming() {
+        return STREAMING.fromJson(this.json, Product.class);
+    }
+
+    @Benchmark
+    public io.github.imsejin.dl.lezhin.api.product.model.Product productReflective() {
+        return REFLECTIVE.fromJson(this.json, io.github.imsejin.dl.lezhin.api.product.model.Product.class);
+    }
+
+    @Benchmark
+    public io.github.imsejin.dl.lezhin.api.product.model.Product productStreaming() {
+        return PRODUCT_STREAMING.fromJson(this.json, io.github.imsejin.dl.lezhin.api.product.model.Product.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductDeserializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
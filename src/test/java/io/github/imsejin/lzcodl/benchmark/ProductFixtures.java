@@ -0,0 +1,48 @@
+package io.github.imsejin.lzcodl.benchmark;
+
+/**
+ * Generator of {@code __LZ_PRODUCT__} which looks like the one in comic page.
+ *
+ * <p> It has the fields the models don't have as well, so that adapters have to skip them.
+ */
+public final class ProductFixtures {
+
+    private ProductFixtures() {
+    }
+
+    public static String product(int episodeCount) {
+        StringBuilder sb = new StringBuilder(episodeCount * 512);
+        sb.append('{')
+                .append("\"display\":{\"title\":\"Title\",\"type\":\"g\",\"displayName\":\"Title\",")
+                .append("\"synopsis\":\"Lorem ipsum dolor sit amet, consectetur adipiscing elit.\",\"isAdult\":false},")
+                .append("\"artists\":[{\"name\":\"Artist\",\"role\":\"writer\",\"email\":\"artist@lezhin.com\",\"id\":\"1\",")
+                .append("\"bio\":{\"ko\":\"bio\"}}],")
+                .append("\"alias\":\"alias\",\"id\":5566,")
+                .append("\"genres\":[\"romance\",\"drama\"],\"badges\":{\"new\":true,\"up\":false},")
+                .append("\"episodes\":[");
+
+        for (int i = episodeCount; i > 0; i--) {
+            if (i != episodeCount) sb.append(',');
+
+            long publishedAt = 1_500_000_000_000L + i * 604_800_000L;
+            sb.append('{')
+                    .append("\"name\":\"").append(i).append("\",")
+                    .append("\"display\":{\"title\":\"Episode ").append(i).append("\",\"type\":\"g\",")
+                    .append("\"displayName\":\"").append(i).append("\",\"thumbnail\":\"/thumbnail/").append(i).append(".jpg\"},")
+                    .append("\"properties\":{\"expired\":false,\"notForSale\":false,\"isFree\":").append(i < 10).append("},")
+                    .append("\"coin\":").append(i < 10 ? 0 : 3).append(',')
+                    .append("\"point\":0,")
+                    .append("\"updatedAt\":").append(publishedAt + 3_600_000L).append(',')
+                    .append("\"freedAt\":").append(i < 10 ? publishedAt : 0).append(',')
+                    .append("\"seq\":").append(i).append(',')
+                    .append("\"publishedAt\":").append(publishedAt).append(',')
+                    .append("\"id\":").append(4_000_000_000L + i).append(',')
+                    .append("\"cuts\":").append(40 + i % 20).append(',')
+                    .append("\"tags\":[\"t1\",\"t2\"],\"extra\":null")
+                    .append('}');
+        }
+
+        return sb.append("]}").toString();
+    }
+
+}
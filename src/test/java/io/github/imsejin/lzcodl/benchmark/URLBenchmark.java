@@ -0,0 +1,55 @@
+package io.github.imsejin.lzcodl.benchmark;
+
+import io.github.imsejin.lzcodl.common.URLFactory;
+import io.github.imsejin.lzcodl.common.constant.URIs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building URLs, which is done for every image and page.
+ *
+ * <ul>
+ *     <li>{@link URLFactory#image(long, long, int, String, String, boolean)}: per cut</li>
+ *     <li>{@link URIs#get(String...)}: per page, with regex replacement per variable</li>
+ * </ul>
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class URLBenchmark {
+
+    private final String accessToken = UUID.randomUUID().toString();
+
+    private int cutNo;
+
+    @Benchmark
+    public URL image() {
+        return URLFactory.image(5566, 4_000_000_001L, ++this.cutNo, "webp", this.accessToken, false);
+    }
+
+    @Benchmark
+    public URI uriWithTwoParams() {
+        return URIs.COMIC.get("ko", "alias");
+    }
+
+    @Benchmark
+    public URI uriWithFourParams() {
+        return URIs.LIB_EPISODE.get("ko", "ko-KR", "alias", "1");
+    }
+
+}
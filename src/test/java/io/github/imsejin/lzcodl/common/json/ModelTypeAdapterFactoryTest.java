@@ -0,0 +1,64 @@
+package io.github.imsejin.lzcodl.common.json;
+
+import com.google.gson.Gson;
+import io.github.imsejin.lzcodl.benchmark.ProductFixtures;
+import io.github.imsejin.lzcodl.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelTypeAdapterFactoryTest {
+
+    private static final Gson REFLECTIVE = new Gson();
+
+    @Test
+    @DisplayName("Reads product as reflective Gson does")
+    void read() {
+        // given
+        String json = ProductFixtures.product(1500);
+
+        // when
+        Product expected = REFLECTIVE.fromJson(json, Product.class);
+        Product actual = ModelTypeAdapterFactory.GSON.fromJson(json, Product.class);
+
+        // then
+        assertThat(actual.getEpisodes()).hasSize(1500);
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Reads null and missing fields")
+    void readNull() {
+        // given
+        String json = "{\"display\":null,\"artists\":null,\"alias\":\"alias\","
+                + "\"episodes\":[{\"name\":null,\"coin\":null,\"properties\":{\"expired\":true}}]}";
+
+        // when
+        Product product = ModelTypeAdapterFactory.GSON.fromJson(json, Product.class);
+
+        // then
+        assertThat(product.getDisplay()).isNull();
+        assertThat(product.getArtists()).isNull();
+        assertThat(product.getAlias()).isEqualTo("alias");
+        assertThat(product.getEpisodes()).singleElement().satisfies(episode -> {
+            assertThat(episode.getName()).isNull();
+            assertThat(episode.getCoin()).isZero();
+            assertThat(episode.getProperties().isExpired()).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("Writes product which is read back as the same")
+    void write() {
+        // given
+        Product product = ModelTypeAdapterFactory.GSON.fromJson(ProductFixtures.product(10), Product.class);
+
+        // when
+        String json = ModelTypeAdapterFactory.GSON.toJson(product);
+
+        // then
+        assertThat(REFLECTIVE.fromJson(json, Product.class)).usingRecursiveComparison().isEqualTo(product);
+    }
+
+}
@@ -14,7 +14,6 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 
@@ -83,28 +82,26 @@ class ChromeBrowserTest {
 
     @Test
     @Disabled
-    void findLoadedClass() throws Exception {
-        // given
-        Method findLoadedClass = ClassLoader.class.getDeclaredMethod("findLoadedClass", String.class);
-        findLoadedClass.setAccessible(true);
-        String className = ChromeBrowser.class.getName() + "$SingletonLazyHolder";
-        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
-
+    @DisplayName("Launches browser lazily and again after quit")
+    void relaunch() {
         // when: 1
-        Class<?> clazz = (Class<?>) findLoadedClass.invoke(classLoader, className);
+        boolean runningBeforeGet = ChromeBrowser.isRunning();
+        ChromeDriver first = ChromeBrowser.getDriver();
         // then: 1
-        assertThat(clazz).isNull();
+        assertThat(runningBeforeGet).isFalse();
+        assertThat(ChromeBrowser.isRunning()).isTrue();
+        assertThat(ChromeBrowser.getDriver()).isSameAs(first);
 
         // when: 2
-        try {
-            ChromeBrowser.getDriver().quit();
-        } catch (Throwable ignored) {
-        }
-        Class<?> loadedClass = (Class<?>) findLoadedClass.invoke(classLoader, className);
+        ChromeBrowser.softQuit();
         // then: 2
-        assertThat(loadedClass)
-                .isNotNull()
-                .isEqualTo(Class.forName(className));
+        assertThat(ChromeBrowser.isRunning()).isFalse();
+
+        // when: 3
+        ChromeDriver second = ChromeBrowser.getDriver();
+        // then: 3
+        assertThat(second).isNotSameAs(first);
+        ChromeBrowser.softQuit();
     }
 
 }
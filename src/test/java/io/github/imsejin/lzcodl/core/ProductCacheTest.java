@@ -0,0 +1,156 @@
+package io.github.imsejin.lzcodl.core;
+
+import io.github.imsejin.lzcodl.common.constant.Languages;
+import io.github.imsejin.lzcodl.model.Display;
+import io.github.imsejin.lzcodl.model.Episode;
+import io.github.imsejin.lzcodl.model.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    @TempDir
+    Path tempPath;
+
+    private static Episode episode(long id, long updatedAt, long publishedAt) {
+        Episode episode = new Episode();
+        episode.setId(id);
+        episode.setName(String.valueOf(id));
+        episode.setUpdatedAt(updatedAt);
+        episode.setPublishedAt(publishedAt);
+        return episode;
+    }
+
+    private static Product product(String title, Episode... episodes) {
+        Display display = new Display();
+        display.setTitle(title);
+
+        Product product = new Product();
+        product.setDisplay(display);
+        product.setArtists(List.of());
+        product.setAlias("alias");
+        product.setEpisodes(List.of(episodes));
+        return product;
+    }
+
+    @Test
+    @DisplayName("Saves and loads the product")
+    void saveAndLoad() {
+        // given
+        ProductCache cache = new ProductCache(this.tempPath);
+        Product product = product("title", episode(2, 20, 20), episode(1, 10, 10));
+
+        // when
+        cache.save(Languages.KOREAN, "alias", product, true);
+        Optional<ProductCache.Entry> entry = cache.load(Languages.KOREAN, "alias");
+
+        // then
+        assertThat(entry).isPresent();
+        assertThat(entry.get().isExpiredComic()).isTrue();
+        assertThat(cache.isFresh(entry.get())).isTrue();
+        assertThat(entry.get().getProduct().getEpisodes())
+                .extracting(Episode::getId).containsExactly(2L, 1L);
+        assertThat(cache.load(Languages.ENGLISH, "alias")).isNotPresent();
+    }
+
+    @Test
+    @DisplayName("Entry is stale after TTL")
+    void stale() {
+        // given
+        ProductCache cache = new ProductCache(this.tempPath, Duration.ZERO);
+        cache.save(Languages.JAPANESE, "alias", product("title", episode(1, 10, 10)), false);
+
+        // when
+        Optional<ProductCache.Entry> entry = cache.load(Languages.JAPANESE, "alias");
+
+        // then
+        assertThat(entry).isPresent();
+        assertThat(cache.isFresh(entry.get())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Discards the corrupt cache")
+    void corrupt() throws Exception {
+        // given
+        ProductCache cache = new ProductCache(this.tempPath);
+        cache.save(Languages.KOREAN, "alias", product("title", episode(1, 10, 10)), false);
+        Path file = Files.list(this.tempPath.resolve(".cache").resolve("products")).findFirst().orElseThrow();
+        Files.writeString(file, "{not json");
+
+        // when
+        Optional<ProductCache.Entry> entry = cache.load(Languages.KOREAN, "alias");
+
+        // then
+        assertThat(entry).isNotPresent();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Takes the fetched episodes as they are")
+    void merge() {
+        // given
+        Product cached = product("old", episode(2, 20, 20), episode(1, 10, 10));
+        Episode changed = episode(1, 10, 10);
+        changed.setFreedAt(100);
+        changed.setCoin(3);
+        Product fetched = product("new", episode(3, 30, 30), episode(2, 25, 20), changed);
+
+        // when
+        Product merged = ProductCache.merge(cached, fetched);
+
+        // then
+        assertThat(merged.getDisplay().getTitle()).isEqualTo("new");
+        assertThat(merged.getEpisodes()).extracting(Episode::getId).containsExactly(3L, 2L, 1L);
+        assertThat(merged.getEpisodes()).extracting(Episode::getUpdatedAt).containsExactly(30L, 25L, 10L);
+        assertThat(merged.getEpisodes()).extracting(Episode::getFreedAt).containsExactly(0L, 0L, 100L);
+        assertThat(merged.getEpisodes()).extracting(Episode::getCoin).containsExactly(0, 0, 3);
+    }
+
+    @Test
+    @DisplayName("Drops the episodes removed since the product was cached")
+    void mergeRemoved() {
+        // given
+        Product cached = product("title", episode(3, 30, 30), episode(2, 20, 20), episode(1, 10, 10));
+        Product fetched = product("title", episode(3, 30, 30), episode(1, 10, 10));
+
+        // when
+        Product merged = ProductCache.merge(cached, fetched);
+
+        // then
+        assertThat(merged.getEpisodes()).extracting(Episode::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("Fills only what the fetched product lacks with the cached one")
+    void mergeMissing() {
+        // given
+        Episode cachedEpisode = episode(1, 10, 10);
+        Display display = new Display();
+        display.setTitle("episode");
+        cachedEpisode.setDisplay(display);
+        Product cached = product("title", cachedEpisode);
+
+        Product fetched = product(null, episode(1, 10, 10));
+        fetched.setDisplay(null);
+        fetched.setArtists(null);
+
+        // when
+        Product merged = ProductCache.merge(cached, fetched);
+
+        // then
+        assertThat(merged.getDisplay().getTitle()).isEqualTo("title");
+        assertThat(merged.getArtists()).isEmpty();
+        assertThat(merged.getEpisodes()).singleElement()
+                .extracting(it -> it.getDisplay().getTitle()).isEqualTo("episode");
+    }
+
+}